@@ -55,6 +55,8 @@ android {
 
 dependencies {
 
+    implementation(project(":minmax99"))
+
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -67,6 +69,7 @@ dependencies {
 
 
     annotationProcessor(libs.compiler)
+    annotationProcessor(libs.room.compiler)
 
     implementation(platform(libs.firebase.bom))
     implementation(libs.firebase.database)
@@ -23,6 +23,7 @@ package com.djowda.djowdageminimap;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.DisplayMetrics;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -38,18 +39,56 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
 import com.djowda.djowdageminimap.MapTest.Component;
 import com.djowda.djowdageminimap.MapTest.Custom2DScrollView;
 import com.djowda.djowdageminimap.MapTest.GridAdapter;
 import com.djowda.djowdageminimap.MapTest.TileMap;
+import com.djowda.djowdageminimap.minmax99.CachingCellDataSource;
+import com.djowda.djowdageminimap.minmax99.CellCache;
+import com.djowda.djowdageminimap.minmax99.CellCacheDatabase;
+import com.djowda.djowdageminimap.minmax99.CellChangeSource;
+import com.djowda.djowdageminimap.minmax99.CellResultPublisher;
+import com.djowda.djowdageminimap.minmax99.FetchGeneration;
+import com.djowda.djowdageminimap.minmax99.FetchMetrics;
+import com.djowda.djowdageminimap.minmax99.FetchPlanner;
+import com.djowda.djowdageminimap.minmax99.FetchScheduler;
+import com.djowda.djowdageminimap.minmax99.FetchStats;
+import com.djowda.djowdageminimap.minmax99.FlingPrefetcher;
+import com.djowda.djowdageminimap.minmax99.InMemoryCellDataSource;
+import com.djowda.djowdageminimap.minmax99.LiveCellSubscriptions;
+import com.djowda.djowdageminimap.minmax99.LiveChange;
+import com.djowda.djowdageminimap.minmax99.LoadedArea;
+import com.djowda.djowdageminimap.minmax99.MemoryCachedCellDataSource;
+import com.djowda.djowdageminimap.minmax99.MeteredCellDataSource;
 import com.djowda.djowdageminimap.minmax99.NearbyComponentFetcher;
+import com.djowda.djowdageminimap.minmax99.OccupancyFilter;
+import com.djowda.djowdageminimap.minmax99.ParseStage;
+import com.djowda.djowdageminimap.minmax99.RetryingCellDataSource;
+import com.djowda.djowdageminimap.minmax99.RoomCellStore;
+import com.djowda.djowdageminimap.minmax99.SingleFlightCellDataSource;
+import com.djowda.djowdageminimap.minmax99.SyntheticWorld;
+import com.djowda.djowdageminimap.minmax99.TileUpdate;
+import com.djowda.djowdageminimap.minmax99.UiBatcher;
+import com.djowda.djowdageminimap.minmax99.ViewportDelta;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class MapFragment extends Fragment implements GridAdapter.ItemClickListener {
     private static final String TAG = "MapFragment";
+    // Cells handed to the main thread ahead of painting
+    private static final int TILE_BATCH = 32;
 
     // UI Components
     private RecyclerView recyclerView;
@@ -71,6 +110,24 @@ public class MapFragment extends Fragment implements GridAdapter.ItemClickListen
     // Services
     private GeminiApiService geminiApiService;
     private NavigationService navigationService;
+    private NearbyComponentFetcher fetcher;
+    private MemoryCachedCellDataSource memoryCache;
+    private LiveCellSubscriptions liveCells;
+    // Attaches live listeners off the main thread, one viewport after another
+    private final ExecutorService liveAttacher = Executors.newSingleThreadExecutor();
+    // Live changes, painted in batches like fetched tiles
+    private final UiBatcher<LiveChange> liveChanges = new UiBatcher<>(updateHandler::post, this::paintLiveChanges);
+    private OccupancyFilter occupancyFilter;
+    // Read latency, navigation times and cache hit rates of the fetch path
+    private final FetchMetrics fetchMetrics = new FetchMetrics();
+    private FlingPrefetcher flingPrefetcher;
+
+    // Cells the grid holds fully loaded; a navigation reads every other cell of its viewport
+    private final LoadedArea loadedArea = new LoadedArea();
+    // The viewport the grid currently shows, for repainting refreshed cells
+    private CellIdMapper displayedViewport;
+    // Each navigation supersedes the fetch of the previous one
+    private final FetchGeneration navigationGeneration = new FetchGeneration();
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -90,8 +147,11 @@ public class MapFragment extends Fragment implements GridAdapter.ItemClickListen
         // Setup RecyclerView
         setupRecyclerView();
 
+        // Read ahead of scroll gestures
+        setupPrefetch();
+
         // Load initial data
-        navigateToCell(644966003L, 20);
+        navigateToCell(644966003L, TileMap.getRange());
 
         // Generate initial random components
         generateRandomComponents();
@@ -100,6 +160,29 @@ public class MapFragment extends Fragment implements GridAdapter.ItemClickListen
     private void initializeServices() {
         geminiApiService = new GeminiApiService();
         navigationService = new NavigationService();
+        // In-memory stand-in until the map reads the live database; swap in FirebaseCellDataSource.
+        // Cells read once are kept on the device and served from there, refreshed in the background;
+        // recently used ones are also kept in memory across navigations. The seeded world gives
+        // the same towns and countryside on every run, so cache and delta behaviour are repeatable.
+        InMemoryCellDataSource standIn = InMemoryCellDataSource.withSyntheticWorld(
+                SyntheticWorld.clustered(SyntheticWorld.DEFAULT_SEED));
+        // Background revalidations queue behind the user's reads in the fetcher's scheduler
+        FetchScheduler scheduler = new FetchScheduler();
+        CachingCellDataSource cache = new CachingCellDataSource(
+                new RetryingCellDataSource(new MeteredCellDataSource(standIn, fetchMetrics)),
+                new RoomCellStore(CellCacheDatabase.getInstance(requireContext())), scheduler);
+        cache.setRevalidationListener(this::onCachedCellChanged);
+        memoryCache = new MemoryCachedCellDataSource(cache);
+        CellCache<?> memory = memoryCache.getCache();
+        fetchMetrics.bindCache("memory", memory::getHitCount, memory::getMissCount);
+        fetchMetrics.bindCache("device", () -> cache.getFreshHitCount() + cache.getStaleHitCount(),
+                cache::getMissCount);
+        // Cells the block's occupancy bitmap shows empty are never read
+        occupancyFilter = new OccupancyFilter(standIn);
+        fetcher = new NearbyComponentFetcher(new SingleFlightCellDataSource(memoryCache), new FetchPlanner(),
+                scheduler, occupancyFilter);
+        // Open/closed flips and new or removed components show up without re-navigating
+        liveCells = new LiveCellSubscriptions(standIn, new LiveCellListener());
         Log.d(TAG, "Services initialized");
     }
 
@@ -165,7 +248,7 @@ public class MapFragment extends Fragment implements GridAdapter.ItemClickListen
                                 long responseTime = System.currentTimeMillis() - startTime;
 
                                 Log.d(TAG, "Navigation complete to cell ID: " + cellId);
-                                navigateToCell(cellId, 20);
+                                navigateToCell(cellId, TileMap.getRange());
 
                                 String locationDesc = navigationService.getLocationDescription(latitude, longitude);
 
@@ -257,45 +340,145 @@ public class MapFragment extends Fragment implements GridAdapter.ItemClickListen
     private void navigateToCell(long centerCellId, int range) {
         Log.d(TAG, "Navigating to cell: " + centerCellId + " with range: " + range);
 
-        // Clear existing data before loading new data
-        adapter.clearAllData();
+        // Only the cells entering the viewport are fetched; cells that stay keep their data.
+        // The delta starts from what the grid holds fully loaded, which shrinks with every cell
+        // the grid drops, so cells an interrupted navigation dropped or never delivered are read.
+        CellIdMapper target = new CellIdMapper(centerCellId, range);
+        ViewportDelta delta = loadedArea.deltaTo(target);
+        displayedViewport = target;
+        FetchGeneration.Token token = navigationGeneration.next();
+        liveAttacher.execute(() -> liveCells.setViewport(centerCellId, range));
+        flingPrefetcher.setViewport(target);
+
+        if (delta.isFullRefresh()) {
+            adapter.clearAllData();
+            loadedArea.clear();
+        } else {
+            adapter.retainViewport(target);
+            loadedArea.retain(target);
+        }
+        Log.d(TAG, "Viewport delta - entering: " + delta.getEnteringCount()
+                + ", staying: " + delta.getStayingCount() + ", leaving: " + delta.getLeavingCount());
 
-        fetchNearbyComponentsByCellId(centerCellId, range);
+        fetchEnteringComponents(delta, token);
     }
 
-    private void fetchNearbyComponentsByCellId(long cellId, int range) {
-        // Testing the data fetching dummy mode
-        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(null);
-        fetcher.fetchNearbyComponentsDummy(cellId, range, new NearbyComponentFetcher.OnFetchComplete() {
-            @Override
-            public void onResult(NearbyComponentFetcher.FetchResult result) {
-                updateHandler.post(() -> {
-                    // Process each cell in the result
-                    for (Long cellId : result.mapper.getAllCellIds()) {
-                        int gridPosition = result.mapper.getGridPositionFromCellId(cellId);
-                        if (gridPosition != -1) {
-                            List<Component> components = result.cellComponents.get(cellId);
-                            if (components != null && !components.isEmpty()) {
-                                // Update the grid with the first component (or handle multiple as needed)
-                                adapter.updateCell(gridPosition, cellId, components.get(0));
-                            }
-                        }
-                    }
-                });
+    private void fetchEnteringComponents(ViewportDelta delta, FetchGeneration.Token token) {
+        CellResultPublisher cells = fetcher.streamEnteringComponents(delta, FetchScheduler.Priority.USER, token);
+        CellIdMapper mapper = cells.getMapper();
 
+        // Tiles are prepared where the cells arrive and painted in batches, one main-thread task
+        // per batch; more are asked for, off the main thread, once a batch is painted
+        cells.subscribe(new Subscriber<NearbyComponentFetcher.CellResult>() {
+            private Subscription subscription;
+            private final UiBatcher<TileUpdate> tiles = new UiBatcher<>(updateHandler::post, this::paint);
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription = s;
                 // Center the grid
                 scrollView.post(() -> scrollView.centerOnGrid());
+                s.request(TILE_BATCH);
+            }
+
+            @Override
+            public void onNext(NearbyComponentFetcher.CellResult cell) {
+                int gridPosition = mapper.getGridPositionFromCellId(cell.cellId);
+                // The parsed components go to the grid as they are; nothing mutates them
+                List<Component> components = gridPosition != -1 && !token.isStale()
+                        ? cell.components
+                        : Collections.emptyList();
+                // Submitted even when there is nothing to paint, so the demand is given back
+                tiles.submit(new TileUpdate(gridPosition, cell.cellId, components));
+            }
+
+            // Main thread
+            private void paint(List<TileUpdate> batch) {
+                if (token.isStale()) {
+                    subscription.cancel(); // A newer navigation owns the grid
+                    return;
+                }
+                adapter.applyTiles(batch);
+                // Requesting can deliver buffered cells on the calling thread, so not this one
+                ParseStage.shared().execute(() -> subscription.request(batch.size()));
             }
 
             @Override
-            public void onError(Exception e) {
+            public void onError(Throwable t) {
+                if (t instanceof CancellationException) {
+                    return; // Superseded by a newer navigation
+                }
                 updateHandler.post(() -> {
-                    Toast.makeText(requireContext(), "Error loading data: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                    Toast.makeText(requireContext(), "Error loading data: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+                });
+            }
+
+            @Override
+            public void onComplete() {
+                FetchStats stats = cells.getStats();
+                fetchMetrics.navigationCompleted(stats.getElapsed(TimeUnit.NANOSECONDS));
+                Log.d(TAG, "Viewport loaded: " + stats + ", " + fetchMetrics.snapshot());
+                // Posted after every batch submitted so far, so the totals are final here
+                updateHandler.post(() -> {
+                    Log.d(TAG, String.format(Locale.US, "Main thread: %.2f ms painting %d cells in %d tasks",
+                            tiles.getApplyNanos() / 1e6, tiles.getItemCount(), tiles.getBatchCount()));
+                    // A partial load is not complete: the next delta re-reads the failed cells
+                    if (token.isCurrent() && stats.getFailedCellIds().length == 0) {
+                        loadedArea.markLoaded(mapper);
+                    }
                 });
             }
         });
     }
 
+    // A cached cell on screen turned out to have changed; repaint it if it is still visible
+    private void onCachedCellChanged(long cellId, List<Component> components) {
+        memoryCache.update(cellId, components);
+        updateHandler.post(() -> {
+            int gridPosition = visiblePositionOf(cellId);
+            if (gridPosition != -1) {
+                adapter.replaceCell(gridPosition, cellId, components);
+            }
+        });
+    }
+
+    // Hands live component changes to the main thread, batched
+    private class LiveCellListener implements CellChangeSource.ChangeListener {
+        @Override
+        public void onComponentAdded(long cellId, Component component) {
+            occupancyFilter.markOccupied(cellId);
+            liveChanges.submit(LiveChange.upsert(cellId, component));
+        }
+
+        @Override
+        public void onComponentChanged(long cellId, Component component) {
+            liveChanges.submit(LiveChange.upsert(cellId, component));
+        }
+
+        @Override
+        public void onComponentRemoved(long cellId, String componentId) {
+            liveChanges.submit(LiveChange.removal(cellId, componentId));
+        }
+
+        @Override
+        public void onError(long cellId, Exception e) {
+            Log.w(TAG, "Live updates stopped for cell " + cellId, e);
+        }
+    }
+
+    // Main thread: each visible cell a batch touched is repainted, and cached, once
+    private void paintLiveChanges(List<LiveChange> batch) {
+        for (TileUpdate tile : LiveChange.toTiles(batch, this::visiblePositionOf, adapter::getCellComponents)) {
+            adapter.replaceCell(tile.gridPosition, tile.cellId, tile.components);
+            memoryCache.update(tile.cellId, tile.components);
+        }
+    }
+
+    private int visiblePositionOf(long cellId) {
+        CellIdMapper viewport = displayedViewport;
+        return viewport != null ? viewport.getGridPositionFromCellId(cellId) : -1;
+    }
+
     private void setupRecyclerView() {
         GridLayoutManager layoutManager = new GridLayoutManager(requireContext(), TileMap.getMapSize());
         layoutManager.setOrientation(RecyclerView.VERTICAL);
@@ -311,9 +494,77 @@ public class MapFragment extends Fragment implements GridAdapter.ItemClickListen
         scrollView.post(() -> scrollView.centerOnGrid());
     }
 
+    private void setupPrefetch() {
+        int tileSize = TileMap.getTileSizeInPixels(requireContext());
+        DisplayMetrics metrics = requireContext().getResources().getDisplayMetrics();
+        flingPrefetcher = new FlingPrefetcher(fetcher,
+                metrics.widthPixels / tileSize / 2 + 1, metrics.heightPixels / tileSize / 2 + 1);
+        scrollView.setScrollListener(new PrefetchingScrollListener(tileSize));
+    }
+
+    // Turns gestures into cells for the prefetcher; a gesture that stops near the grid's edge
+    // re-centers the grid there, on cells the prefetch has already cached
+    private class PrefetchingScrollListener implements Custom2DScrollView.ScrollListener {
+        private final int tileSize;
+
+        PrefetchingScrollListener(int tileSize) {
+            this.tileSize = tileSize;
+        }
+
+        @Override
+        public void onDrag(int scrollX, int scrollY, float velocityX, float velocityY) {
+            long cellId = cellAtScreenCenter(scrollX, scrollY);
+            if (cellId != -1) {
+                flingPrefetcher.onDrag(cellId, velocityX / tileSize, velocityY / tileSize);
+            }
+        }
+
+        @Override
+        public void onFling(int scrollX, int scrollY, int finalX, int finalY, float velocityX, float velocityY) {
+            long cellId = cellAtScreenCenter(scrollX, scrollY);
+            long landingCellId = cellAtScreenCenter(finalX, finalY);
+            if (cellId != -1 && landingCellId != -1) {
+                flingPrefetcher.onFling(cellId, landingCellId, velocityX / tileSize, velocityY / tileSize);
+            }
+        }
+
+        @Override
+        public void onScrollSettled(int scrollX, int scrollY) {
+            CellIdMapper viewport = displayedViewport;
+            long cellId = cellAtScreenCenter(scrollX, scrollY);
+            if (viewport == null || cellId == -1 || !nearEdge(scrollX, scrollY)) {
+                return;
+            }
+            Log.d(TAG, "Re-centering on " + cellId + ", prefetch windows=" + flingPrefetcher.getPrefetchCount()
+                    + " cells=" + flingPrefetcher.getCellsRequested() + " read=" + flingPrefetcher.getCellsRead()
+                    + " cancelled=" + flingPrefetcher.getCancelCount());
+            navigateToCell(cellId, viewport.getRange());
+        }
+
+        private boolean nearEdge(int scrollX, int scrollY) {
+            int edge = tileSize * FlingPrefetcher.DEFAULT_MARGIN;
+            int maxX = TileMap.getTotalSizeInPixels(requireContext()) - scrollView.getWidth();
+            int maxY = TileMap.getTotalSizeInPixels(requireContext()) - scrollView.getHeight();
+            return scrollX <= edge || scrollY <= edge || scrollX >= maxX - edge || scrollY >= maxY - edge;
+        }
+
+        private long cellAtScreenCenter(int scrollX, int scrollY) {
+            CellIdMapper viewport = displayedViewport;
+            if (viewport == null) {
+                return -1;
+            }
+            int column = (scrollX + scrollView.getWidth() / 2) / tileSize;
+            int row = (scrollY + scrollView.getHeight() / 2) / tileSize;
+            return viewport.getCellIdAt(column, row);
+        }
+    }
+
     @Override
     public void onDestroy() {
         super.onDestroy();
+        liveAttacher.execute(liveCells::clear);
+        liveAttacher.shutdown();
+        flingPrefetcher.cancel();
         updateHandler.removeCallbacksAndMessages(null);
     }
 
@@ -27,6 +27,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 public class CellData {
@@ -44,6 +45,31 @@ public class CellData {
         cellDataMap.put(gridPosition, new ArrayList<>(components));
     }
 
+    // Add a component, or replace the one with the same id (live child added/changed)
+    public void upsertComponent(int gridPosition, long cellId, Component component) {
+        positionToCellId.put(gridPosition, cellId);
+        List<Component> comps = cellDataMap.computeIfAbsent(gridPosition, k -> new ArrayList<>());
+        for (int i = 0; i < comps.size(); i++) {
+            if (Objects.equals(comps.get(i).getId(), component.getId())) {
+                comps.set(i, component);
+                return;
+            }
+        }
+        comps.add(component);
+    }
+
+    // Remove one component by id (live child removed); the cell is dropped once empty
+    public boolean removeComponent(int gridPosition, String componentId) {
+        List<Component> comps = cellDataMap.get(gridPosition);
+        if (comps == null || !comps.removeIf(c -> Objects.equals(c.getId(), componentId))) {
+            return false;
+        }
+        if (comps.isEmpty()) {
+            clearPosition(gridPosition);
+        }
+        return true;
+    }
+
     public boolean hasData(int gridPosition) {
         return cellDataMap.containsKey(gridPosition) && !cellDataMap.get(gridPosition).isEmpty();
     }
@@ -123,6 +149,35 @@ public class CellData {
         positionToCellId.clear();
     }
 
+    /**
+     * Keeps the data of cells that are still part of {@code viewport} and moves it to their
+     * grid positions in that viewport; drops everything else.
+     * @return Number of cells kept.
+     */
+    public int retainCells(CellIdMapper viewport) {
+        Map<Integer, List<Component>> keptData = new HashMap<>();
+        Map<Integer, Long> keptIds = new HashMap<>();
+
+        for (Map.Entry<Integer, Long> entry : positionToCellId.entrySet()) {
+            long cellId = entry.getValue();
+            int newPosition = viewport.getPosition(cellId);
+            if (newPosition == -1) {
+                continue;
+            }
+            keptIds.put(newPosition, cellId);
+            List<Component> components = cellDataMap.get(entry.getKey());
+            if (components != null) {
+                keptData.put(newPosition, components);
+            }
+        }
+
+        cellDataMap.clear();
+        cellDataMap.putAll(keptData);
+        positionToCellId.clear();
+        positionToCellId.putAll(keptIds);
+        return keptIds.size();
+    }
+
 }
 
 //public class CellData {
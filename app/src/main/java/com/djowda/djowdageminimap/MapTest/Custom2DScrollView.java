@@ -54,6 +54,25 @@ public class Custom2DScrollView extends ViewGroup {
     private static final int MINIMUM_VELOCITY = 50;
     private static final int MAXIMUM_VELOCITY = 8000;
 
+    // Gesture reporting for predictive loading
+    private ScrollListener scrollListener;
+    private boolean isFlinging = false;
+
+    /**
+     * Receives scroll gestures, in pixels of content: positive velocities move the content
+     * window right and down, the same sign as {@link #getScrollX()} changes.
+     */
+    public interface ScrollListener {
+        // A drag moved the content
+        void onDrag(int scrollX, int scrollY, float velocityX, float velocityY);
+
+        // A fling started that will stop at finalX, finalY
+        void onFling(int scrollX, int scrollY, int finalX, int finalY, float velocityX, float velocityY);
+
+        // The content stopped moving, after a drag or a fling
+        void onScrollSettled(int scrollX, int scrollY);
+    }
+
     public Custom2DScrollView(Context context) {
         this(context, null);
     }
@@ -79,6 +98,10 @@ public class Custom2DScrollView extends ViewGroup {
         setChildrenDrawingOrderEnabled(true);
     }
 
+    public void setScrollListener(ScrollListener listener) {
+        this.scrollListener = listener;
+    }
+
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         // Cache the resolved dimensions to avoid repeated calculations
@@ -136,6 +159,7 @@ public class Custom2DScrollView extends ViewGroup {
                 // Stop any ongoing scroll animation
                 if (!overScroller.isFinished()) {
                     overScroller.abortAnimation();
+                    isFlinging = false; // The new gesture reports for itself
                 }
                 break;
 
@@ -185,6 +209,7 @@ public class Custom2DScrollView extends ViewGroup {
 
                 if (!overScroller.isFinished()) {
                     overScroller.abortAnimation();
+                    isFlinging = false; // The new gesture reports for itself
                 }
                 return true;
 
@@ -207,6 +232,13 @@ public class Custom2DScrollView extends ViewGroup {
 
                     lastX = x;
                     lastY = y;
+
+                    if (scrollListener != null) {
+                        velocityTracker.computeCurrentVelocity(1000, MAXIMUM_VELOCITY);
+                        // The content moves against the finger
+                        scrollListener.onDrag(getScrollX(), getScrollY(),
+                                -velocityTracker.getXVelocity(), -velocityTracker.getYVelocity());
+                    }
                 }
                 return true;
 
@@ -221,6 +253,8 @@ public class Custom2DScrollView extends ViewGroup {
                     // Start fling if velocity is significant
                     if (Math.abs(velocityX) > MINIMUM_VELOCITY || Math.abs(velocityY) > MINIMUM_VELOCITY) {
                         fling(velocityX, velocityY);
+                    } else if (scrollListener != null) {
+                        scrollListener.onScrollSettled(getScrollX(), getScrollY());
                     }
 
                     isDragging = false;
@@ -272,6 +306,13 @@ public class Custom2DScrollView extends ViewGroup {
                 0, 0 // No over-scroll for now
         );
 
+        // The scroller knows where the fling stops before it starts moving
+        if (scrollListener != null) {
+            isFlinging = true;
+            scrollListener.onFling(getScrollX(), getScrollY(), overScroller.getFinalX(), overScroller.getFinalY(),
+                    -velocityX, -velocityY);
+        }
+
         invalidate();
     }
 
@@ -290,6 +331,17 @@ public class Custom2DScrollView extends ViewGroup {
             // Continue animation
             if (!overScroller.isFinished()) {
                 postInvalidateOnAnimation();
+            } else {
+                notifyFlingSettled();
+            }
+        }
+    }
+
+    private void notifyFlingSettled() {
+        if (isFlinging) {
+            isFlinging = false;
+            if (scrollListener != null) {
+                scrollListener.onScrollSettled(getScrollX(), getScrollY());
             }
         }
     }
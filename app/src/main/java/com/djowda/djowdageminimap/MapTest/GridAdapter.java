@@ -32,6 +32,9 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.djowda.djowdageminimap.R;
+import com.djowda.djowdageminimap.minmax99.TileUpdate;
+
+import java.util.List;
 
 
 public class GridAdapter extends RecyclerView.Adapter<GridAdapter.GridViewHolder> {
@@ -86,12 +89,54 @@ public class GridAdapter extends RecyclerView.Adapter<GridAdapter.GridViewHolder
         notifyItemChanged(position);
     }
 
+    // Set a cell's full contents, e.g. when cached data is refreshed; an empty list clears the tile
+    public void replaceCell(int position, long cellId, List<Component> components) {
+        if (components.isEmpty()) {
+            cellData.clearPosition(position);
+        } else {
+            cellData.replaceCell(position, cellId, components);
+        }
+        notifyItemChanged(position);
+    }
+
+    // Paint a batch of prepared tiles; their components are shared with the caches, never mutated
+    public void applyTiles(List<TileUpdate> tiles) {
+        for (TileUpdate tile : tiles) {
+            if (tile.gridPosition != -1 && !tile.components.isEmpty()) {
+                cellData.replaceCell(tile.gridPosition, tile.cellId, tile.components);
+                notifyItemChanged(tile.gridPosition);
+            }
+        }
+    }
+
+    // Apply a live component update to one tile
+    public void upsertComponent(int position, long cellId, Component component) {
+        cellData.upsertComponent(position, cellId, component);
+        notifyItemChanged(position);
+    }
+
+    public void removeComponent(int position, String componentId) {
+        if (cellData.removeComponent(position, componentId)) {
+            notifyItemChanged(position);
+        }
+    }
+
+    public List<Component> getCellComponents(int position) {
+        return cellData.getCellData(position);
+    }
+
     // Clear all data when navigating to new location
     public void clearAllData() {
         cellData.clearAllData();
         notifyDataSetChanged(); // Refresh entire grid
     }
 
+    // Keep the cells still inside the new viewport (shifted to their new positions), drop the rest
+    public void retainViewport(CellIdMapper viewport) {
+        cellData.retainCells(viewport);
+        notifyDataSetChanged(); // Every kept tile moves, so the whole grid changes
+    }
+
     // Alternative method to clear grid with range notification for better performance
     public void clearGridEfficient() {
         int itemCount = getItemCount();
@@ -41,6 +41,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 
 import com.djowda.djowdageminimap.R;
+import com.djowda.djowdageminimap.minmax99.InMemoryCellDataSource;
 import com.djowda.djowdageminimap.minmax99.NearbyComponentFetcher;
 
 import java.util.Arrays;
@@ -130,7 +131,7 @@ public class MapFragment01 extends Fragment implements GridAdapter.ItemClickList
         setupRecyclerView();
 
         // Load initial data
-        navigateToCell(644966003L, 20);
+        navigateToCell(644966003L, TileMap.getRange());
 
         generateRandomComponents();
     }
@@ -178,13 +179,13 @@ public class MapFragment01 extends Fragment implements GridAdapter.ItemClickList
 
     private void fetchNearbyComponentsByCellId(long cellId, int range) {
         // Testing the data fetching dummy mode
-        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(null);
-        fetcher.fetchNearbyComponentsDummy(cellId, range, new NearbyComponentFetcher.OnFetchComplete() {
+        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(InMemoryCellDataSource.withRandomComponents(0.3f));
+        fetcher.fetchNearbyComponents(cellId, range, new NearbyComponentFetcher.OnFetchComplete() {
             @Override
             public void onResult(NearbyComponentFetcher.FetchResult result) {
                 updateHandler.post(() -> {
                     // Process each cell in the result
-                    for (Long cellId : result.mapper.getAllCellIds()) {
+                    result.mapper.forEachCellId(cellId -> {
                         int gridPosition = result.mapper.getGridPositionFromCellId(cellId);
                         if (gridPosition != -1) {
                             List<Component> components = result.cellComponents.get(cellId);
@@ -193,7 +194,7 @@ public class MapFragment01 extends Fragment implements GridAdapter.ItemClickList
                                 adapter.updateCell(gridPosition, cellId, components.get(0));
                             }
                         }
-                    }
+                    });
                 });
 
                 // Center the grid
@@ -203,7 +204,8 @@ public class MapFragment01 extends Fragment implements GridAdapter.ItemClickList
 
             @Override
             public void onError(Exception e) {
-                Toast.makeText(requireContext(), "Error loading data: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                updateHandler.post(() ->
+                        Toast.makeText(requireContext(), "Error loading data: " + e.getMessage(), Toast.LENGTH_SHORT).show());
             }
         });
     }
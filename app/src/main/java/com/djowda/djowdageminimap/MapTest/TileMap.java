@@ -26,7 +26,9 @@ import android.content.Context;
 
 // Optimized TileMap class
 public class TileMap {
-    private static final int MAP_SIZE = 41;
+    // Cells shown on each side of the center; the grid is sized from it
+    private static final int RANGE = 20;
+    private static final int MAP_SIZE = CellIdMapper.gridSizeFor(RANGE);
     private static final int TILE_SIZE_DP = 50;
 
     // Cache calculated values to avoid repeated calculations
@@ -34,6 +36,10 @@ public class TileMap {
     private static int cachedTotalSizePixels = -1;
     private static float lastDensity = -1;
 
+    public static int getRange() {
+        return RANGE;
+    }
+
     public static int getMapSize() {
         return MAP_SIZE;
     }
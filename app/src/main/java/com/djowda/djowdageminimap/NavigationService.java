@@ -23,10 +23,18 @@ package com.djowda.djowdageminimap;
 import android.util.Log;
 
 import com.djowda.djowdageminimap.minmax99.GeoToCellNumber;
+import com.djowda.djowdageminimap.minmax99.MercatorRowTable;
 
 public class NavigationService {
         private static final String TAG = "NavigationService";
 
+        public NavigationService() {
+            // The first conversion would otherwise build the Mercator row tables on the main thread
+            Thread warmUp = new Thread(MercatorRowTable::warmUp, "MercatorRowTable");
+            warmUp.setDaemon(true);
+            warmUp.start();
+        }
+
         public interface NavigationCallback {
             void onNavigationComplete(long cellId);
             void onNavigationError(String error);
@@ -115,14 +123,12 @@ public class NavigationService {
 
                 // Convert cell coordinates back to meters
                 double x = xCell * GeoToCellNumber.CELL_SIZE_METERS;
-                double y = yCell * GeoToCellNumber.CELL_SIZE_METERS;
 
                 // Convert meters back to geographic coordinates (approximate)
                 double longitude = (x / (GeoToCellNumber.EARTH_WIDTH_METERS / 360.0)) - 180;
 
-                // Reverse Mercator projection for latitude (approximate)
-                double mercatorY = (GeoToCellNumber.EARTH_HEIGHT_METERS / 2.0) - y;
-                double latitude = (2 * Math.atan(Math.exp(mercatorY * (2 * Math.PI) / GeoToCellNumber.EARTH_HEIGHT_METERS)) - Math.PI / 2) * 180 / Math.PI;
+                // Reverse Mercator projection for latitude, read from the precomputed row table
+                double latitude = MercatorRowTable.rowToLatitude(yCell);
 
                 Log.d(TAG, "Cell " + cellId + " converted to approximate coordinates: " + latitude + ", " + longitude);
                 callback.onNavigationComplete(cellId); // Still return the cell ID as this is for validation
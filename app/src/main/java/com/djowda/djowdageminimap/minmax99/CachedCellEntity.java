@@ -0,0 +1,56 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-09-10 19:31
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * One cached cell row. {@code payload} is the JSON form written by {@link RoomCellStore};
+ * {@code "[]"} marks a cell known to be empty.
+ */
+@Entity(tableName = "cached_cells")
+public class CachedCellEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = "cell_id")
+    public long cellId;
+
+    @NonNull
+    @ColumnInfo(name = "payload")
+    public String payload = "[]";
+
+    @ColumnInfo(name = "fetched_at")
+    public long fetchedAt;
+
+    public CachedCellEntity() {
+    }
+
+    public CachedCellEntity(long cellId, @NonNull String payload, long fetchedAt) {
+        this.cellId = cellId;
+        this.payload = payload;
+        this.fetchedAt = fetchedAt;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-09-10 19:31
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * When a whole parent node was last read; its occupied leaves are rows of {@link CachedCellEntity}.
+ */
+@Entity(tableName = "cached_parents")
+public class CachedParentEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = "parent_id")
+    public long parentId;
+
+    @ColumnInfo(name = "fetched_at")
+    public long fetchedAt;
+
+    public CachedParentEntity() {
+    }
+
+    public CachedParentEntity(long parentId, long fetchedAt) {
+        this.parentId = parentId;
+        this.fetchedAt = fetchedAt;
+    }
+}
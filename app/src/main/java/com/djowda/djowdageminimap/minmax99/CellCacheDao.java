@@ -0,0 +1,72 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-09-10 19:31
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class CellCacheDao {
+
+    @Query("SELECT * FROM cached_cells WHERE cell_id = :cellId")
+    public abstract CachedCellEntity getCell(long cellId);
+
+    // Leaves of a parent are a contiguous id range, so this is a primary-key range scan
+    @Query("SELECT * FROM cached_cells WHERE cell_id BETWEEN :firstCellId AND :lastCellId AND payload != '[]'")
+    public abstract List<CachedCellEntity> getOccupiedCells(long firstCellId, long lastCellId);
+
+    @Query("SELECT * FROM cached_parents WHERE parent_id = :parentId")
+    public abstract CachedParentEntity getParent(long parentId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertCell(CachedCellEntity cell);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertCells(List<CachedCellEntity> cells);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertParent(CachedParentEntity parent);
+
+    @Query("DELETE FROM cached_cells WHERE cell_id BETWEEN :firstCellId AND :lastCellId")
+    public abstract void deleteCells(long firstCellId, long lastCellId);
+
+    @Query("DELETE FROM cached_cells WHERE fetched_at < :cutoff")
+    public abstract int deleteCellsOlderThan(long cutoff);
+
+    @Query("DELETE FROM cached_parents WHERE fetched_at < :cutoff")
+    public abstract int deleteParentsOlderThan(long cutoff);
+
+    /** Replaces every leaf under a parent in one transaction, so readers never see half of it. */
+    @Transaction
+    public void replaceParent(CachedParentEntity parent, long firstCellId, long lastCellId,
+                              List<CachedCellEntity> occupiedCells) {
+        deleteCells(firstCellId, lastCellId);
+        insertCells(occupiedCells);
+        insertParent(parent);
+    }
+}
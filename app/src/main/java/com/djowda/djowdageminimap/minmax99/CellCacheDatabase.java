@@ -0,0 +1,55 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-09-10 19:31
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * On-device copy of the cells the map has read, for instant start-up and offline use.
+ */
+@Database(entities = {CachedCellEntity.class, CachedParentEntity.class}, version = 1, exportSchema = false)
+public abstract class CellCacheDatabase extends RoomDatabase {
+
+    private static final String NAME = "cell_cache.db";
+    private static volatile CellCacheDatabase instance;
+
+    public abstract CellCacheDao cellCacheDao();
+
+    public static CellCacheDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CellCacheDatabase.class) {
+                if (instance == null) {
+                    // The cache can always be refilled from the backend, so a schema change just drops it
+                    instance = Room.databaseBuilder(context.getApplicationContext(), CellCacheDatabase.class, NAME)
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-09-10 19:31
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link CellChangeSource} over the Realtime Database: one child listener on a cell's
+ * {@code s} node, so component adds, edits (e.g. {@code o} flipping) and removals arrive live.
+ */
+public class FirebaseCellChangeSource implements CellChangeSource {
+    private final DatabaseReference rootRef;
+
+    public FirebaseCellChangeSource(DatabaseReference dbRef) {
+        this.rootRef = dbRef.child("test");
+    }
+
+    @Override
+    public Registration subscribe(long cellId, ChangeListener listener, boolean replayExisting) {
+        DatabaseReference cellRef = rootRef.child(MinMaxPathGenerator.constructDbPath(cellId)).child("s");
+        AtomicBoolean replaying = new AtomicBoolean(!replayExisting);
+        ChildEventListener childListener = cellRef.addChildEventListener(new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                if (!replaying.get()) {
+                    listener.onComponentAdded(cellId, toComponent(snapshot, cellId));
+                }
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                listener.onComponentChanged(cellId, toComponent(snapshot, cellId));
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                listener.onComponentRemoved(cellId, snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // Order is not shown on the map
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onError(cellId, error.toException());
+            }
+        });
+        // The SDK reports existing children as added first and fires value events after the
+        // child events of the same data, even from cache, so the first value event ends the replay
+        ValueEventListener replayEnd = replayExisting ? null : cellRef.addValueEventListener(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                replaying.set(false);
+                cellRef.removeEventListener(this);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // Reported through the child listener
+            }
+        });
+        return () -> {
+            cellRef.removeEventListener(childListener);
+            if (replayEnd != null) {
+                cellRef.removeEventListener(replayEnd);
+            }
+        };
+    }
+
+    private static Component toComponent(DataSnapshot snapshot, long cellId) {
+        String cn = snapshot.child("cn").getValue(String.class);
+        boolean isOpen = "1".equals(snapshot.child("o").getValue(String.class));
+        return new Component(snapshot.getKey(), cn, isOpen, cellId);
+    }
+}
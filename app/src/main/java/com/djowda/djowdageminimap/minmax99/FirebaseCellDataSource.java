@@ -0,0 +1,150 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-08-16 18:01
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+
+import android.util.Log;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link CellDataSource} over the Realtime Database: cells live under
+ * {@code test/lvl1/lvl2/lvl3/s}, one child per component. A cell may instead carry its
+ * components as one {@link CellPayloadCodec} string at {@code lvl3/p}, which is preferred.
+ * Snapshots are parsed on a {@link ParseStage}, never on the main thread the SDK completes
+ * reads on, so callbacks arrive on a parse thread.
+ */
+public class FirebaseCellDataSource implements CellDataSource {
+    private static final String TAG = "FirebaseCellDataSource";
+    static final String PAYLOAD_KEY = "p";
+
+    private final DatabaseReference rootRef;
+    private final Executor parseExecutor;
+    private final FetchMetrics metrics;
+
+    public FirebaseCellDataSource(DatabaseReference dbRef) {
+        this(dbRef, ParseStage.shared(), null);
+    }
+
+    public FirebaseCellDataSource(DatabaseReference dbRef, Executor parseExecutor) {
+        this(dbRef, parseExecutor, null);
+    }
+
+    /**
+     * @param metrics Counts the payload bytes decoded, or null.
+     */
+    public FirebaseCellDataSource(DatabaseReference dbRef, Executor parseExecutor, FetchMetrics metrics) {
+        this.rootRef = dbRef.child("test");
+        this.parseExecutor = parseExecutor;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void readCell(long cellId, ReadCallback callback) {
+        String path = MinMaxPathGenerator.constructDbPath(cellId);
+        // The whole lvl3 node, so either layout of the cell comes back in one read
+        DatabaseReference cellRef = rootRef.child(path);
+
+        // The complete listener also fires on failure, so it is the only one attached
+        cellRef.get().addOnCompleteListener(parseExecutor, task -> {
+            if (!task.isSuccessful()) {
+                callback.onError(failureOf(task.getException(), path));
+                return;
+            }
+            emitCell(task.getResult(), cellId, callback, metrics);
+            callback.onComplete();
+        });
+    }
+
+    @Override
+    public void readParent(long parentId, ReadCallback callback) {
+        String path = MinMaxPathGenerator.constructParentDbPath(parentId);
+
+        rootRef.child(path).get().addOnCompleteListener(parseExecutor, task -> {
+            if (!task.isSuccessful()) {
+                callback.onError(failureOf(task.getException(), path));
+                return;
+            }
+            for (DataSnapshot leafSnap : task.getResult().getChildren()) {
+                long leaf;
+                try {
+                    leaf = Long.parseLong(leafSnap.getKey());
+                } catch (NumberFormatException e) {
+                    continue; // Not a lvl3 node
+                }
+                emitCell(leafSnap, parentId * FetchPlanner.LEAVES_PER_PARENT + leaf, callback, metrics);
+            }
+            callback.onComplete();
+        });
+    }
+
+    // cellSnap is the lvl3 node
+    private static void emitCell(DataSnapshot cellSnap, long cellId, ReadCallback callback, FetchMetrics metrics) {
+        String payload = cellSnap.child(PAYLOAD_KEY).getValue(String.class);
+        if (payload != null) {
+            try {
+                byte[] bytes = Base64.getDecoder().decode(payload);
+                List<Component> components = CellPayloadCodec.decode(ByteBuffer.wrap(bytes), cellId);
+                if (metrics != null) {
+                    metrics.bytesDecoded(bytes.length); // Child layouts have no size to count
+                }
+                if (!components.isEmpty()) {
+                    callback.onCell(cellId, components);
+                }
+                return;
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Malformed payload for cell " + cellId + ", reading its children", e);
+            }
+        }
+        DataSnapshot snapshot = cellSnap.child("s");
+        if (!snapshot.exists()) {
+            return;
+        }
+        List<Component> components = new ArrayList<>();
+
+        for (DataSnapshot compSnap : snapshot.getChildren()) {
+            String compId = compSnap.getKey();
+            String cn = compSnap.child("cn").getValue(String.class);
+            String o = compSnap.child("o").getValue(String.class);
+            boolean isOpen = "1".equals(o);
+
+            components.add(new Component(compId, cn, isOpen, cellId));
+        }
+
+        if (!components.isEmpty()) {
+            callback.onCell(cellId, components);
+        }
+    }
+
+    private static Exception failureOf(Exception e, String path) {
+        return e != null ? e : new IllegalStateException("Read of " + path + " was cancelled");
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-09-10 19:31
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import android.util.Log;
+
+import com.google.firebase.database.DatabaseReference;
+
+/**
+ * {@link OccupancyIndex} over the Realtime Database: each block keeps its bitmap as a Base64
+ * string at {@code test/lvl1/lvl2/occ}. The key is not numeric, so parent reads skip it.
+ *
+ * <p>Experimental and read-only: nothing in the app writes components, so nothing here keeps
+ * the bitmaps current. Only put it behind an {@link OccupancyFilter} once whatever writes
+ * components also flips their block's bit; until then a stale bitmap hides newly occupied cells
+ * for up to the filter's TTL. A missing or malformed bitmap is safe, it just reads every cell.
+ */
+public class FirebaseOccupancyIndex implements OccupancyIndex {
+    private static final String TAG = "FirebaseOccupancyIndex";
+    static final String OCCUPANCY_KEY = "occ";
+
+    private final DatabaseReference rootRef;
+
+    public FirebaseOccupancyIndex(DatabaseReference dbRef) {
+        this.rootRef = dbRef.child("test");
+    }
+
+    @Override
+    public void readOccupancy(long parentId, Callback callback) {
+        String path = MinMaxPathGenerator.constructParentDbPath(parentId);
+        rootRef.child(path).child(OCCUPANCY_KEY).get().addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                Exception e = task.getException();
+                callback.onError(e != null ? e : new IllegalStateException("Read of " + path + " was cancelled"));
+                return;
+            }
+            String encoded = task.getResult().getValue(String.class);
+            OccupancyBitmap bitmap = null;
+            if (encoded != null) {
+                try {
+                    bitmap = OccupancyBitmap.fromBase64(encoded);
+                } catch (IllegalArgumentException e) {
+                    Log.w(TAG, "Ignoring malformed occupancy bitmap at " + path, e);
+                }
+            }
+            callback.onOccupancy(parentId, bitmap);
+        });
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-09-10 19:31
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import android.util.Log;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link CellStore} over {@link CellCacheDatabase}. Components are stored as a JSON array using
+ * the database field names ({@code cn}, {@code o}). Room rejects main-thread queries, so every
+ * call must come from a background thread, as {@link CachingCellDataSource} does.
+ */
+public class RoomCellStore implements CellStore {
+    private static final String TAG = "RoomCellStore";
+
+    private final CellCacheDao dao;
+
+    public RoomCellStore(CellCacheDatabase database) {
+        this.dao = database.cellCacheDao();
+    }
+
+    @Override
+    public CachedCell getCell(long cellId) {
+        CachedCellEntity entity = dao.getCell(cellId);
+        return entity != null ? toCachedCell(entity) : null;
+    }
+
+    @Override
+    public long getParentFetchedAt(long parentId) {
+        CachedParentEntity parent = dao.getParent(parentId);
+        return parent != null ? parent.fetchedAt : -1;
+    }
+
+    @Override
+    public List<CachedCell> getOccupiedCellsInParent(long parentId) {
+        long first = parentId * FetchPlanner.LEAVES_PER_PARENT;
+        List<CachedCellEntity> entities = dao.getOccupiedCells(first, first + FetchPlanner.LEAVES_PER_PARENT - 1);
+        List<CachedCell> cells = new ArrayList<>(entities.size());
+        for (CachedCellEntity entity : entities) {
+            CachedCell cell = toCachedCell(entity);
+            if (cell != null) {
+                cells.add(cell);
+            }
+        }
+        return cells;
+    }
+
+    @Override
+    public void putCell(long cellId, List<Component> components, long fetchedAtMillis) {
+        dao.insertCell(new CachedCellEntity(cellId, encode(components), fetchedAtMillis));
+    }
+
+    @Override
+    public void putParent(long parentId, List<CachedCell> occupiedCells, long fetchedAtMillis) {
+        long first = parentId * FetchPlanner.LEAVES_PER_PARENT;
+        List<CachedCellEntity> entities = new ArrayList<>(occupiedCells.size());
+        for (CachedCell cell : occupiedCells) {
+            entities.add(new CachedCellEntity(cell.getCellId(), encode(cell.getComponents()), cell.getFetchedAtMillis()));
+        }
+        dao.replaceParent(new CachedParentEntity(parentId, fetchedAtMillis),
+                first, first + FetchPlanner.LEAVES_PER_PARENT - 1, entities);
+    }
+
+    /** Drops entries older than the cutoff, i.e. past any TTL the cache would still serve. */
+    public int evictOlderThan(long cutoffMillis) {
+        dao.deleteParentsOlderThan(cutoffMillis);
+        return dao.deleteCellsOlderThan(cutoffMillis);
+    }
+
+    private static String encode(List<Component> components) {
+        if (components.isEmpty()) {
+            return "[]";
+        }
+        JSONArray array = new JSONArray();
+        try {
+            for (Component component : components) {
+                array.put(new JSONObject()
+                        .put("id", component.getId())
+                        .put("cn", component.getName())
+                        .put("o", component.isOpen() ? "1" : "0"));
+            }
+        } catch (JSONException e) {
+            throw new IllegalStateException("Cannot encode cell components", e);
+        }
+        return array.toString();
+    }
+
+    // Null for an unreadable row, which the cache then treats as a miss
+    private static CachedCell toCachedCell(CachedCellEntity entity) {
+        List<Component> components = decode(entity.payload, entity.cellId);
+        return components != null ? new CachedCell(entity.cellId, components, entity.fetchedAt) : null;
+    }
+
+    private static List<Component> decode(String payload, long cellId) {
+        if ("[]".equals(payload)) {
+            return Collections.emptyList();
+        }
+        try {
+            JSONArray array = new JSONArray(payload);
+            List<Component> components = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject object = array.getJSONObject(i);
+                components.add(new Component(object.optString("id"), object.optString("cn", null),
+                        "1".equals(object.optString("o")), cellId));
+            }
+            return components;
+        } catch (JSONException e) {
+            Log.w(TAG, "Unreadable cache row for cell " + cellId, e);
+            return null;
+        }
+    }
+}
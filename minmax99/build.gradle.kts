@@ -0,0 +1,49 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+// Pure-JVM minMax99 core: cell math shared by the app, testable and benchmarkable without Android.
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+// Sources hold non-ASCII literals; don't depend on the build machine's locale
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    api(libs.reactive.streams)
+    testImplementation(libs.junit)
+}
+
+// Run with: ./gradlew :minmax99:jmh
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    profilers = listOf("gc")
+}
@@ -0,0 +1,57 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 22:30
+ */
+
+package com.djowda.djowdageminimap.MapTest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a mapper for a neighborhood and mapping every cell to its grid position.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CellIdMapperBenchmark {
+
+    @Param({"1", "5", "10", "20", "50"})
+    public int range;
+
+    private final long centerCellId = 644966003L;
+
+    @Benchmark
+    public CellIdMapper construct() {
+        return new CellIdMapper(centerCellId, range);
+    }
+
+    @Benchmark
+    public void constructAndMapAll(Blackhole bh) {
+        CellIdMapper mapper = new CellIdMapper(centerCellId, range);
+        mapper.forEachCellId(cellId -> bh.consume(mapper.getGridPositionFromCellId(cellId)));
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 22:30
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recorded-style session of pans, jumps between a few favourite places and long
+ * exploratory scans against an empty cache, requesting the cells each step brings into view
+ * (as the delta-based fetch does). Reports hits and misses per replay next to the replay time,
+ * for the TinyLFU {@link CellCache} and for a plain LRU of the same byte size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CellCacheBenchmark {
+
+    private static final long HOME = 644966003L;
+    private static final int RANGE = 20;
+    private static final int STEPS = 3_000;
+
+    private static final List<CachedCell> EMPTY = Collections.emptyList();
+    private static final List<CachedCell> OCCUPIED = Collections.singletonList(new CachedCell(HOME,
+            Collections.singletonList(new Component("THh4RfNRP3Rpqn1wZR55lDen6wq1", "Store 003", true, HOME)), 0));
+
+    @Param({"TINY_LFU", "LRU"})
+    public String policy;
+
+    @Param({"262144", "1048576", "4194304"})
+    public long maxBytes;
+
+    private long[] trace;
+
+    @Setup
+    public void setUp() {
+        trace = recordSession(new Random(42));
+    }
+
+    @Benchmark
+    public int replay(HitCounters counters) {
+        TraceCache cache = "LRU".equals(policy) ? new LruCache(maxBytes) : new TinyLfuCache(maxBytes);
+        int hits = 0;
+        for (long cellId : trace) {
+            if (cache.get(cellId) != null) {
+                hits++;
+            } else {
+                cache.put(cellId, valueOf(cellId));
+            }
+        }
+        counters.hits += hits;
+        counters.misses += trace.length - hits;
+        return hits;
+    }
+
+    /** Hits and misses summed over an iteration's replays; their ratio is the hit ratio. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void report() {
+            long requests = hits + misses;
+            if (requests > 0) {
+                System.out.printf("hit ratio: %.3f%n", (double) hits / requests);
+            }
+        }
+    }
+
+    // About 30% of cells are occupied, as in the stand-in world
+    private static List<CachedCell> valueOf(long cellId) {
+        return Long.hashCode(cellId * 0x9E3779B97F4A7C15L) % 10 < 3 ? OCCUPIED : EMPTY;
+    }
+
+    /**
+     * 70% short pans, 27% jumps to one of a few places (the first far more often), 3% scans that
+     * fling the map 60 steps in one direction through unseen cells.
+     */
+    private static long[] recordSession(Random random) {
+        long[] places = {HOME, HOME + 120, HOME + 60 * 42000L, HOME - 90 * 42000L + 45, HOME + 400 * 42000L};
+        long[] requests = new long[1 << 16];
+        long[] scratch = new long[NearbyCellUtils.maxNearbyCellCount(RANGE)];
+        int count = 0;
+        CellIdMapper viewport = null;
+        long center = HOME;
+        int scanSteps = 0;
+        int scanDx = 0;
+        int scanDy = 0;
+        for (int step = 0; step < STEPS; step++) {
+            if (scanSteps > 0) {
+                scanSteps--;
+                center = move(center, scanDx, scanDy);
+            } else {
+                double roll = random.nextDouble();
+                if (roll < 0.70) {
+                    center = move(center, random.nextInt(7) - 3, random.nextInt(7) - 3);
+                } else if (roll < 0.97) {
+                    // Zipf-like: place i is picked about half as often as place i - 1
+                    int place = 0;
+                    while (place < places.length - 1 && random.nextBoolean()) {
+                        place++;
+                    }
+                    center = places[place];
+                } else {
+                    scanSteps = 60;
+                    scanDx = random.nextBoolean() ? 3 : -3;
+                    scanDy = random.nextInt(3) - 1;
+                }
+            }
+            CellIdMapper next = new CellIdMapper(center, RANGE);
+            int entering = ViewportDelta.between(viewport, next).fillEntering(scratch);
+            if (count + entering > requests.length) {
+                requests = Arrays.copyOf(requests, Math.max(requests.length * 2, count + entering));
+            }
+            System.arraycopy(scratch, 0, requests, count, entering);
+            count += entering;
+            viewport = next;
+        }
+        return Arrays.copyOf(requests, count);
+    }
+
+    private static long move(long cellId, int dCol, int dRow) {
+        return cellId + dCol * 42000L + dRow;
+    }
+
+    private interface TraceCache {
+        Object get(long cellId);
+        void put(long cellId, List<CachedCell> cells);
+    }
+
+    private static final class TinyLfuCache implements TraceCache {
+        private final CellCache<List<CachedCell>> cache;
+
+        // Configured as the app configures it
+        TinyLfuCache(long maxBytes) {
+            cache = new CellCache<>(maxBytes, MemoryCachedCellDataSource.AVERAGE_ENTRY_BYTES,
+                    MemoryCachedCellDataSource::estimateBytes);
+        }
+
+        @Override
+        public Object get(long cellId) {
+            return cache.get(cellId);
+        }
+
+        @Override
+        public void put(long cellId, List<CachedCell> cells) {
+            cache.put(cellId, cells);
+        }
+    }
+
+    // Baseline: least recently used first, bounded by the same weights
+    private static final class LruCache extends LinkedHashMap<Long, List<CachedCell>> implements TraceCache {
+        private static final long serialVersionUID = 1L;
+
+        private final long maxBytes;
+        private long bytes;
+
+        LruCache(long maxBytes) {
+            super(16, 0.75f, true);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public Object get(long cellId) {
+            return super.get(cellId);
+        }
+
+        @Override
+        public void put(long cellId, List<CachedCell> cells) {
+            super.put(cellId, cells);
+            bytes += MemoryCachedCellDataSource.estimateBytes(cells);
+            while (bytes > maxBytes) {
+                Map.Entry<Long, List<CachedCell>> eldest = entrySet().iterator().next();
+                bytes -= MemoryCachedCellDataSource.estimateBytes(eldest.getValue());
+                remove(eldest.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 22:30
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding one cell's components: the per-child maps the database hands to
+ * {@link Component#fromFirebase} against the binary payload, as bytes and as the Base64 string
+ * it is stored as.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CellPayloadCodecBenchmark {
+
+    private static final long CELL = 644966003L;
+
+    @Param({"1", "4", "16"})
+    public int components;
+
+    private List<Component> cell;
+    private Map<String, Map<String, Object>> children;
+    private byte[] payload;
+    private String base64;
+
+    @Setup
+    public void setUp() {
+        cell = new ArrayList<>();
+        children = new LinkedHashMap<>();
+        for (int i = 0; i < components; i++) {
+            String id = "THh4RfNRP3Rpqn1wZR55lDen6w" + (10 + i);
+            Component component = new Component(id, "Store " + i, i % 2 == 0, CELL);
+            cell.add(component);
+            Map<String, Object> child = new HashMap<>();
+            child.put("cn", component.getName());
+            child.put("o", component.isOpen() ? "1" : "0");
+            children.put(id, child);
+        }
+        payload = CellPayloadCodec.encode(cell);
+        base64 = CellPayloadCodec.encodeToBase64(cell);
+    }
+
+    // Baseline: today's path once the snapshot is turned into maps
+    @Benchmark
+    public List<Component> fromFirebaseMaps() {
+        List<Component> decoded = new ArrayList<>(children.size());
+        for (Map.Entry<String, Map<String, Object>> child : children.entrySet()) {
+            decoded.add(Component.fromFirebase(child.getKey(), child.getValue(), CELL));
+        }
+        return decoded;
+    }
+
+    @Benchmark
+    public List<Component> decodePayload() {
+        return CellPayloadCodec.decode(ByteBuffer.wrap(payload), CELL);
+    }
+
+    @Benchmark
+    public List<Component> decodeBase64Payload() {
+        return CellPayloadCodec.decodeBase64(base64, CELL);
+    }
+
+    // Reading one field in place, e.g. to count open components, builds no strings at all
+    @Benchmark
+    public int countOpenInPlace() {
+        CellPayloadCodec.Reader reader = new CellPayloadCodec.Reader(ByteBuffer.wrap(payload));
+        int open = 0;
+        while (reader.next()) {
+            if (reader.isOpen()) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    @Benchmark
+    public byte[] encodePayload() {
+        return CellPayloadCodec.encode(cell);
+    }
+
+    @Benchmark
+    public void roundTrip(Blackhole bh) {
+        bh.consume(CellPayloadCodec.decode(ByteBuffer.wrap(CellPayloadCodec.encode(cell)), CELL));
+    }
+}
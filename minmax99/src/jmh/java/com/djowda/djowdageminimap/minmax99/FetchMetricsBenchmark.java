@@ -0,0 +1,56 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 22:30
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path cost of recording one read, alone and with four threads recording at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FetchMetricsBenchmark {
+
+    private final FetchMetrics metrics = new FetchMetrics();
+
+    @Benchmark
+    public void recordRead() {
+        metrics.readStarted();
+        metrics.readFinished(ThreadLocalRandom.current().nextLong(1_000_000, 100_000_000), false);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordReadContended() {
+        metrics.readStarted();
+        metrics.readFinished(ThreadLocalRandom.current().nextLong(1_000_000, 100_000_000), false);
+    }
+}
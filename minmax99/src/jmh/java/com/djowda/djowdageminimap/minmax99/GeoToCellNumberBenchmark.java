@@ -0,0 +1,117 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 22:30
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the scalar, batch and parallel geo conversions, and of the Mercator row table
+ * against the transcendental projection it replaces. Scores are points per microsecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeoToCellNumberBenchmark {
+
+    private static final int POINTS = 100_000;
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private long[] out;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        latitudes = new double[POINTS];
+        longitudes = new double[POINTS];
+        out = new long[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = random.nextDouble() * 170 - 85;
+            longitudes[i] = random.nextDouble() * 360 - 180;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public long[] scalar() {
+        for (int i = 0; i < POINTS; i++) {
+            out[i] = GeoToCellNumber.geoToCellNumber(latitudes[i], longitudes[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public long[] batch() {
+        GeoToCellNumber.geoToCellNumbers(latitudes, longitudes, out, POINTS);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public long[] parallel() {
+        GeoToCellNumber.geoToCellNumbersParallel(latitudes, longitudes, out, POINTS);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void rowFormula(Blackhole bh) {
+        for (int i = 0; i < POINTS; i++) {
+            bh.consume(MercatorRowTable.latitudeToRowByFormula(latitudes[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void rowTable(Blackhole bh) {
+        for (int i = 0; i < POINTS; i++) {
+            bh.consume(MercatorRowTable.latitudeToRow(latitudes[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void latitudeFormula(Blackhole bh) {
+        for (int i = 0; i < POINTS; i++) {
+            bh.consume(MercatorRowTable.rowToLatitudeByFormula(i % GeoToCellNumber.NUM_ROWS));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void latitudeTable(Blackhole bh) {
+        for (int i = 0; i < POINTS; i++) {
+            bh.consume(MercatorRowTable.rowToLatitude(i % GeoToCellNumber.NUM_ROWS));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 22:30
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the database paths for every cell of a neighborhood, as one fetch does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MinMaxPathGeneratorBenchmark {
+
+    @Param({"1", "5", "10", "20", "50"})
+    public int range;
+
+    private final long centerCellId = 644966003L;
+    private List<Long> cellIds;
+    private long[] cellIdArray;
+    private String[] paths;
+
+    @Setup
+    public void setUp() {
+        cellIds = NearbyCellUtils.getNearbyCellIds(centerCellId, range);
+        cellIdArray = new long[NearbyCellUtils.maxNearbyCellCount(range)];
+        NearbyCellUtils.fillNearbyCellIds(centerCellId, range, cellIdArray);
+        paths = new String[cellIdArray.length];
+    }
+
+    // Baseline: what the fetcher did before the long overload
+    @Benchmark
+    public void constructDbPathFromString(Blackhole bh) {
+        for (Long cellId : cellIds) {
+            bh.consume(MinMaxPathGenerator.constructDbPath(String.valueOf(cellId)));
+        }
+    }
+
+    @Benchmark
+    public void constructDbPathFormatted(Blackhole bh) {
+        for (long cellId : cellIdArray) {
+            bh.consume(MinMaxPathGenerator.constructDbPathFormatted(cellId));
+        }
+    }
+
+    @Benchmark
+    public void constructDbPathFromLong(Blackhole bh) {
+        for (long cellId : cellIdArray) {
+            bh.consume(MinMaxPathGenerator.constructDbPath(cellId));
+        }
+    }
+
+    @Benchmark
+    public String[] constructDbPathsBatch() {
+        MinMaxPathGenerator.constructDbPaths(cellIdArray, cellIdArray.length, paths);
+        return paths;
+    }
+
+    @Benchmark
+    public int constructNeighborhoodDbPaths() {
+        return MinMaxPathGenerator.constructNeighborhoodDbPaths(centerCellId, range, paths);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 22:30
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of enumerating a (2 * range + 1)^2 neighborhood around the default map center.
+ * The module's jmh configuration enables the gc profiler: compare gc.alloc.rate.norm across
+ * variants to check that only the boxed list allocates in proportion to the viewport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NearbyCellUtilsBenchmark {
+
+    @Param({"1", "5", "10", "20", "50"})
+    public int range;
+
+    private final long centerCellId = 644966003L;
+    private long[] buffer;
+
+    @Setup
+    public void setUp() {
+        buffer = new long[NearbyCellUtils.maxNearbyCellCount(range)];
+    }
+
+    @Benchmark
+    public List<Long> nearbyCellIdList() {
+        return NearbyCellUtils.getNearbyCellIds(centerCellId, range);
+    }
+
+    @Benchmark
+    public int fillReusableBuffer() {
+        return NearbyCellUtils.fillNearbyCellIds(centerCellId, range, buffer);
+    }
+
+    @Benchmark
+    public void forEachCallback(Blackhole bh) {
+        NearbyCellUtils.forEachNearbyCellId(centerCellId, range, bh::consume);
+    }
+
+    @Benchmark
+    public long lazyStream() {
+        return NearbyCellUtils.nearbyCellIds(centerCellId, range).sum();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 22:30
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating one 41 x 41 viewport of a synthetic world, to check that a load test
+ * spends its time in the pipeline under test rather than in making up data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SyntheticWorldBenchmark {
+
+    @Param({"uniform", "clustered"})
+    public String world;
+
+    private final long centerCellId = 644966003L;
+    private SyntheticWorld syntheticWorld;
+    private long[] cells;
+    private int count;
+
+    @Setup
+    public void setUp() {
+        syntheticWorld = "uniform".equals(world)
+                ? SyntheticWorld.uniform(SyntheticWorld.DEFAULT_SEED, 0.3f)
+                : SyntheticWorld.clustered(SyntheticWorld.DEFAULT_SEED);
+        cells = new long[NearbyCellUtils.maxNearbyCellCount(20)];
+        count = NearbyCellUtils.fillNearbyCellIds(centerCellId, 20, cells);
+    }
+
+    @Benchmark
+    public void generateViewport(Blackhole bh) {
+        for (int i = 0; i < count; i++) {
+            bh.consume(syntheticWorld.generate(cells[i]));
+        }
+    }
+
+    @Benchmark
+    public int occupancyOnly() {
+        int occupied = 0;
+        for (int i = 0; i < count; i++) {
+            if (syntheticWorld.isOccupied(cells[i])) {
+                occupied++;
+            }
+        }
+        return occupied;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-08-16 18:01
+ *
+ */
+
+package com.djowda.djowdageminimap.MapTest;
+
+import com.djowda.djowdageminimap.minmax99.NearbyCellUtils;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Geometry of the viewport around one cell: a square grid {@code 2 * range + 1} cells a side,
+ * centered on {@code centerCellId} and numbered row by row, so position
+ * {@code gridY * gridSize + gridX}. Maps cell IDs to grid positions and back with arithmetic
+ * only; nothing is stored per cell.
+ *
+ * <p>Cell IDs are {@code column * 42000 + row + 1}, as in {@link NearbyCellUtils}. Grid
+ * positions past the edge of the map hold no cell.
+ */
+public class CellIdMapper {
+    private static final int NUM_COLUMNS = 82000;
+    private static final int NUM_ROWS = 42000;
+
+    private final long centerCellId;
+    private final int range;
+    private final int gridSize;
+    private final int centerColumn;
+    private final int centerRow;
+
+    /**
+     * Maps the neighborhood of {@code centerCellId} onto a grid of {@link #gridSizeFor(int)}
+     * cells a side.
+     */
+    public CellIdMapper(long centerCellId, int range) {
+        if (range < 0) {
+            throw new IllegalArgumentException("range must not be negative: " + range);
+        }
+        this.centerCellId = centerCellId;
+        this.range = range;
+        this.gridSize = gridSizeFor(range);
+        this.centerColumn = columnOf(centerCellId);
+        this.centerRow = rowOf(centerCellId);
+    }
+
+    /**
+     * Side of the grid that shows every cell within {@code range} of its center.
+     */
+    public static int gridSizeFor(int range) {
+        return 2 * range + 1;
+    }
+
+    /**
+     * Grid position of a cell, or -1 if it lies outside the grid.
+     */
+    public int getGridPositionFromCellId(long cellId) {
+        if (cellId < 1) {
+            return -1;
+        }
+        long gridX = (long) columnOf(cellId) - centerColumn + range;
+        long gridY = (long) rowOf(cellId) - centerRow + range;
+        if (gridX < 0 || gridX >= gridSize || gridY < 0 || gridY >= gridSize) {
+            return -1;
+        }
+        return (int) (gridY * gridSize + gridX);
+    }
+
+    /**
+     * Grid position of a cell of this neighborhood, or -1 if the cell is not part of it.
+     * Same as {@link #getGridPositionFromCellId(long)}.
+     */
+    public int getPosition(long cellId) {
+        return getGridPositionFromCellId(cellId);
+    }
+
+    /**
+     * Cell shown at a grid position, or -1 if the position is outside the grid or past the edge
+     * of the map.
+     */
+    public long getCellIdAt(int gridPosition) {
+        if (gridPosition < 0 || gridPosition >= gridSize * gridSize) {
+            return -1;
+        }
+        return getCellIdAt(gridPosition % gridSize, gridPosition / gridSize);
+    }
+
+    /**
+     * Cell shown at column {@code gridX}, row {@code gridY} of the grid, or -1 if that is outside
+     * the grid or past the edge of the map.
+     */
+    public long getCellIdAt(int gridX, int gridY) {
+        if (gridX < 0 || gridX >= gridSize || gridY < 0 || gridY >= gridSize) {
+            return -1;
+        }
+        int column = centerColumn + gridX - range;
+        int row = centerRow + gridY - range;
+        if (column < 0 || column >= NUM_COLUMNS || row < 0 || row >= NUM_ROWS) {
+            return -1;
+        }
+        return (long) column * NUM_ROWS + row + 1;
+    }
+
+    /**
+     * Visits every cell ID of the neighborhood without allocating.
+     */
+    public void forEachCellId(LongConsumer action) {
+        NearbyCellUtils.forEachNearbyCellId(centerCellId, range, action);
+    }
+
+    /**
+     * Copies the neighborhood's cell IDs into a caller-owned buffer.
+     * @return Number of IDs written.
+     */
+    public int fillCellIds(long[] out) {
+        return NearbyCellUtils.fillNearbyCellIds(centerCellId, range, out);
+    }
+
+    public int getCellIdCount() {
+        return NearbyCellUtils.countNearbyCells(centerCellId, range);
+    }
+
+    public long getCenterCellId() {
+        return centerCellId;
+    }
+
+    public int getRange() {
+        return range;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public int getCenterPosition() {
+        return range * gridSize + range;
+    }
+
+    private static int columnOf(long cellId) {
+        return (int) ((cellId - 1) / NUM_ROWS);
+    }
+
+    private static int rowOf(long cellId) {
+        return (int) ((cellId - 1) % NUM_ROWS);
+    }
+}
@@ -23,7 +23,9 @@
 package com.djowda.djowdageminimap.MapTest;
 
 import java.util.Map;
+import java.util.Objects;
 
+// Once parsed, an instance is shared by the caches and the grid: treat it as read-only
 public class Component {
     private String id;       // Firebase key: THh4RfNRP3Rpqn1wZR55lDen6wq1
     private String name;     // cn in DB
@@ -60,6 +62,19 @@ public class Component {
         boolean open = "1".equals(data.get("o"));
         return new Component(id, name, open, cellId);
     }
-}
 
+    // Value equality, so cached and re-read contents can be compared
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Component)) return false;
+        Component other = (Component) o;
+        return isOpen == other.isOpen && cellId == other.cellId
+                && Objects.equals(id, other.id) && Objects.equals(name, other.name);
+    }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, isOpen, cellId);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.List;
+
+/**
+ * A cell's components as last read from the backend, with the time of that read. An empty list
+ * records a cell known to be empty.
+ */
+public final class CachedCell {
+
+    private final long cellId;
+    private final List<Component> components;
+    private final long fetchedAtMillis;
+
+    public CachedCell(long cellId, List<Component> components, long fetchedAtMillis) {
+        this.cellId = cellId;
+        this.components = components;
+        this.fetchedAtMillis = fetchedAtMillis;
+    }
+
+    public long getCellId() {
+        return cellId;
+    }
+
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    public long getFetchedAtMillis() {
+        return fetchedAtMillis;
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Stale-while-revalidate cache in front of a {@link CellDataSource}, backed by a durable
+ * {@link CellStore}. Per entry age:
+ * <ul>
+ *   <li>younger than {@link TtlPolicy#freshMillis}: served from the store, nothing is read;</li>
+ *   <li>younger than {@link TtlPolicy#maxStaleMillis}: served from the store at once, then
+ *   re-read in the background; a change is written back and reported to the
+ *   {@link RevalidationListener};</li>
+ *   <li>older, or unknown: read through the delegate and stored.</li>
+ * </ul>
+ * When a read-through fails, any stored entry is served regardless of age, so known areas keep
+ * working with no network. Empty cells are cached too.
+ */
+public class CachingCellDataSource implements CellDataSource {
+
+    /**
+     * Notified, off the main thread, when a background revalidation finds different contents.
+     */
+    public interface RevalidationListener {
+        void onCellChanged(long cellId, List<Component> components);
+    }
+
+    private final CellDataSource delegate;
+    private final CellStore store;
+    private final TtlPolicy policy;
+    private final Executor io;
+    private final FetchScheduler revalidationScheduler;
+    private final LongSupplier clock;
+    private volatile RevalidationListener listener;
+
+    // Nodes being revalidated; parents are stored as -(parentId + 1) so the keys never clash
+    private final Set<Long> revalidating = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong freshHits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong offlineHits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * @param revalidationScheduler Queues revalidations as background work, e.g. the fetcher's
+     *                              scheduler, so they share its cap on reads in flight.
+     */
+    public CachingCellDataSource(CellDataSource delegate, CellStore store, FetchScheduler revalidationScheduler) {
+        this(delegate, store, TtlPolicy.DEFAULT, SharedIo.INSTANCE, revalidationScheduler, System::currentTimeMillis);
+    }
+
+    /**
+     * @param io Runs the blocking store calls.
+     * @param revalidationScheduler Queues revalidations as background work.
+     * @param clock Wall-clock millis, the time base of the stored timestamps.
+     */
+    public CachingCellDataSource(CellDataSource delegate, CellStore store, TtlPolicy policy, Executor io,
+                                 FetchScheduler revalidationScheduler, LongSupplier clock) {
+        this.delegate = delegate;
+        this.store = store;
+        this.policy = policy;
+        this.io = io;
+        this.revalidationScheduler = Objects.requireNonNull(revalidationScheduler, "revalidationScheduler");
+        this.clock = clock;
+    }
+
+    public void setRevalidationListener(RevalidationListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void readCell(long cellId, ReadCallback callback) {
+        io.execute(() -> {
+            CachedCell cached = storedCell(cellId);
+            if (cached != null && serveFromCache(cached.getFetchedAtMillis(), cellId)) {
+                emit(cached, callback);
+                callback.onComplete();
+                return;
+            }
+            misses.incrementAndGet();
+            CachedCell fallback = cached;
+            delegate.readCell(cellId, new Collector() {
+                @Override
+                void onCollected(List<CachedCell> cells, long fetchedAt) {
+                    List<Component> components = cells.isEmpty() ? Collections.emptyList() : cells.get(0).getComponents();
+                    io.execute(() -> store.putCell(cellId, components, fetchedAt));
+                    for (CachedCell cell : cells) {
+                        emit(cell, callback);
+                    }
+                    callback.onComplete();
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    if (fallback == null) {
+                        callback.onError(e);
+                        return;
+                    }
+                    offlineHits.incrementAndGet();
+                    emit(fallback, callback);
+                    callback.onComplete();
+                }
+            });
+        });
+    }
+
+    @Override
+    public void readParent(long parentId, ReadCallback callback) {
+        io.execute(() -> {
+            long fetchedAt = store.getParentFetchedAt(parentId);
+            // Snapshot before a revalidation can overwrite the parent
+            List<CachedCell> cached = fetchedAt >= 0 ? store.getOccupiedCellsInParent(parentId) : null;
+            if (cached != null && serveFromCache(fetchedAt, -(parentId + 1))) {
+                for (CachedCell cell : cached) {
+                    emit(cell, callback);
+                }
+                callback.onComplete();
+                return;
+            }
+            misses.incrementAndGet();
+            delegate.readParent(parentId, new Collector() {
+                @Override
+                void onCollected(List<CachedCell> cells, long now) {
+                    io.execute(() -> store.putParent(parentId, cells, now));
+                    for (CachedCell cell : cells) {
+                        emit(cell, callback);
+                    }
+                    callback.onComplete();
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    if (cached == null) {
+                        callback.onError(e);
+                        return;
+                    }
+                    offlineHits.incrementAndGet();
+                    for (CachedCell cell : cached) {
+                        emit(cell, callback);
+                    }
+                    callback.onComplete();
+                }
+            });
+        });
+    }
+
+    /** Served from the store without a read. */
+    public long getFreshHitCount() { return freshHits.get(); }
+    /** Served from the store, then revalidated. */
+    public long getStaleHitCount() { return staleHits.get(); }
+    /** Read through the delegate. */
+    public long getMissCount() { return misses.get(); }
+    /** Served from the store after the delegate failed. */
+    public long getOfflineHitCount() { return offlineHits.get(); }
+    /** Background revalidations started. */
+    public long getRevalidationCount() { return revalidations.get(); }
+    /** Revalidations that found different contents. */
+    public long getChangeCount() { return changes.get(); }
+
+    // The stored entry of a cell, or null; a parent read records its empty leaves implicitly
+    private CachedCell storedCell(long cellId) {
+        CachedCell cached = store.getCell(cellId);
+        if (cached == null) {
+            long parentFetchedAt = store.getParentFetchedAt(MinMaxPathGenerator.parentOf(cellId));
+            if (parentFetchedAt >= 0) {
+                cached = new CachedCell(cellId, Collections.emptyList(), parentFetchedAt);
+            }
+        }
+        return cached;
+    }
+
+    // Decides between a fresh hit, a stale hit (with revalidation) and a miss
+    private boolean serveFromCache(long fetchedAt, long key) {
+        long age = clock.getAsLong() - fetchedAt;
+        if (age < policy.freshMillis) {
+            freshHits.incrementAndGet();
+            return true;
+        }
+        if (age < policy.maxStaleMillis) {
+            staleHits.incrementAndGet();
+            revalidate(key);
+            return true;
+        }
+        return false;
+    }
+
+    private void revalidate(long key) {
+        if (!revalidating.add(key)) {
+            return;
+        }
+        revalidations.incrementAndGet();
+        boolean parent = key < 0;
+        long id = parent ? -key - 1 : key;
+        Collector refresh = new Collector() {
+            @Override
+            void onCollected(List<CachedCell> cells, long now) {
+                io.execute(() -> {
+                    try {
+                        if (parent) {
+                            reportChanges(id, cells);
+                            store.putParent(id, cells, now);
+                        } else {
+                            List<Component> components = cells.isEmpty()
+                                    ? Collections.<Component>emptyList() : cells.get(0).getComponents();
+                            CachedCell before = storedCell(id);
+                            List<Component> previous = before == null
+                                    ? Collections.<Component>emptyList() : before.getComponents();
+                            store.putCell(id, components, now);
+                            if (!previous.equals(components)) {
+                                changed(id, components);
+                            }
+                        }
+                    } finally {
+                        revalidating.remove(key);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                revalidating.remove(key); // Keep serving the stale entry; the next hit retries
+            }
+        };
+        FetchScheduler.ReadOperation read = cb -> {
+            if (parent) {
+                delegate.readParent(id, cb);
+            } else {
+                delegate.readCell(id, cb);
+            }
+        };
+        revalidationScheduler.submit(FetchScheduler.Priority.BACKGROUND, 0, read, refresh);
+    }
+
+    // Compares a fresh parent read with what is stored under it
+    private void reportChanges(long parentId, List<CachedCell> fresh) {
+        List<CachedCell> before = store.getOccupiedCellsInParent(parentId);
+        for (CachedCell cell : fresh) {
+            CachedCell old = findCell(before, cell.getCellId());
+            if (old == null || !old.getComponents().equals(cell.getComponents())) {
+                changed(cell.getCellId(), cell.getComponents());
+            }
+        }
+        for (CachedCell old : before) {
+            if (findCell(fresh, old.getCellId()) == null) {
+                changed(old.getCellId(), Collections.emptyList()); // Emptied since
+            }
+        }
+    }
+
+    private static CachedCell findCell(List<CachedCell> cells, long cellId) {
+        for (CachedCell cell : cells) {
+            if (cell.getCellId() == cellId) {
+                return cell;
+            }
+        }
+        return null;
+    }
+
+    private void changed(long cellId, List<Component> components) {
+        changes.incrementAndGet();
+        RevalidationListener current = listener;
+        if (current != null) {
+            current.onCellChanged(cellId, components);
+        }
+    }
+
+    private static void emit(CachedCell cell, ReadCallback callback) {
+        if (!cell.getComponents().isEmpty()) {
+            callback.onCell(cell.getCellId(), cell.getComponents());
+        }
+    }
+
+    // Gathers the cells of one delegate read, stamped with the time it completed
+    private abstract class Collector implements ReadCallback {
+        private final List<CachedCell> cells = new ArrayList<>();
+
+        @Override
+        public synchronized void onCell(long cellId, List<Component> components) {
+            cells.add(new CachedCell(cellId, components, 0));
+        }
+
+        @Override
+        public void onComplete() {
+            long now = clock.getAsLong();
+            List<CachedCell> stamped = new ArrayList<>(cells.size());
+            synchronized (this) {
+                for (CachedCell cell : cells) {
+                    stamped.add(new CachedCell(cell.getCellId(), cell.getComponents(), now));
+                }
+            }
+            onCollected(stamped, now);
+        }
+
+        abstract void onCollected(List<CachedCell> cells, long fetchedAt);
+    }
+
+    /**
+     * Freshness windows of cached entries.
+     */
+    public static final class TtlPolicy {
+
+        // Fresh for a minute, served stale (and revalidated) for a week
+        public static final TtlPolicy DEFAULT = new TtlPolicy(TimeUnit.MINUTES.toMillis(1), TimeUnit.DAYS.toMillis(7));
+
+        final long freshMillis;
+        final long maxStaleMillis;
+
+        public TtlPolicy(long freshMillis, long maxStaleMillis) {
+            if (freshMillis < 0 || maxStaleMillis < freshMillis) {
+                throw new IllegalArgumentException("Invalid TTL policy: fresh=" + freshMillis + ", maxStale=" + maxStaleMillis);
+            }
+            this.freshMillis = freshMillis;
+            this.maxStaleMillis = maxStaleMillis;
+        }
+    }
+
+    // One background thread for the blocking store calls
+    private static final class SharedIo {
+        static final Executor INSTANCE = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cell-cache-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
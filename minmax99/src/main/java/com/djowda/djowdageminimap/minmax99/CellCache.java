@@ -0,0 +1,309 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-process cache bounded by estimated bytes, with W-TinyLFU admission and eviction:
+ * <ul>
+ *   <li>new entries land in a small LRU window (1% of the weight);</li>
+ *   <li>entries leaving the window compete with the main region's LRU victim, and only the one
+ *   requested more often (per a {@link FrequencySketch} over all requests, misses included)
+ *   stays;</li>
+ *   <li>the main region is a segmented LRU: a probation segment, and a protected one (80%) for
+ *   entries hit again while on probation.</li>
+ * </ul>
+ * A long scan through cells seen once therefore churns the window and probation only, instead
+ * of flushing hot neighborhoods the way plain LRU does. All operations take one lock; they are
+ * O(1) and short.
+ *
+ * @param <V> Cached value, weighed once when stored.
+ */
+public class CellCache<V> {
+
+    private static final double WINDOW_SHARE = 0.01;
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final long maxWeight;
+    private final long windowMaxWeight;
+    private final long protectedMaxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final FrequencySketch sketch;
+
+    private final Map<Long, Node<V>> nodes = new HashMap<>();
+    private final Segment<V> window = new Segment<>();
+    private final Segment<V> probation = new Segment<>();
+    private final Segment<V> protectedSegment = new Segment<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long evictedWeight;
+    private long rejections;
+
+    /**
+     * @param maxWeight Bound on the summed weights.
+     * @param averageWeight Typical entry weight, used to size the frequency sketch.
+     */
+    public CellCache(long maxWeight, long averageWeight, ToLongFunction<? super V> weigher) {
+        if (maxWeight <= 0 || averageWeight <= 0) {
+            throw new IllegalArgumentException("Weights must be positive: max=" + maxWeight + ", average=" + averageWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.windowMaxWeight = Math.max(1, (long) (maxWeight * WINDOW_SHARE));
+        this.protectedMaxWeight = (long) ((maxWeight - windowMaxWeight) * PROTECTED_SHARE);
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, maxWeight / averageWeight));
+    }
+
+    /** The cached value, or null on a miss. */
+    public synchronized V get(long key) {
+        sketch.increment(key);
+        Node<V> node = nodes.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        onHit(node);
+        return node.value;
+    }
+
+    /** Looks a value up without touching counters, frequencies or recency. */
+    public synchronized V peek(long key) {
+        Node<V> node = nodes.get(key);
+        return node != null ? node.value : null;
+    }
+
+    /**
+     * Stores a value. It may be evicted straight away if the cache is full of entries requested
+     * more often; a value heavier than the whole cache is not stored at all.
+     */
+    public synchronized void put(long key, V value) {
+        long weight = weigher.applyAsLong(value);
+        Node<V> node = nodes.get(key);
+        if (weight > maxWeight) {
+            rejections++;
+            if (node != null) {
+                remove(node);
+            }
+            return;
+        }
+        if (node != null) {
+            node.value = value;
+            node.segment.weight += weight - node.weight;
+            node.weight = weight;
+            onHit(node);
+        } else {
+            node = new Node<>(key, value, weight);
+            nodes.put(key, node);
+            window.addLast(node);
+        }
+        evict();
+    }
+
+    public synchronized void invalidate(long key) {
+        Node<V> node = nodes.get(key);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    public synchronized void clear() {
+        nodes.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /** Entries dropped to stay within the weight bound, including rejected candidates. */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getEvictedWeight() {
+        return evictedWeight;
+    }
+
+    /** Values never stored because they alone outweigh the cache. */
+    public synchronized long getRejectionCount() {
+        return rejections;
+    }
+
+    public synchronized double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized long getWeight() {
+        return window.weight + probation.weight + protectedSegment.weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    private void onHit(Node<V> node) {
+        if (node.segment == probation) {
+            probation.remove(node);
+            protectedSegment.addLast(node);
+            // Overflow from protected goes back on probation rather than out of the cache
+            while (protectedSegment.weight > protectedMaxWeight && protectedSegment.head != node) {
+                probation.addLast(protectedSegment.removeFirst());
+            }
+        } else {
+            node.segment.moveToLast(node);
+        }
+    }
+
+    private void evict() {
+        // Entries leaving the window become candidates at the probation MRU end
+        Node<V> firstCandidate = null;
+        while (window.weight > windowMaxWeight && window.head != null) {
+            Node<V> candidate = window.removeFirst();
+            probation.addLast(candidate);
+            if (firstCandidate == null) {
+                firstCandidate = candidate;
+            }
+        }
+        Node<V> candidate = firstCandidate;
+        while (getWeight() > maxWeight) {
+            Node<V> victim = probation.head;
+            if (victim == null) {
+                // Nothing on probation: fall back to plain LRU over protected, then the window
+                remove(protectedSegment.head != null ? protectedSegment.head : window.head, true);
+                continue;
+            }
+            if (candidate == null || candidate == victim) {
+                candidate = null;
+                remove(victim, true);
+                continue;
+            }
+            // TinyLFU: keep whichever of the two is requested more often, ties favouring residents
+            Node<V> next = candidate.next;
+            if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                remove(victim, true);
+            } else {
+                remove(candidate, true);
+                candidate = next;
+            }
+        }
+    }
+
+    private void remove(Node<V> node) {
+        remove(node, false);
+    }
+
+    private void remove(Node<V> node, boolean evicted) {
+        node.segment.remove(node);
+        nodes.remove(node.key);
+        if (evicted) {
+            evictions++;
+            evictedWeight += node.weight;
+        }
+    }
+
+    private static final class Node<V> {
+        final long key;
+        V value;
+        long weight;
+        Segment<V> segment;
+        Node<V> prev;
+        Node<V> next;
+
+        Node(long key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    // Intrusive LRU list: head is least recently used
+    private static final class Segment<V> {
+        Node<V> head;
+        Node<V> tail;
+        long weight;
+
+        void addLast(Node<V> node) {
+            node.segment = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            weight += node.weight;
+        }
+
+        Node<V> removeFirst() {
+            Node<V> node = head;
+            remove(node);
+            return node;
+        }
+
+        void remove(Node<V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.segment = null;
+            weight -= node.weight;
+        }
+
+        void moveToLast(Node<V> node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+            weight = 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+/**
+ * Backend that pushes changes to a cell's components while someone listens. Like a Realtime
+ * Database child listener, a new subscription first reports every existing component as added,
+ * unless the subscriber already has the cell's contents and asks for changes only.
+ */
+public interface CellChangeSource {
+
+    /** Starts listening to one cell; changes arrive until the registration is removed. */
+    default Registration subscribe(long cellId, ChangeListener listener) {
+        return subscribe(cellId, listener, true);
+    }
+
+    /**
+     * @param replayExisting Whether the existing components are first reported as added;
+     *                       without it only changes made after subscribing arrive.
+     */
+    Registration subscribe(long cellId, ChangeListener listener, boolean replayExisting);
+
+    interface ChangeListener {
+        void onComponentAdded(long cellId, Component component);
+        void onComponentChanged(long cellId, Component component);
+        void onComponentRemoved(long cellId, String componentId);
+        /** The subscription failed and delivers nothing more. */
+        void onError(long cellId, Exception e);
+    }
+
+    interface Registration {
+        void remove();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.List;
+
+/**
+ * Backend that stores the components of each cell under the minMax99 {@code lvl1/lvl2/lvl3}
+ * tree. Reads are asynchronous; callbacks may arrive on any thread.
+ */
+public interface CellDataSource {
+
+    /**
+     * Reads the components of one cell (its {@code lvl1/lvl2/lvl3/s} node).
+     */
+    void readCell(long cellId, ReadCallback callback);
+
+    /**
+     * Reads every occupied cell under one {@code lvl1/lvl2} parent node.
+     * @param parentId The parent id, see {@link MinMaxPathGenerator#parentOf(long)}.
+     */
+    void readParent(long parentId, ReadCallback callback);
+
+    /**
+     * Receives {@link #onCell} once per occupied cell read, then exactly one of
+     * {@link #onComplete} or {@link #onError}.
+     */
+    interface ReadCallback {
+        void onCell(long cellId, List<Component> components);
+        void onComplete();
+        void onError(Exception e);
+    }
+}
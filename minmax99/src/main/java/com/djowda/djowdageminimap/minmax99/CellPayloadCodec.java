@@ -0,0 +1,296 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact binary form of one cell's components, an alternative to one database child per
+ * component. Layout, with every count and length an unsigned LEB128 varint:
+ * <pre>
+ *   version (1 byte) | count | component*
+ *   component = bodyLength | idLength | id (UTF-8) | nameLength + 1 (0 = null) | name (UTF-8) | flags | future fields
+ * </pre>
+ * {@code flags} bit 0 is the open state. Each component is length-prefixed, so fields added
+ * after {@code flags} are skipped by older readers. {@link Reader} walks a buffer in place and
+ * only builds strings for the fields asked for.
+ */
+public final class CellPayloadCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int FLAG_OPEN = 1;
+
+    private CellPayloadCodec() {
+    }
+
+    /** Exact size of {@link #encode(List, ByteBuffer)}'s output. */
+    public static int encodedSize(List<Component> components) {
+        int size = 1 + varIntSize(components.size());
+        for (Component component : components) {
+            int body = bodySize(component);
+            size += varIntSize(body) + body;
+        }
+        return size;
+    }
+
+    public static byte[] encode(List<Component> components) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(components));
+        encode(components, buffer);
+        return buffer.array();
+    }
+
+    /** Writes the payload at the buffer's position, advancing it. */
+    public static void encode(List<Component> components, ByteBuffer out) {
+        out.put((byte) VERSION);
+        putVarInt(out, components.size());
+        for (Component component : components) {
+            putVarInt(out, bodySize(component));
+            byte[] id = utf8(component.getId());
+            putVarInt(out, id.length);
+            out.put(id);
+            String name = component.getName();
+            if (name == null) {
+                putVarInt(out, 0);
+            } else {
+                byte[] nameBytes = utf8(name);
+                putVarInt(out, nameBytes.length + 1);
+                out.put(nameBytes);
+            }
+            out.put((byte) (component.isOpen() ? FLAG_OPEN : 0));
+        }
+    }
+
+    /** The payload as stored in a database string field. */
+    public static String encodeToBase64(List<Component> components) {
+        return Base64.getEncoder().encodeToString(encode(components));
+    }
+
+    public static List<Component> decodeBase64(String payload, long cellId) {
+        return decode(ByteBuffer.wrap(Base64.getDecoder().decode(payload)), cellId);
+    }
+
+    /**
+     * Decodes a whole payload from the buffer's position, advancing it past the payload.
+     * @throws IllegalArgumentException If the payload is malformed or of an unknown version.
+     */
+    public static List<Component> decode(ByteBuffer in, long cellId) {
+        Reader reader = new Reader(in);
+        if (reader.remaining() == 0) {
+            return Collections.emptyList();
+        }
+        // The count is untrusted; every component takes at least four bytes
+        List<Component> components = new ArrayList<>(Math.min(reader.remaining(), in.remaining() / 4));
+        while (reader.next()) {
+            components.add(reader.toComponent(cellId));
+        }
+        return components;
+    }
+
+    /**
+     * Cursor over the components of one payload, reading straight from the buffer. Call
+     * {@link #next()} to move to each component, then read the fields of interest.
+     */
+    public static final class Reader {
+        private final ByteBuffer in;
+        private int remaining;
+        private int bodyEnd = -1;
+        private int idOffset;
+        private int idLength;
+        private int nameOffset;
+        private int nameLength; // -1 for null
+        private int flags;
+
+        /**
+         * @throws IllegalArgumentException If the payload is of an unknown version or malformed.
+         */
+        public Reader(ByteBuffer in) {
+            this.in = in;
+            try {
+                int version = in.get() & 0xFF;
+                if (version != VERSION) {
+                    throw new IllegalArgumentException("Unsupported cell payload version " + version);
+                }
+                remaining = readVarInt(in);
+            } catch (BufferUnderflowException e) {
+                throw malformed(e);
+            }
+        }
+
+        /** Components not yet visited. */
+        public int remaining() {
+            return remaining;
+        }
+
+        /**
+         * Moves to the next component; false once all were visited, with the buffer positioned
+         * just past the payload.
+         */
+        public boolean next() {
+            if (bodyEnd >= 0) {
+                // Through Buffer: ByteBuffer.position(int) only exists from Android API 29
+                ((Buffer) in).position(bodyEnd); // Skips fields this version does not know
+            }
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            try {
+                int bodyLength = readVarInt(in);
+                bodyEnd = in.position() + bodyLength;
+                if (bodyEnd > in.limit()) {
+                    throw malformed(null);
+                }
+                idLength = readVarInt(in);
+                idOffset = in.position();
+                ((Buffer) in).position(idOffset + idLength);
+                nameLength = readVarInt(in) - 1;
+                nameOffset = in.position();
+                ((Buffer) in).position(nameOffset + Math.max(0, nameLength));
+                flags = in.get() & 0xFF;
+                if (in.position() > bodyEnd) {
+                    throw malformed(null);
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw malformed(e);
+            }
+            return true;
+        }
+
+        public boolean isOpen() {
+            return (flags & FLAG_OPEN) != 0;
+        }
+
+        public String getId() {
+            return string(idOffset, idLength);
+        }
+
+        /** The name, or null if the component has none. */
+        public String getName() {
+            return nameLength < 0 ? null : string(nameOffset, nameLength);
+        }
+
+        public Component toComponent(long cellId) {
+            return new Component(getId(), getName(), isOpen(), cellId);
+        }
+
+        private String string(int offset, int length) {
+            if (in.hasArray()) {
+                byte[] array = in.array();
+                int start = in.arrayOffset() + offset;
+                // Ids and most names are ASCII, which decodes fastest as Latin-1
+                return new String(array, start, length,
+                        isAscii(array, start, length) ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+            }
+            // Direct buffer: copy out through a view, leaving the cursor where it is
+            ByteBuffer view = in.duplicate();
+            ((Buffer) view).position(offset);
+            byte[] bytes = new byte[length];
+            view.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static boolean isAscii(byte[] bytes, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int bodySize(Component component) {
+        int id = utf8Length(component.getId());
+        String name = component.getName();
+        int nameLength = name == null ? 0 : utf8Length(name);
+        return varIntSize(id) + id + varIntSize(name == null ? 0 : nameLength + 1) + nameLength + 1;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // UTF-8 length without encoding; unpaired surrogates count as the 1-byte '?' Java writes
+    private static int utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int varIntSize(int value) {
+        return value < 0x80 ? 1 : value < 0x4000 ? 2 : value < 0x200000 ? 3 : value < 0x10000000 ? 4 : 5;
+    }
+
+    private static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in cell payload");
+    }
+
+    private static IllegalArgumentException malformed(RuntimeException cause) {
+        return new IllegalArgumentException("Malformed cell payload", cause);
+    }
+}
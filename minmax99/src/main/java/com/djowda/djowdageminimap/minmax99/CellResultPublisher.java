@@ -0,0 +1,210 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Cold, single-subscriber {@link Publisher} of the occupied cells of one fetch, in arrival order.
+ * The reads start on the first {@link Subscription#request}; cells that arrive faster than the
+ * subscriber asks for them wait in a buffer bounded by the size of the fetch, and are never
+ * delivered beyond the requested demand.
+ *
+ * <p>When {@code onComplete} or {@code onError} is signaled, {@link #getStats()} holds the
+ * aggregate of the whole fetch. A fetch where only some reads failed still completes, with
+ * the failed cells listed in {@link FetchStats#getFailedCellIds()}. {@code onError} carries the
+ * first failure when no read succeeded, or a {@link CancellationException} if the fetch's
+ * generation was superseded, in which case undelivered cells are dropped.
+ */
+public final class CellResultPublisher implements Publisher<NearbyComponentFetcher.CellResult> {
+
+    private final CellIdMapper mapper;
+    private final Consumer<NearbyComponentFetcher.CellSink> start;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private volatile FetchStats stats;
+
+    CellResultPublisher(CellIdMapper mapper, Consumer<NearbyComponentFetcher.CellSink> start) {
+        this.mapper = mapper;
+        this.start = start;
+    }
+
+    /**
+     * Viewport the cells belong to, for mapping them to grid positions.
+     */
+    public CellIdMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Aggregate of the fetch, or null until it terminates.
+     */
+    public FetchStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super NearbyComponentFetcher.CellResult> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) { }
+
+                @Override
+                public void cancel() { }
+            });
+            subscriber.onError(new IllegalStateException("CellResultPublisher allows a single subscriber"));
+            return;
+        }
+        CellSubscription subscription = new CellSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class CellSubscription implements Subscription, NearbyComponentFetcher.CellSink {
+        private final Subscriber<? super NearbyComponentFetcher.CellResult> subscriber;
+        private final Queue<NearbyComponentFetcher.CellResult> buffer = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Exception error;
+        private volatile Exception protocolError;
+        private boolean terminated; // Only touched inside drain
+
+        CellSubscription(Subscriber<? super NearbyComponentFetcher.CellResult> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Rule 3.9
+                protocolError = new IllegalArgumentException("request must be positive: " + n);
+                drain();
+                return;
+            }
+            long current;
+            do {
+                current = demand.get();
+                if (current == Long.MAX_VALUE) {
+                    break;
+                }
+            } while (!demand.compareAndSet(current, saturatedAdd(current, n)));
+
+            if (started.compareAndSet(false, true)) {
+                start.accept(this);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            buffer.clear();
+        }
+
+        @Override
+        public void onCell(long cellId, List<Component> components) {
+            if (!cancelled) {
+                buffer.offer(new NearbyComponentFetcher.CellResult(cellId, components));
+                drain();
+            }
+        }
+
+        @Override
+        public void onDone(FetchStats stats, Exception firstError) {
+            CellResultPublisher.this.stats = stats;
+            if (firstError instanceof CancellationException) {
+                buffer.clear(); // Superseded: undelivered cells are stale
+            }
+            error = firstError;
+            done = true;
+            drain();
+        }
+
+        // Serializes signals: whichever thread gets here first delivers for everyone
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!terminated && !cancelled) {
+                    if (protocolError != null) {
+                        terminate(protocolError);
+                        break;
+                    }
+                    boolean finished = done;
+                    if (demand.get() == 0) {
+                        if (finished && buffer.isEmpty()) {
+                            terminate(error);
+                        }
+                        break;
+                    }
+                    NearbyComponentFetcher.CellResult next = buffer.poll();
+                    if (next == null) {
+                        if (finished) {
+                            terminate(error);
+                        }
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    subscriber.onNext(next);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void terminate(Exception e) {
+            terminated = true;
+            buffer.clear();
+            if (e != null) {
+                subscriber.onError(e);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+}
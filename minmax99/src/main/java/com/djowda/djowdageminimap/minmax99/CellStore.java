@@ -0,0 +1,58 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.List;
+
+/**
+ * Durable cell cache used by {@link CachingCellDataSource}. Calls are blocking and are made
+ * off the main thread.
+ */
+public interface CellStore {
+
+    /**
+     * Stored cell, or null if the cell was never read.
+     */
+    CachedCell getCell(long cellId);
+
+    /**
+     * Time the whole parent node was last read, or -1 if it never was.
+     */
+    long getParentFetchedAt(long parentId);
+
+    /**
+     * Occupied cells stored under a parent node.
+     */
+    List<CachedCell> getOccupiedCellsInParent(long parentId);
+
+    /**
+     * Stores one cell; an empty list records it as empty.
+     */
+    void putCell(long cellId, List<Component> components, long fetchedAtMillis);
+
+    /**
+     * Replaces everything stored under a parent with the occupied cells of a fresh parent read;
+     * cells under it that are not listed are now known to be empty.
+     */
+    void putParent(long parentId, List<CachedCell> occupiedCells, long fetchedAtMillis);
+}
@@ -0,0 +1,62 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+/**
+ * Kinds of components on the map, as counted by the map's statistics panel.
+ */
+public enum ComponentType {
+    USER("User"),
+    DELIVERY_MAN("Delivery man"),
+    STORE("Store"),
+    TRANSPORT("Transport"),
+    RESTAURANT("Restaurant"),
+    FACTORY("Factory"),
+    WHOLESALER("Wholesaler"),
+    FARMER("Farmer"),
+    SEED_PROVIDER("Seed provider");
+
+    private final String label;
+
+    ComponentType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * The type a component name was generated with, or null if it does not start with a label.
+     */
+    public static ComponentType fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (ComponentType type : values()) {
+            String label = type.label;
+            if (name.startsWith(label) && (name.length() == label.length() || name.charAt(label.length()) == ' ')) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
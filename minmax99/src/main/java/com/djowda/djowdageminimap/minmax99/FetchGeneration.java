@@ -0,0 +1,69 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latest-wins tagging of fetches. Each navigation takes a new {@link Token}; taking one makes
+ * every earlier token stale, and work tagged with a stale token is dropped: queued reads never
+ * start, late cells are discarded and the fetch ends with a {@link java.util.concurrent.CancellationException}.
+ */
+public final class FetchGeneration {
+
+    private final AtomicLong current = new AtomicLong();
+
+    /**
+     * Starts a new generation, superseding all earlier tokens.
+     */
+    public Token next() {
+        return new Token(current.incrementAndGet());
+    }
+
+    public long getCurrent() {
+        return current.get();
+    }
+
+    public final class Token {
+        private final long generation;
+
+        private Token(long generation) {
+            this.generation = generation;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        public boolean isCurrent() {
+            return current.get() == generation;
+        }
+
+        public boolean isStale() {
+            return !isCurrent();
+        }
+
+        @Override
+        public String toString() {
+            return "Token{" + generation + (isCurrent() ? "" : ", stale") + "}";
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics of the fetch path, shared by everything that takes part in it: per-read latency and
+ * reads in flight (see {@link MeteredCellDataSource}), per-navigation completion time, bytes
+ * decoded, and the hit and miss counts of the caches bound with {@link #bindCache}.
+ *
+ * <p>Recording is lock-free and allocation-free, so it can sit on the read path; caches are
+ * not touched at all until a {@link #snapshot()} reads their counters.
+ */
+public final class FetchMetrics {
+
+    private final LatencyHistogram readLatency = new LatencyHistogram();
+    private final LatencyHistogram navigationLatency = new LatencyHistogram();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final LongAdder readsFailed = new LongAdder();
+    private final LongAdder bytesDecoded = new LongAdder();
+    private final List<BoundCache> caches = new ArrayList<>();
+
+    /** A read left for the backend. */
+    public void readStarted() {
+        int current = inFlight.incrementAndGet();
+        int peak;
+        while (current > (peak = maxInFlight.get()) && !maxInFlight.compareAndSet(peak, current)) {
+            // Retry: another read raised the peak
+        }
+    }
+
+    /** A read started with {@link #readStarted()} completed or failed after {@code nanos}. */
+    public void readFinished(long nanos, boolean failed) {
+        inFlight.decrementAndGet();
+        readLatency.record(nanos);
+        if (failed) {
+            readsFailed.increment();
+        }
+    }
+
+    /** A navigation's viewport finished loading {@code nanos} after it started. */
+    public void navigationCompleted(long nanos) {
+        navigationLatency.record(nanos);
+    }
+
+    public void bytesDecoded(long bytes) {
+        bytesDecoded.add(bytes);
+    }
+
+    /**
+     * Reports a cache's own counters in every snapshot, under {@code name}.
+     */
+    public void bindCache(String name, LongSupplier hits, LongSupplier misses) {
+        synchronized (caches) {
+            caches.add(new BoundCache(name, hits, misses));
+        }
+    }
+
+    public LatencyHistogram getReadLatency() {
+        return readLatency;
+    }
+
+    public LatencyHistogram getNavigationLatency() {
+        return navigationLatency;
+    }
+
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Clears the histograms and counters, e.g. between benchmark iterations; the in-flight
+     * gauge and bound caches are left alone.
+     */
+    public void reset() {
+        readLatency.reset();
+        navigationLatency.reset();
+        maxInFlight.set(inFlight.get());
+        readsFailed.reset();
+        bytesDecoded.reset();
+    }
+
+    public Snapshot snapshot() {
+        Map<String, long[]> cacheCounts = new LinkedHashMap<>();
+        synchronized (caches) {
+            for (BoundCache cache : caches) {
+                cacheCounts.put(cache.name, new long[]{cache.hits.getAsLong(), cache.misses.getAsLong()});
+            }
+        }
+        return new Snapshot(readLatency.snapshot(), navigationLatency.snapshot(), inFlight.get(),
+                maxInFlight.get(), readsFailed.sum(), bytesDecoded.sum(), cacheCounts);
+    }
+
+    private static final class BoundCache {
+        final String name;
+        final LongSupplier hits;
+        final LongSupplier misses;
+
+        BoundCache(String name, LongSupplier hits, LongSupplier misses) {
+            this.name = name;
+            this.hits = hits;
+            this.misses = misses;
+        }
+    }
+
+    /**
+     * Point-in-time copy of every metric.
+     */
+    public static final class Snapshot {
+        private final LatencyHistogram.Snapshot readLatency;
+        private final LatencyHistogram.Snapshot navigationLatency;
+        private final int inFlight;
+        private final int maxInFlight;
+        private final long readsFailed;
+        private final long bytesDecoded;
+        private final Map<String, long[]> cacheCounts;
+
+        private Snapshot(LatencyHistogram.Snapshot readLatency, LatencyHistogram.Snapshot navigationLatency,
+                         int inFlight, int maxInFlight, long readsFailed, long bytesDecoded,
+                         Map<String, long[]> cacheCounts) {
+            this.readLatency = readLatency;
+            this.navigationLatency = navigationLatency;
+            this.inFlight = inFlight;
+            this.maxInFlight = maxInFlight;
+            this.readsFailed = readsFailed;
+            this.bytesDecoded = bytesDecoded;
+            this.cacheCounts = Collections.unmodifiableMap(cacheCounts);
+        }
+
+        public LatencyHistogram.Snapshot getReadLatency() { return readLatency; }
+        public LatencyHistogram.Snapshot getNavigationLatency() { return navigationLatency; }
+        public int getInFlightCount() { return inFlight; }
+
+        /** Most reads in flight at once since creation or the last reset. */
+        public int getMaxInFlightCount() { return maxInFlight; }
+
+        public long getReadsFailed() { return readsFailed; }
+        public long getBytesDecoded() { return bytesDecoded; }
+
+        /** Names of the bound caches, in binding order. */
+        public List<String> getCacheNames() {
+            return new ArrayList<>(cacheCounts.keySet());
+        }
+
+        public long getCacheHits(String cache) {
+            long[] counts = cacheCounts.get(cache);
+            return counts == null ? 0 : counts[0];
+        }
+
+        public long getCacheMisses(String cache) {
+            long[] counts = cacheCounts.get(cache);
+            return counts == null ? 0 : counts[1];
+        }
+
+        /** Share of lookups that hit, or 0 before any. */
+        public double getCacheHitRatio(String cache) {
+            long hits = getCacheHits(cache);
+            long total = hits + getCacheMisses(cache);
+            return total == 0 ? 0 : hits / (double) total;
+        }
+
+        @Override
+        public String toString() {
+            TimeUnit ms = TimeUnit.MILLISECONDS;
+            StringBuilder sb = new StringBuilder("FetchMetrics{reads=").append(readLatency)
+                    .append(", failed=").append(readsFailed)
+                    .append(", inFlight=").append(inFlight).append(" (max ").append(maxInFlight).append(')')
+                    .append(", navigations={count=").append(navigationLatency.getCount())
+                    .append(", p50Ms=").append(navigationLatency.getP50(ms))
+                    .append(", p95Ms=").append(navigationLatency.getP95(ms))
+                    .append(", p99Ms=").append(navigationLatency.getP99(ms)).append('}')
+                    .append(", bytesDecoded=").append(bytesDecoded);
+            for (Map.Entry<String, long[]> cache : cacheCounts.entrySet()) {
+                sb.append(", ").append(cache.getKey()).append("={hits=").append(cache.getValue()[0])
+                        .append(", misses=").append(cache.getValue()[1]).append('}');
+            }
+            return sb.append('}').toString();
+        }
+    }
+}
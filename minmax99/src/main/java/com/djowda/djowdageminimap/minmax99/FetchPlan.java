@@ -0,0 +1,100 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Output of {@link FetchPlanner}: the requested cells, sorted and grouped by parent node, with
+ * a per-group decision to read the parent once or each leaf on its own.
+ */
+public final class FetchPlan {
+
+    private final long[] cells;     // Sorted, unique
+    private final int cellCount;
+    private final long[] parentIds;
+    private final int[] groupStarts; // groupStarts[g]..groupStarts[g + 1] index into cells
+    private final boolean[] parentFetch;
+
+    FetchPlan(long[] cells, int cellCount, long[] parentIds, int[] groupStarts, boolean[] parentFetch) {
+        this.cells = cells;
+        this.cellCount = cellCount;
+        this.parentIds = parentIds;
+        this.groupStarts = groupStarts;
+        this.parentFetch = parentFetch;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getGroupCount() {
+        return parentIds.length;
+    }
+
+    public long getParentId(int group) {
+        return parentIds[group];
+    }
+
+    public String getParentDbPath(int group) {
+        return MinMaxPathGenerator.constructParentDbPath(parentIds[group]);
+    }
+
+    /**
+     * True if the group is read through its parent node, false if leaf by leaf.
+     */
+    public boolean isParentFetch(int group) {
+        return parentFetch[group];
+    }
+
+    public int getGroupSize(int group) {
+        return groupStarts[group + 1] - groupStarts[group];
+    }
+
+    public long getCell(int group, int index) {
+        if (index < 0 || index >= getGroupSize(group)) {
+            throw new IndexOutOfBoundsException("index " + index + " in group of " + getGroupSize(group));
+        }
+        return cells[groupStarts[group] + index];
+    }
+
+    public boolean contains(int group, long cellId) {
+        return Arrays.binarySearch(cells, groupStarts[group], groupStarts[group + 1], cellId) >= 0;
+    }
+
+    public void forEachCell(int group, LongConsumer action) {
+        for (int i = groupStarts[group], end = groupStarts[group + 1]; i < end; i++) {
+            action.accept(cells[i]);
+        }
+    }
+
+    /**
+     * Number of database reads the plan issues: one per parent group plus one per leaf otherwise.
+     */
+    public int getRequestCount() {
+        int requests = 0;
+        for (int g = 0; g < parentIds.length; g++) {
+            requests += parentFetch[g] ? 1 : getGroupSize(g);
+        }
+        return requests;
+    }
+}
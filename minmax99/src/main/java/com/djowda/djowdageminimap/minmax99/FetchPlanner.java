@@ -0,0 +1,149 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.Arrays;
+
+/**
+ * Groups the cells of a fetch by their {@code lvl1/lvl2} parent node and decides, per parent,
+ * whether to read the parent once or each requested leaf on its own.
+ *
+ * <p>A column holds 42000 consecutive ids, so a square viewport of side 2r+1 touches only one
+ * or two parents per column. Reading a parent returns every occupied leaf under it, wanted or
+ * not, so it pays off when many leaves are hit and the area is sparse or payloads are small.
+ */
+public final class FetchPlanner {
+
+    public static final int LEAVES_PER_PARENT = 1000;
+
+    private final CostModel costModel;
+
+    public FetchPlanner(CostModel costModel) {
+        this.costModel = costModel;
+    }
+
+    public FetchPlanner() {
+        this(CostModel.DEFAULT);
+    }
+
+    public CostModel getCostModel() {
+        return costModel;
+    }
+
+    /**
+     * Plans a fetch of the first {@code count} cells. The array is not modified.
+     */
+    public FetchPlan plan(long[] cells, int count) {
+        if (count > cells.length) {
+            throw new IndexOutOfBoundsException("count " + count + " exceeds cells " + cells.length);
+        }
+        long[] sorted = Arrays.copyOf(cells, count);
+        Arrays.sort(sorted);
+
+        // Drop duplicates so a cell is never read twice
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+
+        int groups = 0;
+        for (int i = 0; i < unique; i++) {
+            if (i == 0 || MinMaxPathGenerator.parentOf(sorted[i]) != MinMaxPathGenerator.parentOf(sorted[i - 1])) {
+                groups++;
+            }
+        }
+
+        long[] parentIds = new long[groups];
+        int[] starts = new int[groups + 1];
+        boolean[] parentFetch = new boolean[groups];
+        int g = -1;
+        for (int i = 0; i < unique; i++) {
+            long parent = MinMaxPathGenerator.parentOf(sorted[i]);
+            if (g < 0 || parentIds[g] != parent) {
+                parentIds[++g] = parent;
+                starts[g] = i;
+            }
+        }
+        starts[groups] = unique;
+
+        for (int i = 0; i < groups; i++) {
+            parentFetch[i] = costModel.prefersParent(starts[i + 1] - starts[i]);
+        }
+        return new FetchPlan(sorted, unique, parentIds, starts, parentFetch);
+    }
+
+    /**
+     * Plans a fetch of a whole neighborhood.
+     */
+    public FetchPlan planNeighborhood(long centerCellId, int range) {
+        long[] cells = new long[NearbyCellUtils.maxNearbyCellCount(range)];
+        return plan(cells, NearbyCellUtils.fillNearbyCellIds(centerCellId, range, cells));
+    }
+
+    /**
+     * Expected cost of a read, in bytes-equivalent: a request costs a fixed overhead (round
+     * trip, framing, server work) plus the payload it returns. Only occupied leaves exist in the
+     * database, so a parent read costs the occupied share of its 1000 leaves.
+     */
+    public static final class CostModel {
+
+        // ~50 ms round trip at ~1 MB/s, 30% occupancy, a couple of components per occupied cell
+        public static final CostModel DEFAULT = new CostModel(50_000, 0.3, 200);
+
+        private final double requestOverheadBytes;
+        private final double expectedDensity;
+        private final double bytesPerOccupiedCell;
+
+        /**
+         * @param requestOverheadBytes Fixed cost of one request, expressed in payload bytes.
+         * @param expectedDensity Expected share of cells that hold components, in [0, 1].
+         * @param bytesPerOccupiedCell Expected payload size of an occupied cell.
+         */
+        public CostModel(double requestOverheadBytes, double expectedDensity, double bytesPerOccupiedCell) {
+            if (requestOverheadBytes < 0 || bytesPerOccupiedCell < 0
+                    || !(expectedDensity >= 0 && expectedDensity <= 1)) {
+                throw new IllegalArgumentException("Invalid cost model: overhead=" + requestOverheadBytes
+                        + ", density=" + expectedDensity + ", bytes=" + bytesPerOccupiedCell);
+            }
+            this.requestOverheadBytes = requestOverheadBytes;
+            this.expectedDensity = expectedDensity;
+            this.bytesPerOccupiedCell = bytesPerOccupiedCell;
+        }
+
+        public double leafCost(int leavesHit) {
+            return leavesHit * (requestOverheadBytes + expectedDensity * bytesPerOccupiedCell);
+        }
+
+        public double parentCost() {
+            return requestOverheadBytes + LEAVES_PER_PARENT * expectedDensity * bytesPerOccupiedCell;
+        }
+
+        public boolean prefersParent(int leavesHit) {
+            return leavesHit > 1 && parentCost() < leafCost(leavesHit);
+        }
+
+        public double getRequestOverheadBytes() { return requestOverheadBytes; }
+        public double getExpectedDensity() { return expectedDensity; }
+        public double getBytesPerOccupiedCell() { return bytesPerOccupiedCell; }
+    }
+}
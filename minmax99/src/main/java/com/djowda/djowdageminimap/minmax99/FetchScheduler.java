@@ -0,0 +1,217 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Caps the number of reads in flight and starts queued reads in priority order: user-initiated
+ * loads before background work, then closest to the viewport center first, then FIFO. Cells the
+ * user sees on screen therefore land first even when a large neighborhood is queued.
+ *
+ * <p>A slot is released when the read's callback reports {@code onComplete} or {@code onError}.
+ * Thread-safe; reads that complete synchronously are started from a loop, not recursively.
+ */
+public final class FetchScheduler {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 32;
+
+    public enum Priority {
+        USER,       // The user is waiting on it: navigation, search
+        BACKGROUND  // Prefetch and refresh
+    }
+
+    /**
+     * Starts one read against a data source, e.g. {@code cb -> source.readCell(cellId, cb)}.
+     */
+    public interface ReadOperation {
+        void start(CellDataSource.ReadCallback callback);
+    }
+
+    private final int maxInFlight;
+    private final Object lock = new Object();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private long sequence;
+    private int inFlight;
+    private boolean draining;
+
+    public FetchScheduler(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    public FetchScheduler() {
+        this(DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Queues a read.
+     * @param distanceSquared Squared cell distance from the viewport center; smaller runs first.
+     */
+    public void submit(Priority priority, long distanceSquared, ReadOperation read,
+                       CellDataSource.ReadCallback callback) {
+        submit(priority, distanceSquared, null, read, callback);
+    }
+
+    /**
+     * Queues a read that is dropped, without starting, if {@code token} goes stale while queued;
+     * its callback then gets a {@link CancellationException}.
+     * @param token Generation of the fetch, or null if it never goes stale.
+     */
+    public void submit(Priority priority, long distanceSquared, FetchGeneration.Token token, ReadOperation read,
+                       CellDataSource.ReadCallback callback) {
+        synchronized (lock) {
+            queue.add(new Entry(priority, distanceSquared, sequence++, token, read, callback));
+        }
+        drain();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getInFlightCount() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public int getQueuedCount() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    private void drain() {
+        synchronized (lock) {
+            if (draining) {
+                return; // The draining thread picks the new work up
+            }
+            draining = true;
+        }
+        while (true) {
+            Entry next;
+            synchronized (lock) {
+                if (inFlight >= maxInFlight || queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                next = queue.poll();
+                inFlight++;
+            }
+            Slot slot = new Slot(next.callback);
+            if (next.token != null && next.token.isStale()) {
+                slot.onError(new CancellationException("Superseded: " + next.token));
+                continue;
+            }
+            try {
+                next.read.start(slot);
+            } catch (RuntimeException e) {
+                slot.onError(e);
+            }
+        }
+    }
+
+    private void release() {
+        synchronized (lock) {
+            inFlight--;
+        }
+        drain();
+    }
+
+    // Forwards to the caller's callback and frees the slot exactly once
+    private final class Slot implements CellDataSource.ReadCallback {
+        private final CellDataSource.ReadCallback delegate;
+        private boolean released;
+
+        Slot(CellDataSource.ReadCallback delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onCell(long cellId, List<Component> components) {
+            delegate.onCell(cellId, components);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                delegate.onComplete();
+            } finally {
+                releaseOnce();
+            }
+        }
+
+        @Override
+        public void onError(Exception e) {
+            try {
+                delegate.onError(e);
+            } finally {
+                releaseOnce();
+            }
+        }
+
+        private void releaseOnce() {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            release();
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        final Priority priority;
+        final long distanceSquared;
+        final long sequence;
+        final FetchGeneration.Token token;
+        final ReadOperation read;
+        final CellDataSource.ReadCallback callback;
+
+        Entry(Priority priority, long distanceSquared, long sequence, FetchGeneration.Token token,
+              ReadOperation read, CellDataSource.ReadCallback callback) {
+            this.priority = priority;
+            this.distanceSquared = distanceSquared;
+            this.sequence = sequence;
+            this.token = token;
+            this.read = read;
+            this.callback = callback;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int c = priority.compareTo(other.priority);
+            if (c != 0) {
+                return c;
+            }
+            c = Long.compare(distanceSquared, other.distanceSquared);
+            return c != 0 ? c : Long.compare(sequence, other.sequence);
+        }
+    }
+}
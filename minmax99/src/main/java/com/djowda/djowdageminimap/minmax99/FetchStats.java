@@ -0,0 +1,101 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate figures of one finished fetch.
+ */
+public final class FetchStats {
+
+    static final FetchStats EMPTY = new FetchStats(0, 0, 0, 0, 0, 0, 0, 0, -1, new long[0]);
+
+    private final int cellsRequested;
+    private final int cellsSkipped;
+    private final int readsIssued;
+    private final int readsFailed;
+    private final int readsCancelled;
+    private final int cellsWithComponents;
+    private final int componentCount;
+    private final long elapsedNanos;
+    private final long firstCellNanos; // -1 if no cell had components
+    private final long[] failedCellIds;
+
+    FetchStats(int cellsRequested, int cellsSkipped, int readsIssued, int readsFailed, int readsCancelled,
+               int cellsWithComponents, int componentCount, long elapsedNanos, long firstCellNanos, long[] failedCellIds) {
+        this.cellsRequested = cellsRequested;
+        this.cellsSkipped = cellsSkipped;
+        this.readsIssued = readsIssued;
+        this.readsFailed = readsFailed;
+        this.readsCancelled = readsCancelled;
+        this.cellsWithComponents = cellsWithComponents;
+        this.componentCount = componentCount;
+        this.elapsedNanos = elapsedNanos;
+        this.firstCellNanos = firstCellNanos;
+        this.failedCellIds = failedCellIds;
+    }
+
+    public int getCellsRequested() { return cellsRequested; }
+
+    /**
+     * Requested cells never read because the occupancy index showed them empty.
+     */
+    public int getCellsSkipped() { return cellsSkipped; }
+
+    public int getReadsIssued() { return readsIssued; }
+    public int getReadsFailed() { return readsFailed; }
+
+    /**
+     * Reads dropped before they started because their generation was superseded.
+     */
+    public int getReadsCancelled() { return readsCancelled; }
+
+    public int getCellsWithComponents() { return cellsWithComponents; }
+    public int getComponentCount() { return componentCount; }
+
+    /**
+     * Cells whose read failed for good, sorted. Non-empty means the result is partial.
+     */
+    public long[] getFailedCellIds() {
+        return failedCellIds.clone();
+    }
+
+    public long getElapsed(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time from the start of the fetch to the first cell with components, or -1 if there was none.
+     */
+    public long getTimeToFirstCell(TimeUnit unit) {
+        return firstCellNanos < 0 ? -1 : unit.convert(firstCellNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "FetchStats{cells=" + cellsRequested + ", skipped=" + cellsSkipped + ", reads=" + readsIssued
+                + ", failed=" + readsFailed + ", cancelled=" + readsCancelled + ", failedCells=" + failedCellIds.length
+                + ", occupied=" + cellsWithComponents + ", components=" + componentCount
+                + ", elapsedMs=" + getElapsed(TimeUnit.MILLISECONDS)
+                + ", firstCellMs=" + getTimeToFirstCell(TimeUnit.MILLISECONDS) + "}";
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads ahead of scroll gestures, so the cells a gesture is heading for are cached before it
+ * stops. A drag prefetches the screen-sized window its velocity will reach within the lookahead
+ * time; a fling prefetches the window around the scroller's predicted landing cell. Both windows
+ * reach {@code margin} cells further on every side, and twice that in the direction of travel.
+ * Cells of the viewport the grid loads itself are skipped, and everything runs at
+ * {@link FetchScheduler.Priority#BACKGROUND}, after the navigation's own reads.
+ *
+ * <p>A gesture that turns back, against the direction of the current prefetch, cancels it: its
+ * queued reads are dropped. Positions are the cell under the screen center and velocities are in
+ * cells per second, along a grid's x (columns) and y (rows). Not thread-safe; call it from the
+ * UI thread.
+ */
+public class FlingPrefetcher {
+
+    public static final float DEFAULT_LOOKAHEAD_SECONDS = 0.5f;
+    public static final int DEFAULT_MARGIN = 2;
+
+    // A drag slower than this, in cells per second, predicts nothing
+    static final float MIN_SPEED = 2f;
+
+    private final NearbyComponentFetcher fetcher;
+    private final int halfColumns;
+    private final int halfRows;
+    private final int margin;
+    private final float lookaheadSeconds;
+    private final FetchGeneration generation = new FetchGeneration();
+
+    private CellIdMapper viewport;
+    // The running prefetch, null when none
+    private FetchGeneration.Token token;
+    private float directionX;
+    private float directionY;
+    // Last window, in absolute columns and rows, and every cell requested under token
+    private int minColumn;
+    private int maxColumn;
+    private int minRow;
+    private int maxRow;
+    private final Set<Long> requested = new HashSet<>();
+    private long[] buffer = new long[0];
+
+    private long prefetchCount;
+    private long cancelCount;
+    private long cellsRequested;
+    private final AtomicLong cellsRead = new AtomicLong();
+
+    /**
+     * @param halfColumns Half the screen's width, in cells.
+     * @param halfRows Half the screen's height, in cells.
+     */
+    public FlingPrefetcher(NearbyComponentFetcher fetcher, int halfColumns, int halfRows) {
+        this(fetcher, halfColumns, halfRows, DEFAULT_MARGIN, DEFAULT_LOOKAHEAD_SECONDS);
+    }
+
+    public FlingPrefetcher(NearbyComponentFetcher fetcher, int halfColumns, int halfRows, int margin,
+                           float lookaheadSeconds) {
+        if (halfColumns < 0 || halfRows < 0 || margin < 0 || !(lookaheadSeconds >= 0)) {
+            throw new IllegalArgumentException("Invalid prefetch window: " + halfColumns + "x" + halfRows
+                    + ", margin=" + margin + ", lookahead=" + lookaheadSeconds);
+        }
+        this.fetcher = fetcher;
+        this.halfColumns = halfColumns;
+        this.halfRows = halfRows;
+        this.margin = margin;
+        this.lookaheadSeconds = lookaheadSeconds;
+    }
+
+    /**
+     * The viewport the grid loads on its own; its cells are never prefetched.
+     */
+    public void setViewport(CellIdMapper viewport) {
+        this.viewport = viewport;
+    }
+
+    /**
+     * A drag moved; {@code centerCellId} is the cell now under the screen center.
+     */
+    public void onDrag(long centerCellId, float columnsPerSecond, float rowsPerSecond) {
+        if (turnsBack(columnsPerSecond, rowsPerSecond)) {
+            cancel();
+        }
+        if (Math.hypot(columnsPerSecond, rowsPerSecond) < MIN_SPEED) {
+            return;
+        }
+        long target = NearbyCellUtils.offsetCell(centerCellId,
+                Math.round(columnsPerSecond * lookaheadSeconds), Math.round(rowsPerSecond * lookaheadSeconds));
+        prefetchAround(target != -1 ? target : centerCellId, columnsPerSecond, rowsPerSecond);
+    }
+
+    /**
+     * A fling started that will stop with {@code landingCellId} under the screen center.
+     */
+    public void onFling(long centerCellId, long landingCellId, float columnsPerSecond, float rowsPerSecond) {
+        if (turnsBack(columnsPerSecond, rowsPerSecond)) {
+            cancel();
+        }
+        prefetchAround(landingCellId, columnsPerSecond, rowsPerSecond);
+    }
+
+    /**
+     * Drops the queued reads of the running prefetch; reads already in flight still complete.
+     */
+    public void cancel() {
+        if (token != null) {
+            generation.next();
+            token = null;
+            cancelCount++;
+        }
+    }
+
+    /** Windows requested, each after the previous one stopped covering the gesture. */
+    public long getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    /** Prefetches cancelled because the gesture turned back. */
+    public long getCancelCount() {
+        return cancelCount;
+    }
+
+    public long getCellsRequested() {
+        return cellsRequested;
+    }
+
+    /** Occupied cells that prefetches read; callable from any thread. */
+    public long getCellsRead() {
+        return cellsRead.get();
+    }
+
+    // Whether the velocity points against the running prefetch
+    private boolean turnsBack(float columnsPerSecond, float rowsPerSecond) {
+        return token != null && columnsPerSecond * directionX + rowsPerSecond * directionY < 0;
+    }
+
+    private void prefetchAround(long target, float columnsPerSecond, float rowsPerSecond) {
+        int column = NearbyCellUtils.columnOf(target);
+        int row = NearbyCellUtils.rowOf(target);
+        // Twice the margin on the leading sides
+        int fromColumn = column - halfColumns - margin - (columnsPerSecond < 0 ? margin : 0);
+        int toColumn = column + halfColumns + margin + (columnsPerSecond > 0 ? margin : 0);
+        int fromRow = row - halfRows - margin - (rowsPerSecond < 0 ? margin : 0);
+        int toRow = row + halfRows + margin + (rowsPerSecond > 0 ? margin : 0);
+
+        boolean extending = token != null;
+        if (extending && fromColumn == minColumn && toColumn == maxColumn
+                && fromRow == minRow && toRow == maxRow) {
+            return; // Most move events land in the same window
+        }
+        if (!extending) {
+            token = generation.next();
+            requested.clear();
+        }
+        int capacity = (toColumn - fromColumn + 1) * (toRow - fromRow + 1);
+        if (buffer.length < capacity) {
+            buffer = new long[capacity];
+        }
+        int count = 0;
+        for (int c = fromColumn; c <= toColumn; c++) {
+            for (int r = fromRow; r <= toRow; r++) {
+                long cellId = NearbyCellUtils.offsetCell(target, c - column, r - row);
+                if (cellId != -1 && (viewport == null || viewport.getPosition(cellId) == -1)
+                        && requested.add(cellId)) {
+                    buffer[count++] = cellId;
+                }
+            }
+        }
+
+        float speed = (float) Math.hypot(columnsPerSecond, rowsPerSecond);
+        if (speed > 0) {
+            directionX = columnsPerSecond / speed;
+            directionY = rowsPerSecond / speed;
+        }
+        minColumn = fromColumn;
+        maxColumn = toColumn;
+        minRow = fromRow;
+        maxRow = toRow;
+        if (count == 0) {
+            return;
+        }
+        prefetchCount++;
+        cellsRequested += count;
+        // The ids are copied before prefetchCells returns, so the buffer is reused
+        fetcher.prefetchCells(target, buffer, count, token,
+                stats -> cellsRead.addAndGet(stats.getCellsWithComponents()));
+    }
+}
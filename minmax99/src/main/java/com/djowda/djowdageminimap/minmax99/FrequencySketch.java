@@ -0,0 +1,96 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+/**
+ * Approximate access counts for TinyLFU admission: a count-min sketch of 4-bit counters, 16 to
+ * a {@code long}, read as the minimum over four rows. Once the sample reaches ten times the
+ * width, every counter is halved, so old popularity fades and new hot keys can win.
+ * Not thread-safe; {@link CellCache} calls it under its lock.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    /** @param expectedEntries Rough number of keys the cache holds; sizes the counter table. */
+    FrequencySketch(int expectedEntries) {
+        int words = Integer.highestOneBit(Math.max(16, Math.min(expectedEntries, 1 << 24)) - 1) << 1;
+        table = new long[words];
+        tableMask = words - 1;
+        sampleSize = 10 * words * 16 / 4; // Ten samples per key the 4 rows can tell apart
+    }
+
+    int frequency(long key) {
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = hash(key, row);
+            int shift = counterShift(hash);
+            frequency = Math.min(frequency, (int) ((table[index(hash)] >>> shift) & 0xF));
+        }
+        return frequency;
+    }
+
+    void increment(long key) {
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = hash(key, row);
+            int index = index(hash);
+            int shift = counterShift(hash);
+            if (((table[index] >>> shift) & 0xF) < MAX_FREQUENCY) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    // Halve every counter; the 4-bit fields are shifted together and masked apart
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private int index(long hash) {
+        return (int) (hash >>> 32) & tableMask;
+    }
+
+    private static int counterShift(long hash) {
+        return (int) (hash & 15) << 2;
+    }
+
+    private static long hash(long key, int row) {
+        long h = (key + SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 31)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,149 @@
+package com.djowda.djowdageminimap.minmax99;
+
+
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class GeoToCellNumber {
+    // Constants
+    public static final int EARTH_WIDTH_METERS = 40_075_000;
+    public static final int EARTH_HEIGHT_METERS = 20_000_000;
+    public static final int CELL_SIZE_METERS = 500;
+    public static final int NUM_ROWS = 42_000; // EARTH_HEIGHT_METERS / CELL_SIZE_METERS
+    public static final int NUM_COLUMNS = 82_000; // EARTH_WIDTH_METERS / CELL_SIZE_METERS
+
+    // Below this many points a parallel conversion is not worth the fork/join overhead
+    public static final int PARALLEL_THRESHOLD = 16_384;
+
+    public static long geoToCellNumber(double latitude, double longitude) {
+        // Convert to meters
+        double x = (longitude + 180) * (EARTH_WIDTH_METERS / 360.0);
+
+        // Convert to cell coordinates; the Mercator row comes from the precomputed table
+        int xCell = (int) Math.floor(x / CELL_SIZE_METERS);
+        int yCell = MercatorRowTable.latitudeToRow(latitude);
+
+        // Calculate cell number
+        return (long) xCell * NUM_ROWS + yCell;
+    }
+
+    /**
+     * Converts a batch of coordinates into cell numbers without allocating.
+     * Produces exactly the same values as {@link #geoToCellNumber(double, double)}.
+     * @param latitudes Latitudes, read from index 0.
+     * @param longitudes Longitudes, read from index 0.
+     * @param out Receives the cell numbers, written from index 0.
+     * @param count Number of points to convert.
+     */
+    public static void geoToCellNumbers(double[] latitudes, double[] longitudes, long[] out, int count) {
+        geoToCellNumbers(latitudes, 0, longitudes, 0, out, 0, count);
+    }
+
+    /**
+     * Offset-based variant of {@link #geoToCellNumbers(double[], double[], long[], int)}.
+     */
+    public static void geoToCellNumbers(double[] latitudes, int latOffset,
+                                        double[] longitudes, int lonOffset,
+                                        long[] out, int outOffset, int count) {
+        checkRange(latitudes.length, latOffset, count, "latitudes");
+        checkRange(longitudes.length, lonOffset, count, "longitudes");
+        checkRange(out.length, outOffset, count, "out");
+
+        convertRange(latitudes, latOffset, longitudes, lonOffset, out, outOffset, count);
+    }
+
+    /**
+     * Converts the remaining points of two buffers into cell numbers. Both buffers must hold
+     * the same number of remaining points, and their positions are advanced past them.
+     * @return Number of points converted.
+     */
+    public static int geoToCellNumbers(DoubleBuffer latitudes, DoubleBuffer longitudes, long[] out, int outOffset) {
+        int count = latitudes.remaining();
+        if (longitudes.remaining() != count) {
+            throw new IllegalArgumentException("Latitude and longitude buffers differ in size: "
+                    + count + " vs " + longitudes.remaining());
+        }
+        checkRange(out.length, outOffset, count, "out");
+
+        if (latitudes.hasArray() && longitudes.hasArray()) {
+            convertRange(latitudes.array(), latitudes.arrayOffset() + latitudes.position(),
+                    longitudes.array(), longitudes.arrayOffset() + longitudes.position(),
+                    out, outOffset, count);
+            ((Buffer) latitudes).position(latitudes.limit());
+            ((Buffer) longitudes).position(longitudes.limit());
+        } else {
+            for (int i = 0; i < count; i++) {
+                out[outOffset + i] = geoToCellNumber(latitudes.get(), longitudes.get());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parallel variant of {@link #geoToCellNumbers(double[], double[], long[], int)} for large
+     * inputs. Runs on the common fork/join pool and falls back to the sequential loop for
+     * batches smaller than {@link #PARALLEL_THRESHOLD}.
+     */
+    public static void geoToCellNumbersParallel(double[] latitudes, double[] longitudes, long[] out, int count) {
+        geoToCellNumbersParallel(latitudes, longitudes, out, count, ForkJoinPool.commonPool());
+    }
+
+    public static void geoToCellNumbersParallel(double[] latitudes, double[] longitudes, long[] out, int count,
+                                                ForkJoinPool pool) {
+        checkRange(latitudes.length, 0, count, "latitudes");
+        checkRange(longitudes.length, 0, count, "longitudes");
+        checkRange(out.length, 0, count, "out");
+
+        if (count < PARALLEL_THRESHOLD) {
+            convertRange(latitudes, 0, longitudes, 0, out, 0, count);
+            return;
+        }
+        pool.invoke(new ConvertTask(latitudes, longitudes, out, 0, count));
+    }
+
+    private static void convertRange(double[] latitudes, int latOffset,
+                                     double[] longitudes, int lonOffset,
+                                     long[] out, int outOffset, int count) {
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = geoToCellNumber(latitudes[latOffset + i], longitudes[lonOffset + i]);
+        }
+    }
+
+    private static void checkRange(int length, int offset, int count, String name) {
+        if (offset < 0 || count < 0 || offset > length - count) {
+            throw new IndexOutOfBoundsException(name + ": offset " + offset + ", count " + count
+                    + ", length " + length);
+        }
+    }
+
+    private static final class ConvertTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final long[] out;
+        private final int from;
+        private final int to;
+
+        ConvertTask(double[] latitudes, double[] longitudes, long[] out, int from, int to) {
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                convertRange(latitudes, from, longitudes, from, out, from, to - from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ConvertTask(latitudes, longitudes, out, from, mid),
+                    new ConvertTask(latitudes, longitudes, out, mid, to));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Collects the components of one fetch into one preallocated slot per cell of the viewport
+ * square. Concurrent read callbacks publish with a single atomic store each, no locks, no
+ * boxing; the finished result is a read-only {@link Map} view over the slots, so building it
+ * costs one scan and no hashing.
+ *
+ * <p>Slots are laid out like the grid: a cell's slot is its {@link CellIdMapper} grid position.
+ */
+final class GridResultAggregator {
+
+    private final CellIdMapper mapper;
+    private final AtomicReferenceArray<List<Component>> slots;
+
+    GridResultAggregator(CellIdMapper mapper) {
+        this.mapper = mapper;
+        this.slots = new AtomicReferenceArray<>(mapper.getGridSize() * mapper.getGridSize());
+    }
+
+    /**
+     * Slot of a cell, or -1 if it lies outside the viewport square.
+     */
+    int slotOf(long cellId) {
+        return mapper.getGridPositionFromCellId(cellId);
+    }
+
+    long cellIdOf(int slot) {
+        return mapper.getCellIdAt(slot);
+    }
+
+    /**
+     * Publishes a cell's components; a repeated cell keeps the last store.
+     * @throws IllegalArgumentException if the cell is outside the viewport.
+     */
+    void put(long cellId, List<Component> components) {
+        int slot = slotOf(cellId);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Cell " + cellId + " is outside the viewport of " + mapper.getCenterCellId());
+        }
+        slots.set(slot, components);
+    }
+
+    /**
+     * Read-only view of the occupied slots. Call once every put has happened-before, e.g. after
+     * the fetch's pending count reached zero.
+     */
+    Map<Long, List<Component>> toMap() {
+        int size = 0;
+        for (int i = 0, n = slots.length(); i < n; i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return new SlotMap(size);
+    }
+
+    private final class SlotMap extends AbstractMap<Long, List<Component>> {
+        private final int size;
+
+        SlotMap(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public List<Component> get(Object key) {
+            if (!(key instanceof Long)) {
+                return null;
+            }
+            int slot = slotOf((Long) key);
+            return slot < 0 ? null : slots.get(slot);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<Long, List<Component>>> entrySet() {
+            return new AbstractSet<Entry<Long, List<Component>>>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Iterator<Entry<Long, List<Component>>> iterator() {
+                    return new Iterator<Entry<Long, List<Component>>>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            while (from < slots.length() && slots.get(from) == null) {
+                                from++;
+                            }
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < slots.length();
+                        }
+
+                        @Override
+                        public Entry<Long, List<Component>> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int slot = next;
+                            next = advance(slot + 1);
+                            return new SimpleImmutableEntry<>(cellIdOf(slot), slots.get(slot));
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * In-process stand-in for the Firebase tree. Answers on a scheduler after a configurable
+ * latency plus uniform jitter and can fail a share of the reads, so the real fetch pipeline
+ * can run, and be load-tested, with no network.
+ *
+ * <p>Cells not stored explicitly are produced by an optional generator on first read and then
+ * kept, so repeated reads of the same cell return the same components. A {@link SyntheticWorld}
+ * already returns the same components on every call, so its cells are generated on each read
+ * and never kept, which lets it stand in for millions of components.
+ *
+ * <p>As a {@link CellChangeSource}, {@link #put} and {@link #remove} report the difference to
+ * the cell's listeners, synchronously on the calling thread. As an {@link OccupancyIndex} it
+ * answers every block, with the same latency and failures as reads.
+ */
+public class InMemoryCellDataSource implements CellDataSource, CellChangeSource, OccupancyIndex {
+
+    private static final List<Component> EMPTY = Collections.emptyList();
+
+    private final ConcurrentHashMap<Long, List<Component>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, List<ChangeListener>> listeners = new HashMap<>();
+    private final LongFunction<List<Component>> generator;
+    private final boolean keepGenerated;
+    private final ScheduledExecutorService scheduler;
+    private final Random random = new Random();
+
+    private volatile long latencyNanos;
+    private volatile long jitterNanos;
+    private volatile double failureRate;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    public InMemoryCellDataSource() {
+        this(null);
+    }
+
+    /**
+     * @param generator Produces the components of a cell on first read; null or an empty list
+     *                  means the cell is empty. Null generator: only stored cells exist.
+     */
+    public InMemoryCellDataSource(LongFunction<List<Component>> generator) {
+        this(generator, SharedScheduler.INSTANCE);
+    }
+
+    public InMemoryCellDataSource(LongFunction<List<Component>> generator, ScheduledExecutorService scheduler) {
+        this(generator, true, scheduler);
+    }
+
+    private InMemoryCellDataSource(LongFunction<List<Component>> generator, boolean keepGenerated,
+                                   ScheduledExecutorService scheduler) {
+        this.generator = generator;
+        this.keepGenerated = keepGenerated;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Stand-in filled like the old dummy mode: each cell holds one store with the given
+     * probability, drawn from {@link SyntheticWorld#DEFAULT_SEED} so every run sees the same map.
+     */
+    public static InMemoryCellDataSource withRandomComponents(float occupancy) {
+        return withSyntheticWorld(SyntheticWorld.uniform(SyntheticWorld.DEFAULT_SEED, occupancy));
+    }
+
+    /**
+     * Stand-in serving {@code world}; only cells written with {@link #put} are stored.
+     */
+    public static InMemoryCellDataSource withSyntheticWorld(SyntheticWorld world) {
+        return new InMemoryCellDataSource(world, false, SharedScheduler.INSTANCE);
+    }
+
+    public void put(long cellId, List<Component> components) {
+        List<Component> updated = components == null ? EMPTY : components;
+        synchronized (listeners) {
+            List<Component> previous = cells.put(cellId, updated);
+            if (previous == null && generator != null && !keepGenerated) {
+                previous = generator.apply(cellId); // What readers saw until now
+            }
+            List<ChangeListener> cellListeners = listeners.get(cellId);
+            if (cellListeners != null) {
+                reportChanges(cellId, previous == null ? EMPTY : previous, updated, cellListeners);
+            }
+        }
+    }
+
+    public void remove(long cellId) {
+        put(cellId, EMPTY);
+    }
+
+    @Override
+    public Registration subscribe(long cellId, ChangeListener listener, boolean replayExisting) {
+        synchronized (listeners) {
+            listeners.computeIfAbsent(cellId, id -> new ArrayList<>()).add(listener);
+            if (replayExisting) {
+                for (Component component : lookup(cellId)) {
+                    listener.onComponentAdded(cellId, component);
+                }
+            }
+        }
+        return () -> {
+            synchronized (listeners) {
+                List<ChangeListener> cellListeners = listeners.get(cellId);
+                if (cellListeners != null && cellListeners.remove(listener) && cellListeners.isEmpty()) {
+                    listeners.remove(cellId);
+                }
+            }
+        };
+    }
+
+    /** Number of cells with at least one listener. */
+    public int getListenedCellCount() {
+        synchronized (listeners) {
+            return listeners.size();
+        }
+    }
+
+    /**
+     * Every read answers after {@code latency} plus a uniform random extra in [0, jitter].
+     */
+    public void setLatency(long latency, long jitter, TimeUnit unit) {
+        if (latency < 0 || jitter < 0) {
+            throw new IllegalArgumentException("Negative latency " + latency + " or jitter " + jitter);
+        }
+        latencyNanos = unit.toNanos(latency);
+        jitterNanos = unit.toNanos(jitter);
+    }
+
+    /**
+     * Share of reads, in [0, 1], that fail with an {@link IOException}.
+     */
+    public void setFailureRate(double failureRate) {
+        if (!(failureRate >= 0 && failureRate <= 1)) {
+            throw new IllegalArgumentException("Failure rate must be in [0, 1]: " + failureRate);
+        }
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Reseeds the jitter and failure draws, for reproducible runs.
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    @Override
+    public void readCell(long cellId, ReadCallback callback) {
+        schedule("cell " + cellId, callback, () -> {
+            List<Component> components = lookup(cellId);
+            if (!components.isEmpty()) {
+                callback.onCell(cellId, components);
+            }
+        });
+    }
+
+    @Override
+    public void readParent(long parentId, ReadCallback callback) {
+        schedule("parent " + parentId, callback, () -> {
+            long first = parentId * FetchPlanner.LEAVES_PER_PARENT;
+            for (int leaf = 0; leaf < FetchPlanner.LEAVES_PER_PARENT; leaf++) {
+                List<Component> components = lookup(first + leaf);
+                if (!components.isEmpty()) {
+                    callback.onCell(first + leaf, components);
+                }
+            }
+        });
+    }
+
+    // Built from the cells themselves, so it always matches them, like an index updated on every write
+    @Override
+    public void readOccupancy(long parentId, OccupancyIndex.Callback callback) {
+        schedule("occupancy " + parentId, callback::onError, () -> {
+            OccupancyBitmap bitmap = new OccupancyBitmap();
+            long first = parentId * FetchPlanner.LEAVES_PER_PARENT;
+            for (int leaf = 0; leaf < FetchPlanner.LEAVES_PER_PARENT; leaf++) {
+                if (!lookup(first + leaf).isEmpty()) {
+                    bitmap.setOccupied(leaf, true);
+                }
+            }
+            callback.onOccupancy(parentId, bitmap);
+        });
+    }
+
+    private List<Component> lookup(long cellId) {
+        if (generator == null) {
+            return cells.getOrDefault(cellId, EMPTY);
+        }
+        if (!keepGenerated) {
+            List<Component> stored = cells.get(cellId);
+            return stored != null ? stored : generator.apply(cellId);
+        }
+        return cells.computeIfAbsent(cellId, id -> {
+            List<Component> generated = generator.apply(id);
+            return generated == null ? EMPTY : generated;
+        });
+    }
+
+    // Matches components by id: new ids were added, differing ones changed, missing ones removed
+    private static void reportChanges(long cellId, List<Component> previous, List<Component> updated,
+                                      List<ChangeListener> cellListeners) {
+        for (Component component : updated) {
+            Component before = findById(previous, component.getId());
+            for (ChangeListener listener : cellListeners) {
+                if (before == null) {
+                    listener.onComponentAdded(cellId, component);
+                } else if (!before.equals(component)) {
+                    listener.onComponentChanged(cellId, component);
+                }
+            }
+        }
+        for (Component component : previous) {
+            if (findById(updated, component.getId()) == null) {
+                for (ChangeListener listener : cellListeners) {
+                    listener.onComponentRemoved(cellId, component.getId());
+                }
+            }
+        }
+    }
+
+    private static Component findById(List<Component> components, String id) {
+        for (Component component : components) {
+            if (Objects.equals(component.getId(), id)) {
+                return component;
+            }
+        }
+        return null;
+    }
+
+    private void schedule(String what, ReadCallback callback, Runnable read) {
+        schedule(what, callback::onError, () -> {
+            read.run();
+            callback.onComplete();
+        });
+    }
+
+    // Runs read after the configured latency, or hands onFailure an injected failure instead
+    private void schedule(String what, Consumer<Exception> onFailure, Runnable read) {
+        requestCount.incrementAndGet();
+        long delay = latencyNanos;
+        long jitter = jitterNanos;
+        if (jitter > 0) {
+            delay += (long) (random.nextDouble() * jitter);
+        }
+        boolean fail = failureRate > 0 && random.nextDouble() < failureRate;
+
+        scheduler.schedule(() -> {
+            if (fail) {
+                failureCount.incrementAndGet();
+                onFailure.accept(new IOException("Injected failure reading " + what));
+                return;
+            }
+            read.run();
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    // Daemon threads so an idle stand-in never keeps the process alive
+    private static final class SharedScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newScheduledThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+                    Thread thread = new Thread(runnable, "in-memory-cell-source");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
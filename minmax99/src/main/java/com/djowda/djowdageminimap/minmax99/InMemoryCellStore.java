@@ -0,0 +1,83 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@link CellStore} kept in process memory: for tests and for running the cache on a plain JVM.
+ */
+public class InMemoryCellStore implements CellStore {
+
+    private final ConcurrentSkipListMap<Long, CachedCell> cells = new ConcurrentSkipListMap<>();
+    private final Map<Long, Long> parents = new ConcurrentHashMap<>();
+
+    @Override
+    public CachedCell getCell(long cellId) {
+        return cells.get(cellId);
+    }
+
+    @Override
+    public long getParentFetchedAt(long parentId) {
+        return parents.getOrDefault(parentId, -1L);
+    }
+
+    @Override
+    public List<CachedCell> getOccupiedCellsInParent(long parentId) {
+        List<CachedCell> occupied = new ArrayList<>();
+        for (CachedCell cell : leaves(parentId).values()) {
+            if (!cell.getComponents().isEmpty()) {
+                occupied.add(cell);
+            }
+        }
+        return occupied;
+    }
+
+    @Override
+    public void putCell(long cellId, List<Component> components, long fetchedAtMillis) {
+        cells.put(cellId, new CachedCell(cellId, components, fetchedAtMillis));
+    }
+
+    @Override
+    public synchronized void putParent(long parentId, List<CachedCell> occupiedCells, long fetchedAtMillis) {
+        leaves(parentId).clear();
+        for (CachedCell cell : occupiedCells) {
+            cells.put(cell.getCellId(), cell);
+        }
+        parents.put(parentId, fetchedAtMillis);
+    }
+
+    public int size() {
+        return cells.size();
+    }
+
+    private ConcurrentNavigableMap<Long, CachedCell> leaves(long parentId) {
+        long first = parentId * FetchPlanner.LEAVES_PER_PARENT;
+        return cells.subMap(first, true, first + FetchPlanner.LEAVES_PER_PARENT - 1, true);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of durations in nanoseconds, in the style of HdrHistogram:
+ * every power of two is split into {@value #SUB_BUCKETS} linear buckets, so a reported
+ * percentile is within {@code 1/}{@value #SUB_BUCKETS} of the recorded value from 1 ns up to
+ * {@link #MAX_TRACKABLE_NANOS}; longer durations are counted as that maximum. Recording is one
+ * array increment, two adder updates and min/max updates that rarely write, and allocates nothing.
+ */
+public final class LatencyHistogram {
+
+    // Bits of precision kept below the leading one bit
+    private static final int PRECISION_BITS = 6;
+    static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+    private static final int MAX_EXPONENT = 36;
+
+    /** About 68 seconds. */
+    public static final long MAX_TRACKABLE_NANOS = (1L << MAX_EXPONENT) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_TRACKABLE_NANOS) + 1);
+    // Adders: every recording touches these, from whichever thread completed the read
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE_NANOS));
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        long current;
+        while (value < (current = min.get()) && !min.compareAndSet(current, value)) {
+            // Retry: another thread moved the minimum
+        }
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Retry: another thread moved the maximum
+        }
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        record(unit.toNanos(duration));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Clears every bucket. Recordings racing with the reset may survive it.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+
+    /**
+     * Copies the current counts. Recordings racing with the copy may be partly included.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.sum(), total == 0 ? 0 : min.get(), max.get());
+    }
+
+    // Values below 2 * SUB_BUCKETS map to themselves; above, each power of two gets SUB_BUCKETS buckets
+    static int indexOf(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - PRECISION_BITS);
+        return (shift << PRECISION_BITS) + (int) (value >>> shift);
+    }
+
+    // Largest value that maps to the bucket
+    static long highestValueAt(int index) {
+        int shift = Math.max(0, (index >> PRECISION_BITS) - 1);
+        long mantissa = index - ((long) shift << PRECISION_BITS);
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Immutable copy of a histogram, for dumping results.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long min, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMin(TimeUnit unit) {
+            return unit.convert(min, TimeUnit.NANOSECONDS);
+        }
+
+        public long getMax(TimeUnit unit) {
+            return unit.convert(max, TimeUnit.NANOSECONDS);
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0 : sum / (double) count;
+        }
+
+        /**
+         * Smallest recorded value that at least {@code percentile} percent of the values are at
+         * or below, within the histogram's precision; 0 if nothing was recorded.
+         * @param percentile In [0, 100].
+         */
+        public long getValueAtPercentile(double percentile, TimeUnit unit) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    // Never report past what was actually recorded
+                    return unit.convert(Math.min(highestValueAt(i), max), TimeUnit.NANOSECONDS);
+                }
+            }
+            return unit.convert(max, TimeUnit.NANOSECONDS);
+        }
+
+        public long getP50(TimeUnit unit) {
+            return getValueAtPercentile(50, unit);
+        }
+
+        public long getP95(TimeUnit unit) {
+            return getValueAtPercentile(95, unit);
+        }
+
+        public long getP99(TimeUnit unit) {
+            return getValueAtPercentile(99, unit);
+        }
+
+        @Override
+        public String toString() {
+            TimeUnit us = TimeUnit.MICROSECONDS;
+            return "{count=" + count + ", p50Us=" + getP50(us) + ", p95Us=" + getP95(us) + ", p99Us=" + getP99(us)
+                    + ", maxUs=" + getMax(us) + "}";
+        }
+    }
+}
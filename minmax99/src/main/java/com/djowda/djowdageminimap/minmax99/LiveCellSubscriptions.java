@@ -0,0 +1,175 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps change listeners on the cells in and just around the viewport, and only those. Each
+ * {@link #setViewport} attaches the cells that came into reach and detaches the ones that left;
+ * events are forwarded to one {@link CellChangeSource.ChangeListener}, which applies them to the
+ * grid. At most {@code maxListeners} are attached: when the padded viewport holds more cells,
+ * the square around its center is shrunk until it fits.
+ *
+ * <p>Listeners are attached without replaying existing components, which the grid already got
+ * from its fetch; only changes made after attaching are forwarded. Attaching touches every cell
+ * that came into reach, so call {@link #setViewport} off the UI thread.
+ */
+public class LiveCellSubscriptions {
+
+    /** Cells around the viewport kept live, so short pans back and forth do not re-attach. */
+    public static final int DEFAULT_MARGIN = 2;
+    /** Enough for a range-20 viewport and its margin. */
+    public static final int DEFAULT_MAX_LISTENERS = 2048;
+
+    private final CellChangeSource source;
+    private final CellChangeSource.ChangeListener listener;
+    private final int margin;
+    private final int maxListeners;
+
+    private final Map<Long, Forwarder> attached = new HashMap<>();
+    private long attachCount;
+    private long detachCount;
+
+    public LiveCellSubscriptions(CellChangeSource source, CellChangeSource.ChangeListener listener) {
+        this(source, listener, DEFAULT_MARGIN, DEFAULT_MAX_LISTENERS);
+    }
+
+    public LiveCellSubscriptions(CellChangeSource source, CellChangeSource.ChangeListener listener,
+                                 int margin, int maxListeners) {
+        if (margin < 0 || maxListeners < 1) {
+            throw new IllegalArgumentException("Invalid margin " + margin + " or listener bound " + maxListeners);
+        }
+        this.source = source;
+        this.listener = listener;
+        this.margin = margin;
+        this.maxListeners = maxListeners;
+    }
+
+    /**
+     * Moves the live area to the neighborhood of {@code centerCellId}, padded by the margin.
+     */
+    public synchronized void setViewport(long centerCellId, int range) {
+        int radius = range + margin;
+        while (radius > 0 && NearbyCellUtils.countNearbyCells(centerCellId, radius) > maxListeners) {
+            radius--;
+        }
+        Set<Long> wanted = new HashSet<>();
+        NearbyCellUtils.forEachNearbyCellId(centerCellId, radius, wanted::add);
+
+        // Detach first so the bound holds at every moment
+        for (Iterator<Map.Entry<Long, Forwarder>> it = attached.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Forwarder> entry = it.next();
+            if (!wanted.contains(entry.getKey())) {
+                entry.getValue().detach();
+                it.remove();
+                detachCount++;
+            }
+        }
+        for (long cellId : wanted) {
+            if (!attached.containsKey(cellId)) {
+                Forwarder forwarder = new Forwarder();
+                attached.put(cellId, forwarder);
+                forwarder.attach(cellId);
+                attachCount++;
+            }
+        }
+    }
+
+    /** Detaches every listener, e.g. when the map goes away. */
+    public synchronized void clear() {
+        for (Forwarder forwarder : attached.values()) {
+            forwarder.detach();
+        }
+        detachCount += attached.size();
+        attached.clear();
+    }
+
+    public synchronized int getListenerCount() {
+        return attached.size();
+    }
+
+    public synchronized boolean isLive(long cellId) {
+        return attached.containsKey(cellId);
+    }
+
+    public synchronized long getAttachCount() {
+        return attachCount;
+    }
+
+    public synchronized long getDetachCount() {
+        return detachCount;
+    }
+
+    public int getMaxListeners() {
+        return maxListeners;
+    }
+
+    // One per attached cell; drops whatever the source still delivers after detaching
+    private final class Forwarder implements CellChangeSource.ChangeListener {
+        private volatile boolean active = true;
+        private CellChangeSource.Registration registration;
+
+        // Both run under the manager's lock
+        void attach(long cellId) {
+            registration = source.subscribe(cellId, this, false);
+        }
+
+        void detach() {
+            active = false;
+            registration.remove();
+        }
+
+        @Override
+        public void onComponentAdded(long cellId, Component component) {
+            if (active) {
+                listener.onComponentAdded(cellId, component);
+            }
+        }
+
+        @Override
+        public void onComponentChanged(long cellId, Component component) {
+            if (active) {
+                listener.onComponentChanged(cellId, component);
+            }
+        }
+
+        @Override
+        public void onComponentRemoved(long cellId, String componentId) {
+            if (active) {
+                listener.onComponentRemoved(cellId, componentId);
+            }
+        }
+
+        @Override
+        public void onError(long cellId, Exception e) {
+            if (active) {
+                listener.onError(cellId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.LongToIntFunction;
+
+/**
+ * One live change to a cell's components, as a {@link CellChangeSource} reports it. Changes
+ * are handed to the UI thread in batches, which {@link #toTiles} folds into one
+ * {@link TileUpdate} per cell, so a burst of changes repaints each tile once.
+ */
+public final class LiveChange {
+
+    public final long cellId;
+    /** The added or changed component; null for a removal. */
+    public final Component component;
+    public final String componentId;
+
+    private LiveChange(long cellId, Component component, String componentId) {
+        this.cellId = cellId;
+        this.component = component;
+        this.componentId = componentId;
+    }
+
+    /** A component was added, or changed in place. */
+    public static LiveChange upsert(long cellId, Component component) {
+        return new LiveChange(cellId, component, component.getId());
+    }
+
+    public static LiveChange removal(long cellId, String componentId) {
+        return new LiveChange(cellId, null, componentId);
+    }
+
+    /**
+     * Applies a batch to the contents the cells currently show.
+     *
+     * @param positionOf Grid position of a cell, -1 when it is not visible; its changes are dropped.
+     * @param contentsAt Components a grid position currently shows; not modified.
+     * @return One tile per visible cell the batch touched, in the order the cells were first
+     *         touched. An emptied cell gets an empty tile.
+     */
+    public static List<TileUpdate> toTiles(List<LiveChange> batch, LongToIntFunction positionOf,
+                                           IntFunction<List<Component>> contentsAt) {
+        Map<Long, TileUpdate> tiles = new LinkedHashMap<>();
+        for (LiveChange change : batch) {
+            TileUpdate tile = tiles.get(change.cellId);
+            if (tile == null) {
+                int gridPosition = positionOf.applyAsInt(change.cellId);
+                if (gridPosition == -1) {
+                    continue;
+                }
+                tile = new TileUpdate(gridPosition, change.cellId, new ArrayList<>(contentsAt.apply(gridPosition)));
+                tiles.put(change.cellId, tile);
+            }
+            change.applyTo(tile.components);
+        }
+        return new ArrayList<>(tiles.values());
+    }
+
+    // Same matching as the grid: a component replaces the one with its id, or is appended
+    private void applyTo(List<Component> components) {
+        for (int i = 0; i < components.size(); i++) {
+            if (Objects.equals(components.get(i).getId(), componentId)) {
+                if (component != null) {
+                    components.set(i, component);
+                } else {
+                    components.remove(i);
+                }
+                return;
+            }
+        }
+        if (component != null) {
+            components.add(component);
+        }
+    }
+}
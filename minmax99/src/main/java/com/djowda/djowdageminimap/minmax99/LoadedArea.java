@@ -0,0 +1,100 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+
+/**
+ * Rectangle of cells whose data the grid holds in full, so the next navigation reads everything
+ * else. It only grows when a fetch completes and shrinks whenever the grid drops cells, so an
+ * interrupted navigation never leaves cells that count as loaded but are missing from the grid.
+ *
+ * <p>Not thread-safe; keep it on the thread that changes the grid.
+ */
+public final class LoadedArea {
+
+    private static final int TOTAL_COLUMNS = 82000;
+    private static final int TOTAL_ROWS = 42000;
+
+    // Inclusive bounds; empty while maxCol < minCol
+    private int minCol;
+    private int maxCol = -1;
+    private int minRow;
+    private int maxRow = -1;
+
+    /**
+     * Cells to read to show {@code target}: those outside the loaded area.
+     */
+    public ViewportDelta deltaTo(CellIdMapper target) {
+        return ViewportDelta.between(minCol, maxCol, minRow, maxRow, target);
+    }
+
+    /**
+     * The grid kept only the cells inside {@code viewport}.
+     */
+    public void retain(CellIdMapper viewport) {
+        int col = NearbyCellUtils.columnOf(viewport.getCenterCellId());
+        int row = NearbyCellUtils.rowOf(viewport.getCenterCellId());
+        int range = viewport.getRange();
+        minCol = Math.max(minCol, col - range);
+        maxCol = Math.min(maxCol, col + range);
+        minRow = Math.max(minRow, row - range);
+        maxRow = Math.min(maxRow, row + range);
+        if (isEmpty()) {
+            clear();
+        }
+    }
+
+    /**
+     * The grid dropped every cell.
+     */
+    public void clear() {
+        minCol = minRow = 0;
+        maxCol = maxRow = -1;
+    }
+
+    /**
+     * Every cell of {@code viewport}, the viewport the grid shows, finished loading.
+     */
+    public void markLoaded(CellIdMapper viewport) {
+        int col = NearbyCellUtils.columnOf(viewport.getCenterCellId());
+        int row = NearbyCellUtils.rowOf(viewport.getCenterCellId());
+        int range = viewport.getRange();
+        minCol = Math.max(0, col - range);
+        maxCol = Math.min(TOTAL_COLUMNS - 1, col + range);
+        minRow = Math.max(0, row - range);
+        maxRow = Math.min(TOTAL_ROWS - 1, row + range);
+    }
+
+    public boolean isEmpty() {
+        return maxCol < minCol || maxRow < minRow;
+    }
+
+    public boolean contains(long cellId) {
+        int col = NearbyCellUtils.columnOf(cellId);
+        int row = NearbyCellUtils.rowOf(cellId);
+        return col >= minCol && col <= maxCol && row >= minRow && row <= maxRow;
+    }
+
+    public int getCellCount() {
+        return isEmpty() ? 0 : (maxCol - minCol + 1) * (maxRow - minRow + 1);
+    }
+}
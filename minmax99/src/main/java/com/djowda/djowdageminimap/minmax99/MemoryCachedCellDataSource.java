@@ -0,0 +1,235 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps cells read through a {@link CellDataSource} in a {@link CellCache}, so navigating back
+ * to a recent area answers from memory. Empty cells are cached too. A parent read is cached as
+ * one entry holding its occupied leaves, and also answers reads of any of its leaves.
+ *
+ * <p>Entries older than the max age are not answered from memory but read again through the
+ * delegate, so a {@link CachingCellDataSource} below gets to serve and revalidate them; hot cells
+ * would otherwise never reach its TTL.
+ */
+public class MemoryCachedCellDataSource implements CellDataSource {
+
+    /** Default bound: about 4 MB of components. */
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+
+    /** Default max age: the device cache's fresh window, so memory never outlives it. */
+    public static final long DEFAULT_MAX_AGE_MILLIS = CachingCellDataSource.TtlPolicy.DEFAULT.freshMillis;
+
+    // Rough heap footprint: entry, node and list overhead, then per component and per char
+    private static final long ENTRY_BYTES = 96;
+    private static final long COMPONENT_BYTES = 72;
+    private static final long CHAR_BYTES = 2;
+    static final long AVERAGE_ENTRY_BYTES = ENTRY_BYTES + COMPONENT_BYTES / 2;
+
+    private final CellDataSource delegate;
+    private final CellCache<Entry> cache;
+    private final long maxAgeMillis;
+    private final LongSupplier clock;
+
+    public MemoryCachedCellDataSource(CellDataSource delegate) {
+        this(delegate, DEFAULT_MAX_BYTES);
+    }
+
+    public MemoryCachedCellDataSource(CellDataSource delegate, long maxBytes) {
+        this(delegate, maxBytes, DEFAULT_MAX_AGE_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxAgeMillis Entries older than this are read through the delegate again.
+     * @param clock Millis, the time base of the entry ages.
+     */
+    public MemoryCachedCellDataSource(CellDataSource delegate, long maxBytes, long maxAgeMillis, LongSupplier clock) {
+        this.delegate = delegate;
+        this.cache = new CellCache<>(maxBytes, AVERAGE_ENTRY_BYTES, entry -> estimateBytes(entry.cells));
+        this.maxAgeMillis = maxAgeMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public void readCell(long cellId, ReadCallback callback) {
+        long now = clock.getAsLong();
+        List<CachedCell> cached = live(cache.get(cellId), now);
+        if (cached == null) {
+            // A cached parent knows every leaf; peek so the leaf lookup stays the counted one
+            List<CachedCell> parent = live(cache.peek(parentKey(MinMaxPathGenerator.parentOf(cellId))), now);
+            if (parent != null) {
+                cached = Collections.emptyList();
+                for (CachedCell cell : parent) {
+                    if (cell.getCellId() == cellId) {
+                        cached = Collections.singletonList(cell);
+                        break;
+                    }
+                }
+            }
+        }
+        if (cached != null) {
+            emit(cached, callback);
+            return;
+        }
+        delegate.readCell(cellId, new Collector(callback) {
+            @Override
+            void onCollected(List<CachedCell> cells) {
+                cache.put(cellId, new Entry(cells, clock.getAsLong()));
+            }
+        });
+    }
+
+    @Override
+    public void readParent(long parentId, ReadCallback callback) {
+        List<CachedCell> cached = live(cache.get(parentKey(parentId)), clock.getAsLong());
+        if (cached != null) {
+            emit(cached, callback);
+            return;
+        }
+        delegate.readParent(parentId, new Collector(callback) {
+            @Override
+            void onCollected(List<CachedCell> cells) {
+                cache.put(parentKey(parentId), new Entry(cells, clock.getAsLong()));
+            }
+        });
+    }
+
+    /**
+     * Records newer contents for a cell, e.g. from a revalidation or a live listener, and drops
+     * the cached parent that would otherwise still answer with the old ones. Contents equal to
+     * what is cached change nothing.
+     */
+    public void update(long cellId, List<Component> components) {
+        if (components.equals(peekComponents(cellId))) {
+            return;
+        }
+        List<CachedCell> cells = components.isEmpty()
+                ? Collections.emptyList() : Collections.singletonList(new CachedCell(cellId, components, 0));
+        cache.put(cellId, new Entry(cells, clock.getAsLong()));
+        cache.invalidate(parentKey(MinMaxPathGenerator.parentOf(cellId)));
+    }
+
+    // What a read would answer from memory, or null, without counting as a request
+    private List<Component> peekComponents(long cellId) {
+        long now = clock.getAsLong();
+        List<CachedCell> cells = live(cache.peek(cellId), now);
+        if (cells == null) {
+            cells = live(cache.peek(parentKey(MinMaxPathGenerator.parentOf(cellId))), now);
+            if (cells == null) {
+                return null;
+            }
+        }
+        for (CachedCell cell : cells) {
+            if (cell.getCellId() == cellId) {
+                return cell.getComponents();
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    public CellCache<?> getCache() {
+        return cache;
+    }
+
+    // The entry's cells, or null if there is none or it is past the max age
+    private List<CachedCell> live(Entry entry, long now) {
+        return entry != null && now - entry.cachedAtMillis < maxAgeMillis ? entry.cells : null;
+    }
+
+    /** Estimated heap bytes of a cached entry. */
+    static long estimateBytes(List<CachedCell> cells) {
+        long bytes = ENTRY_BYTES;
+        for (CachedCell cell : cells) {
+            bytes += ENTRY_BYTES / 2;
+            for (Component component : cell.getComponents()) {
+                bytes += COMPONENT_BYTES + CHAR_BYTES * (length(component.getId()) + length(component.getName()));
+            }
+        }
+        return bytes;
+    }
+
+    // Parents share the key space with cells, so they are stored under negative keys
+    private static long parentKey(long parentId) {
+        return -(parentId + 1);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static void emit(List<CachedCell> cells, ReadCallback callback) {
+        for (CachedCell cell : cells) {
+            callback.onCell(cell.getCellId(), cell.getComponents());
+        }
+        callback.onComplete();
+    }
+
+    private static final class Entry {
+        final List<CachedCell> cells;
+        final long cachedAtMillis;
+
+        Entry(List<CachedCell> cells, long cachedAtMillis) {
+            this.cells = cells;
+            this.cachedAtMillis = cachedAtMillis;
+        }
+    }
+
+    // Forwards a delegate read while collecting it; only complete reads are cached
+    private abstract static class Collector implements ReadCallback {
+        private final ReadCallback downstream;
+        private final List<CachedCell> cells = new ArrayList<>();
+
+        Collector(ReadCallback downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onCell(long cellId, List<Component> components) {
+            synchronized (this) {
+                cells.add(new CachedCell(cellId, components, 0));
+            }
+            downstream.onCell(cellId, components);
+        }
+
+        @Override
+        public void onComplete() {
+            List<CachedCell> collected;
+            synchronized (this) {
+                collected = cells.isEmpty() ? Collections.emptyList() : new ArrayList<>(cells);
+            }
+            onCollected(collected);
+            downstream.onComplete();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            downstream.onError(e);
+        }
+
+        abstract void onCollected(List<CachedCell> cells);
+    }
+}
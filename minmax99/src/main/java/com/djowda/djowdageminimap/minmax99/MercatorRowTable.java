@@ -0,0 +1,186 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import static com.djowda.djowdageminimap.minmax99.GeoToCellNumber.CELL_SIZE_METERS;
+import static com.djowda.djowdageminimap.minmax99.GeoToCellNumber.EARTH_HEIGHT_METERS;
+import static com.djowda.djowdageminimap.minmax99.GeoToCellNumber.NUM_ROWS;
+
+/**
+ * Precomputed Mercator row boundaries for the minMax99 Y axis.
+ *
+ * The forward direction (latitude to row) jumps to a per-bucket starting row and then walks the
+ * exact latitude thresholds at which the Mercator formula moves to the next row, so it returns
+ * the same row as the formula for every input. The reverse direction (row to latitude) is an
+ * array read of the values the inverse formula produces for each row edge. Latitudes outside the
+ * table (above the first row, below the last row, or NaN) fall back to the formula.
+ */
+public final class MercatorRowTable {
+
+    // Latitude buckets used to guess the row before the exact threshold walk. A bucket spans at
+    // most ~10 rows near the poles and ~1 row at the equator.
+    private static final int BUCKETS_PER_DEGREE = 128;
+
+    private MercatorRowTable() {
+    }
+
+    /**
+     * Builds the tables now, if no lookup has yet. Building takes tens of milliseconds, so call
+     * this from a background thread at startup rather than let the first lookup pay for it.
+     */
+    public static void warmUp() {
+        Tables.load();
+    }
+
+    /**
+     * Row of a latitude, identical to the Mercator formula in {@link GeoToCellNumber}.
+     */
+    public static int latitudeToRow(double latitude) {
+        double[] thresholds = Tables.THRESHOLDS;
+        // NaN fails both comparisons and also takes the formula path
+        if (!(latitude <= thresholds[0] && latitude > thresholds[NUM_ROWS])) {
+            return latitudeToRowByFormula(latitude);
+        }
+
+        // Jump to the bucket's first row, then step down the thresholds to the exact row
+        int row = Tables.BUCKET_ROWS[(int) ((thresholds[0] - latitude) * BUCKETS_PER_DEGREE)];
+        while (row + 1 < NUM_ROWS && latitude <= thresholds[row + 1]) {
+            row++;
+        }
+        return row;
+    }
+
+    /**
+     * Latitude of the top edge of a row, identical to the inverse Mercator formula.
+     * @param row Row in [0, NUM_ROWS].
+     */
+    public static double rowToLatitude(int row) {
+        return Tables.ROW_LATITUDES[row];
+    }
+
+    /**
+     * Reference forward projection: the transcendental path the table replaces.
+     */
+    public static int latitudeToRowByFormula(double latitude) {
+        double y = (EARTH_HEIGHT_METERS / 2.0) -
+                Math.log(Math.tan(Math.PI / 4 + (latitude * Math.PI / 360.0))) *
+                        (EARTH_HEIGHT_METERS / (2 * Math.PI));
+        return (int) Math.floor(y / CELL_SIZE_METERS);
+    }
+
+    /**
+     * Reference inverse projection: the transcendental path the table replaces.
+     */
+    public static double rowToLatitudeByFormula(int row) {
+        double y = row * CELL_SIZE_METERS;
+        double mercatorY = (EARTH_HEIGHT_METERS / 2.0) - y;
+        return (2 * Math.atan(Math.exp(mercatorY * (2 * Math.PI) / EARTH_HEIGHT_METERS)) - Math.PI / 2) * 180 / Math.PI;
+    }
+
+    /**
+     * Largest latitude that still projects to {@code row} or a row below it.
+     */
+    static double thresholdLatitude(int row) {
+        return Tables.THRESHOLDS[row];
+    }
+
+    // Holder class: the tables are only built the first time a lookup runs
+    private static final class Tables {
+        static final double[] ROW_LATITUDES = new double[NUM_ROWS + 1];
+        static final double[] THRESHOLDS = new double[NUM_ROWS + 1];
+
+        static final int[] BUCKET_ROWS;
+
+        static {
+            for (int row = 0; row <= NUM_ROWS; row++) {
+                double edge = rowToLatitudeByFormula(row);
+                ROW_LATITUDES[row] = edge;
+                THRESHOLDS[row] = exactThreshold(row, edge);
+            }
+
+            int buckets = (int) ((THRESHOLDS[0] - THRESHOLDS[NUM_ROWS]) * BUCKETS_PER_DEGREE) + 1;
+            BUCKET_ROWS = new int[buckets];
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                double top = THRESHOLDS[0] - (double) bucket / BUCKETS_PER_DEGREE;
+                // One row of slack absorbs rounding in the bucket index computation
+                BUCKET_ROWS[bucket] = Math.max(0, searchRow(top) - 1);
+            }
+        }
+
+        // Last row whose threshold is still >= latitude; thresholds decrease with the row
+        // Calling it is enough to run the static initializer
+        static void load() {
+        }
+
+        private static int searchRow(double latitude) {
+            int lo = 0;
+            int hi = NUM_ROWS - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (latitude <= THRESHOLDS[mid]) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo;
+        }
+
+        // The inverse formula lands close to the forward formula's switch point but not on it.
+        // Bracket the switch point with doubling steps, then bisect down to adjacent doubles so
+        // lookups never disagree with the formula. Plain ulp stepping is not enough near the
+        // equator, where the switch point can be billions of ulps away from 0.
+        private static double exactThreshold(int row, double guess) {
+            double lo;
+            double hi;
+            double step = Math.ulp(guess);
+            if (latitudeToRowByFormula(guess) >= row) {
+                lo = guess;
+                hi = lo + step;
+                while (latitudeToRowByFormula(hi) >= row) {
+                    lo = hi;
+                    step *= 2;
+                    hi = lo + step;
+                }
+            } else {
+                hi = guess;
+                lo = hi - step;
+                while (latitudeToRowByFormula(lo) < row) {
+                    hi = lo;
+                    step *= 2;
+                    lo = hi - step;
+                }
+            }
+
+            while (true) {
+                double mid = lo + (hi - lo) / 2;
+                if (mid == lo || mid == hi) {
+                    return lo;
+                }
+                if (latitudeToRowByFormula(mid) >= row) {
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+            }
+        }
+    }
+}
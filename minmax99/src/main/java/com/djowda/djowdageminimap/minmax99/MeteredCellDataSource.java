@@ -0,0 +1,99 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link CellDataSource} decorator that records every read in a {@link FetchMetrics}: its
+ * latency, from the call to {@code onComplete} or {@code onError}, and the number in flight.
+ * Wrap the backend directly to measure it, or an outer layer to measure what callers see.
+ */
+public class MeteredCellDataSource implements CellDataSource {
+
+    private final CellDataSource delegate;
+    private final FetchMetrics metrics;
+
+    public MeteredCellDataSource(CellDataSource delegate, FetchMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void readCell(long cellId, ReadCallback callback) {
+        MeteredRead read = new MeteredRead(callback);
+        try {
+            delegate.readCell(cellId, read);
+        } catch (RuntimeException e) {
+            read.finish(true); // The caller reports it; the read is over either way
+            throw e;
+        }
+    }
+
+    @Override
+    public void readParent(long parentId, ReadCallback callback) {
+        MeteredRead read = new MeteredRead(callback);
+        try {
+            delegate.readParent(parentId, read);
+        } catch (RuntimeException e) {
+            read.finish(true);
+            throw e;
+        }
+    }
+
+    private final class MeteredRead implements ReadCallback {
+        private final ReadCallback callback;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        MeteredRead(ReadCallback callback) {
+            this.callback = callback;
+            metrics.readStarted();
+        }
+
+        @Override
+        public void onCell(long cellId, List<Component> components) {
+            callback.onCell(cellId, components);
+        }
+
+        @Override
+        public void onComplete() {
+            finish(false);
+            callback.onComplete();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            finish(true);
+            callback.onError(e);
+        }
+
+        // Guards against a backend that signals twice
+        private void finish(boolean failed) {
+            if (finished.compareAndSet(false, true)) {
+                metrics.readFinished(System.nanoTime() - startNanos, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-08-16 18:01
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+
+import java.util.Locale;
+
+public class MinMaxPathGenerator {
+
+    // One builder per thread; paths are at most ~40 chars, so it never grows after the first use
+    private static final ThreadLocal<StringBuilder> PATH_BUILDER =
+            ThreadLocal.withInitial(() -> new StringBuilder(48));
+
+    /**
+     * Constructs a database path based on the minMax99 structure.
+     * @param cellNumber The cell number as a string.
+     * @return The constructed database path.
+     * @throws IllegalArgumentException if the cell number is invalid.
+     */
+    public static String constructDbPath(String cellNumber) {
+        try {
+            // Parse cell number to long
+            return constructDbPath(Long.parseLong(cellNumber));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cell number format: " + cellNumber, e);
+        }
+    }
+
+    /**
+     * Constructs a database path for a cell number without going through a String or a
+     * formatter. Output is identical to {@code String.format(Locale.ROOT, "%d/%d/%d", ...)}.
+     * @param cell The cell number.
+     * @return The constructed database path.
+     */
+    public static String constructDbPath(long cell) {
+        StringBuilder builder = PATH_BUILDER.get();
+        builder.setLength(0);
+        return appendDbPath(builder, cell).toString();
+    }
+
+    /**
+     * Appends the database path of a cell to a caller-owned builder.
+     * @return The same builder.
+     */
+    public static StringBuilder appendDbPath(StringBuilder builder, long cell) {
+        // Divide the cell number into hierarchical levels
+        long lvl1 = cell / (1000 * 1000); // Top-level node
+        long lvl2 = (cell / 1000) % 1000; // Intermediate node
+        long lvl3 = cell % 1000; // Leaf node
+
+        // StringBuilder.append(long) prints exactly what %d prints in Locale.ROOT
+        return builder.append(lvl1).append('/').append(lvl2).append('/').append(lvl3);
+    }
+
+    /**
+     * Path of a {@code lvl1/lvl2} parent node, which holds the leaves of 1000 consecutive cells.
+     * @param parentId The parent id, i.e. {@code cell / 1000}.
+     */
+    public static String constructParentDbPath(long parentId) {
+        StringBuilder builder = PATH_BUILDER.get();
+        builder.setLength(0);
+        return builder.append(parentId / 1000).append('/').append(parentId % 1000).toString();
+    }
+
+    /**
+     * Parent id of a cell: all cells sharing it live under the same {@code lvl1/lvl2} node.
+     */
+    public static long parentOf(long cell) {
+        return cell / 1000;
+    }
+
+    /**
+     * Key of a cell's leaf under its parent node ({@code lvl3}).
+     */
+    public static String leafKey(long cell) {
+        return String.valueOf(cell % 1000);
+    }
+
+    /**
+     * Batch variant: writes the paths of {@code count} cells into {@code out}, sharing one builder.
+     */
+    public static void constructDbPaths(long[] cells, int count, String[] out) {
+        if (count > cells.length || count > out.length) {
+            throw new IndexOutOfBoundsException("count " + count + " exceeds cells " + cells.length
+                    + " or out " + out.length);
+        }
+        StringBuilder builder = PATH_BUILDER.get();
+        for (int i = 0; i < count; i++) {
+            builder.setLength(0);
+            out[i] = appendDbPath(builder, cells[i]).toString();
+        }
+    }
+
+    /**
+     * Batch variant for a whole neighborhood, in {@link NearbyCellUtils} order.
+     * @param out Buffer of at least {@link NearbyCellUtils#maxNearbyCellCount(int)} entries.
+     * @return Number of paths written.
+     */
+    public static int constructNeighborhoodDbPaths(long centerCellId, int range, String[] out) {
+        if (out.length < NearbyCellUtils.maxNearbyCellCount(range)) {
+            throw new IllegalArgumentException("Buffer too small for range " + range + ": " + out.length);
+        }
+        StringBuilder builder = PATH_BUILDER.get();
+        int[] count = {0};
+        NearbyCellUtils.forEachNearbyCellId(centerCellId, range, cellId -> {
+            builder.setLength(0);
+            out[count[0]++] = appendDbPath(builder, cellId).toString();
+        });
+        return count[0];
+    }
+
+    // Reference formatter kept for equivalence tests and benchmarks
+    static String constructDbPathFormatted(long cell) {
+        long lvl1 = cell / (1000 * 1000);
+        long lvl2 = (cell / 1000) % 1000;
+        long lvl3 = cell % 1000;
+        return String.format(Locale.ROOT, "%d/%d/%d", lvl1, lvl2, lvl3);
+    }
+
+}
+
+
+
@@ -0,0 +1,156 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-08-16 18:01
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+public class NearbyCellUtils {
+
+    private static final int TOTAL_COLUMNS = 82000;
+    private static final int TOTAL_ROWS = 42000;
+
+    /**
+     * Get all nearby cell IDs in a square range around a given cell.
+     * Boxes every ID; prefer {@link #fillNearbyCellIds} or {@link #forEachNearbyCellId} on hot paths.
+     * @param currentCellId The center cell ID.
+     * @param range Number of layers around the cell (1 = 3x3 grid).
+     * @return List of nearby cell IDs including the center.
+     */
+    public static List<Long> getNearbyCellIds(long currentCellId, int range) {
+        List<Long> nearbyCells = new ArrayList<>(maxNearbyCellCount(range));
+        forEachNearbyCellId(currentCellId, range, nearbyCells::add);
+        return nearbyCells;
+    }
+
+    /**
+     * Upper bound on the number of cells in a neighborhood; fewer near the map edges.
+     */
+    public static int maxNearbyCellCount(int range) {
+        int side = 2 * range + 1;
+        return side * side;
+    }
+
+    /**
+     * Writes the nearby cell IDs into a caller-owned buffer, in the same order as
+     * {@link #getNearbyCellIds(long, int)}, without allocating.
+     * @param out Buffer of at least {@link #maxNearbyCellCount(int)} entries.
+     * @return Number of IDs written.
+     */
+    public static int fillNearbyCellIds(long currentCellId, int range, long[] out) {
+        if (out.length < maxNearbyCellCount(range)) {
+            throw new IllegalArgumentException("Buffer too small for range " + range + ": " + out.length);
+        }
+
+        int col = columnOf(currentCellId);
+        int row = rowOf(currentCellId);
+        int minRow = Math.max(0, row - range);
+        int maxRow = Math.min(TOTAL_ROWS - 1, row + range);
+
+        int count = 0;
+        for (int c = Math.max(0, col - range); c <= Math.min(TOTAL_COLUMNS - 1, col + range); c++) {
+            long columnBase = (long) c * TOTAL_ROWS + 1;
+            for (int r = minRow; r <= maxRow; r++) {
+                out[count++] = columnBase + r;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Visits the nearby cell IDs in the same order as {@link #getNearbyCellIds(long, int)},
+     * without allocating.
+     */
+    public static void forEachNearbyCellId(long currentCellId, int range, LongConsumer action) {
+        int col = columnOf(currentCellId);
+        int row = rowOf(currentCellId);
+        int minRow = Math.max(0, row - range);
+        int maxRow = Math.min(TOTAL_ROWS - 1, row + range);
+
+        for (int c = Math.max(0, col - range); c <= Math.min(TOTAL_COLUMNS - 1, col + range); c++) {
+            long columnBase = (long) c * TOTAL_ROWS + 1;
+            for (int r = minRow; r <= maxRow; r++) {
+                action.accept(columnBase + r);
+            }
+        }
+    }
+
+    /**
+     * Lazy stream of the nearby cell IDs, in the same order as {@link #getNearbyCellIds(long, int)}.
+     */
+    public static LongStream nearbyCellIds(long currentCellId, int range) {
+        int col = columnOf(currentCellId);
+        int row = rowOf(currentCellId);
+        int minRow = Math.max(0, row - range);
+        int maxRow = Math.min(TOTAL_ROWS - 1, row + range);
+
+        return LongStream.rangeClosed(Math.max(0, col - range), Math.min(TOTAL_COLUMNS - 1, col + range))
+                .flatMap(c -> LongStream.rangeClosed(minRow, maxRow).map(r -> c * TOTAL_ROWS + r + 1));
+    }
+
+    /**
+     * Number of cells in the neighborhood, accounting for the map edges.
+     */
+    public static int countNearbyCells(long currentCellId, int range) {
+        int col = columnOf(currentCellId);
+        int row = rowOf(currentCellId);
+        int columns = Math.min(TOTAL_COLUMNS - 1, col + range) - Math.max(0, col - range) + 1;
+        int rows = Math.min(TOTAL_ROWS - 1, row + range) - Math.max(0, row - range) + 1;
+        return Math.max(0, columns) * Math.max(0, rows);
+    }
+
+    /**
+     * Whether a cell belongs to the neighborhood of {@code currentCellId}.
+     */
+    public static boolean isNearby(long currentCellId, int range, long cellId) {
+        int c = columnOf(cellId);
+        int r = rowOf(cellId);
+        return c >= 0 && c < TOTAL_COLUMNS && r >= 0 && r < TOTAL_ROWS
+                && Math.abs(c - columnOf(currentCellId)) <= range
+                && Math.abs(r - rowOf(currentCellId)) <= range;
+    }
+
+    /**
+     * The cell {@code columns} columns and {@code rows} rows away from {@code cellId} (a grid's x
+     * and y), or -1 if that is off the map.
+     */
+    public static long offsetCell(long cellId, int columns, int rows) {
+        int c = columnOf(cellId) + columns;
+        int r = rowOf(cellId) + rows;
+        if (c < 0 || c >= TOTAL_COLUMNS || r < 0 || r >= TOTAL_ROWS) {
+            return -1;
+        }
+        return (long) c * TOTAL_ROWS + r + 1;
+    }
+
+    // Cell IDs are 1-based within a column: id = col * TOTAL_ROWS + row + 1
+    static int columnOf(long cellId) {
+        return (int) ((cellId - 1) / TOTAL_ROWS);
+    }
+
+    static int rowOf(long cellId) {
+        return (int) ((cellId - 1) % TOTAL_ROWS);
+    }
+}
@@ -0,0 +1,510 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-08-16 18:01
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+public class NearbyComponentFetcher {
+    private final CellDataSource dataSource;
+    private final FetchPlanner planner;
+    private final FetchScheduler scheduler;
+    private final OccupancyFilter occupancyFilter;
+
+    public NearbyComponentFetcher(CellDataSource dataSource) {
+        this(dataSource, new FetchPlanner(), new FetchScheduler());
+    }
+
+    public NearbyComponentFetcher(CellDataSource dataSource, FetchPlanner planner) {
+        this(dataSource, planner, new FetchScheduler());
+    }
+
+    /**
+     * @param scheduler Bounds the reads in flight; share one between fetchers to bound them globally.
+     */
+    public NearbyComponentFetcher(CellDataSource dataSource, FetchPlanner planner, FetchScheduler scheduler) {
+        this(dataSource, planner, scheduler, null);
+    }
+
+    /**
+     * @param occupancyFilter Skips cells known to be empty before planning, or null to read every cell.
+     */
+    public NearbyComponentFetcher(CellDataSource dataSource, FetchPlanner planner, FetchScheduler scheduler,
+                                  OccupancyFilter occupancyFilter) {
+        this.dataSource = dataSource;
+        this.planner = planner;
+        this.scheduler = scheduler;
+        this.occupancyFilter = occupancyFilter;
+    }
+
+    public static class FetchResult {
+        private static final long[] NO_CELLS = new long[0];
+
+        public final CellIdMapper mapper;
+        public final Map<Long, List<Component>> cellComponents;
+        // Cells that could not be read, sorted; empty unless the result is partial
+        public final long[] failedCellIds;
+        // Cells the fetch covered, occupied or not
+        public final int cellCount;
+
+        public FetchResult(CellIdMapper mapper, Map<Long, List<Component>> cellComponents) {
+            this(mapper, cellComponents, NO_CELLS);
+        }
+
+        public FetchResult(CellIdMapper mapper, Map<Long, List<Component>> cellComponents, long[] failedCellIds) {
+            this(mapper, cellComponents, failedCellIds, mapper.getCellIdCount());
+        }
+
+        public FetchResult(CellIdMapper mapper, Map<Long, List<Component>> cellComponents, long[] failedCellIds,
+                           int cellCount) {
+            this.mapper = mapper;
+            this.cellComponents = cellComponents;
+            this.failedCellIds = failedCellIds;
+            this.cellCount = cellCount;
+        }
+
+        public boolean isPartial() {
+            return failedCellIds.length > 0;
+        }
+    }
+
+    /**
+     * One occupied cell of a streamed fetch.
+     */
+    public static class CellResult {
+        public final long cellId;
+        public final List<Component> components;
+
+        public CellResult(long cellId, List<Component> components) {
+            this.cellId = cellId;
+            this.components = components;
+        }
+    }
+
+    /**
+     * Streams the occupied cells of the viewport around {@code centerCellId} as they arrive.
+     */
+    public CellResultPublisher streamNearbyComponents(long centerCellId, int range, FetchScheduler.Priority priority) {
+        return streamEnteringComponents(ViewportDelta.between(null, new CellIdMapper(centerCellId, range)), priority);
+    }
+
+    /**
+     * Streams the occupied cells entering the viewport as they arrive, so a slow read only holds
+     * back its own cells. Nothing is read until the subscriber requests.
+     */
+    public CellResultPublisher streamEnteringComponents(ViewportDelta delta, FetchScheduler.Priority priority) {
+        return streamEnteringComponents(delta, priority, null);
+    }
+
+    /**
+     * Generation-tagged variant: once {@code token} is stale, queued reads are dropped, late cells
+     * are discarded and the stream ends with a {@link CancellationException}.
+     */
+    public CellResultPublisher streamEnteringComponents(ViewportDelta delta, FetchScheduler.Priority priority,
+                                                        FetchGeneration.Token token) {
+        CellIdMapper mapper = delta.getTo();
+        return new CellResultPublisher(mapper, sink ->
+                readCells(mapper, delta.getEnteringCount(), delta::forEachEntering, priority, token, sink));
+    }
+
+    /**
+     * Reads every cell of the viewport around {@code centerCellId}.
+     */
+    public void fetchNearbyComponents(long centerCellId, int range, OnFetchComplete callback) {
+        fetchNearbyComponents(centerCellId, range, FetchScheduler.Priority.USER, callback);
+    }
+
+    public void fetchNearbyComponents(long centerCellId, int range, FetchScheduler.Priority priority,
+                                      OnFetchComplete callback) {
+        CellIdMapper mapper = new CellIdMapper(centerCellId, range); // Pass center cell ID
+        fetchEnteringComponents(ViewportDelta.between(null, mapper), priority, callback);
+    }
+
+    /**
+     * Reads only the cells entering the viewport.
+     * Cells that stay keep whatever the caller already holds for them.
+     */
+    public void fetchEnteringComponents(ViewportDelta delta, OnFetchComplete callback) {
+        fetchEnteringComponents(delta, FetchScheduler.Priority.USER, callback);
+    }
+
+    public void fetchEnteringComponents(ViewportDelta delta, FetchScheduler.Priority priority,
+                                        OnFetchComplete callback) {
+        fetchEnteringComponents(delta, priority, null, callback);
+    }
+
+    /**
+     * Generation-tagged variant: once {@code token} is stale the callback gets a
+     * {@link CancellationException} instead of a result.
+     */
+    public void fetchEnteringComponents(ViewportDelta delta, FetchScheduler.Priority priority,
+                                        FetchGeneration.Token token, OnFetchComplete callback) {
+        fetchCells(delta.getTo(), delta.getEnteringCount(), delta::forEachEntering, priority, token, callback);
+    }
+
+    /**
+     * Reads one ring of a spiral search around {@code centerCellId}.
+     */
+    public void fetchRingComponents(long centerCellId, int ring, OnFetchComplete callback) {
+        CellIdMapper mapper = new CellIdMapper(centerCellId, ring);
+        int count = SpiralCellIterator.countCellsInRing(centerCellId, ring);
+        fetchCells(mapper, count, action -> SpiralCellIterator.forEachCellInRing(centerCellId, ring, action),
+                FetchScheduler.Priority.USER, null, callback);
+    }
+
+    /**
+     * Reads cells ahead of need at {@link FetchScheduler.Priority#BACKGROUND}, only so they land in
+     * the caches behind the data source; the cells themselves are not reported.
+     * @param centerCellId Cells closest to it are read first.
+     * @param cellIds Copied before this returns; only the first {@code count} are read.
+     * @param token Generation of the prefetch; once stale, its queued reads are dropped.
+     * @param onDone Gets the aggregate once every read has finished or been dropped.
+     */
+    public void prefetchCells(long centerCellId, long[] cellIds, int count, FetchGeneration.Token token,
+                              Consumer<FetchStats> onDone) {
+        CellSet cells = action -> {
+            for (int i = 0; i < count; i++) {
+                action.accept(cellIds[i]);
+            }
+        };
+        readCells(new CellIdMapper(centerCellId, 0), count, cells, FetchScheduler.Priority.BACKGROUND, token,
+                new CellSink() {
+                    @Override
+                    public void onCell(long cellId, List<Component> components) {
+                    }
+
+                    @Override
+                    public void onDone(FetchStats stats, Exception firstError) {
+                        onDone.accept(stats);
+                    }
+                });
+    }
+
+    private void fetchCells(CellIdMapper mapper, int count, CellSet cells, FetchScheduler.Priority priority,
+                            FetchGeneration.Token token, OnFetchComplete callback) {
+        // Callbacks may come from several threads; each publishes into its own grid slot
+        GridResultAggregator aggregator = new GridResultAggregator(mapper);
+
+        readCells(mapper, count, cells, priority, token, new CellSink() {
+            @Override
+            public void onCell(long cellId, List<Component> components) {
+                aggregator.put(cellId, components);
+            }
+
+            @Override
+            public void onDone(FetchStats stats, Exception firstError) {
+                if (firstError != null) {
+                    callback.onError(firstError);
+                } else {
+                    callback.onResult(new FetchResult(mapper, aggregator.toMap(), stats.getFailedCellIds(),
+                            stats.getCellsRequested()));
+                }
+            }
+        });
+    }
+
+    // Plans and schedules the reads, reporting each occupied requested cell as it arrives
+    private void readCells(CellIdMapper mapper, int count, CellSet cells, FetchScheduler.Priority priority,
+                           FetchGeneration.Token token, CellSink sink) {
+        long startNanos = System.nanoTime();
+        if (token != null && token.isStale()) {
+            sink.onDone(FetchStats.EMPTY, superseded(token));
+            return;
+        }
+        if (count == 0) {
+            sink.onDone(FetchStats.EMPTY, null);
+            return;
+        }
+
+        long[] cellIds = new long[count];
+        int[] filled = {0};
+        cells.forEach(cellId -> cellIds[filled[0]++] = cellId);
+        if (occupancyFilter == null) {
+            scheduleReads(mapper, cellIds, filled[0], 0, priority, token, sink, startNanos);
+            return;
+        }
+        // Bitmaps first, then reads for the cells that may hold anything
+        occupancyFilter.filter(cellIds, filled[0], (occupied, occupiedCount, skipped) -> {
+            if (token != null && token.isStale()) {
+                sink.onDone(FetchStats.EMPTY, superseded(token));
+            } else if (occupiedCount == 0) {
+                sink.onDone(new FetchStats(skipped, skipped, 0, 0, 0, 0, 0,
+                        System.nanoTime() - startNanos, -1, new long[0]), null);
+            } else {
+                scheduleReads(mapper, occupied, occupiedCount, skipped, priority, token, sink, startNanos);
+            }
+        });
+    }
+
+    private void scheduleReads(CellIdMapper mapper, long[] cellIds, int count, int skipped,
+                               FetchScheduler.Priority priority, FetchGeneration.Token token, CellSink sink,
+                               long startNanos) {
+        FetchPlan plan = planner.plan(cellIds, count);
+        FetchState state = new FetchState(plan, skipped, token, sink, startNanos);
+
+        long center = mapper.getCenterCellId();
+        for (int g = 0; g < plan.getGroupCount(); g++) {
+            int group = g;
+            if (plan.isParentFetch(g)) {
+                // One read for the whole lvl1/lvl2 node, ranked by its cell closest to the center
+                long parentId = plan.getParentId(g);
+                long[] nearest = {Long.MAX_VALUE};
+                plan.forEachCell(g, cellId ->
+                        nearest[0] = Math.min(nearest[0], SpiralCellIterator.distanceSquared(center, cellId)));
+                scheduler.submit(priority, nearest[0], token, cb -> dataSource.readParent(parentId, cb),
+                        state.new Read(group, -1));
+            } else {
+                plan.forEachCell(g, cellId -> scheduler.submit(priority, SpiralCellIterator.distanceSquared(center, cellId),
+                        token, cb -> dataSource.readCell(cellId, cb), state.new Read(group, cellId)));
+            }
+        }
+    }
+
+    // Shared bookkeeping of one fetch; every read reports into it exactly once
+    private static final class FetchState {
+        private final FetchPlan plan;
+        private final int skippedCells;
+        private final FetchGeneration.Token token;
+        private final CellSink sink;
+        private final long startNanos;
+
+        private final AtomicInteger pending;
+        private final AtomicReference<Exception> firstError = new AtomicReference<>();
+        private final AtomicInteger failedReads = new AtomicInteger();
+        private final AtomicInteger cancelledReads = new AtomicInteger();
+        private final AtomicInteger occupiedCells = new AtomicInteger();
+        private final AtomicInteger componentCount = new AtomicInteger();
+        private final AtomicLong firstCellNanos = new AtomicLong(-1);
+
+        // Cells whose read failed for good; failures are rare, so a lock is fine here
+        private long[] failedCells = new long[8];
+        private int failedCellCount;
+
+        FetchState(FetchPlan plan, int skippedCells, FetchGeneration.Token token, CellSink sink, long startNanos) {
+            this.plan = plan;
+            this.skippedCells = skippedCells;
+            this.token = token;
+            this.sink = sink;
+            this.startNanos = startNanos;
+            this.pending = new AtomicInteger(plan.getRequestCount());
+        }
+
+        private synchronized void addFailedCell(long cellId) {
+            if (failedCellCount == failedCells.length) {
+                failedCells = Arrays.copyOf(failedCells, failedCellCount * 2);
+            }
+            failedCells[failedCellCount++] = cellId;
+        }
+
+        private synchronized long[] failedCellIds() {
+            long[] ids = Arrays.copyOf(failedCells, failedCellCount);
+            Arrays.sort(ids);
+            return ids;
+        }
+
+        private void finishRequest() {
+            if (pending.decrementAndGet() != 0) {
+                return;
+            }
+            FetchStats stats = new FetchStats(plan.getCellCount() + skippedCells, skippedCells,
+                    plan.getRequestCount(), failedReads.get(),
+                    cancelledReads.get(), occupiedCells.get(), componentCount.get(),
+                    System.nanoTime() - startNanos, firstCellNanos.get(), failedCellIds());
+            Exception error = null;
+            if (token != null && token.isStale()) {
+                // Latest wins: a superseded fetch never ends with a result
+                error = superseded(token);
+            } else if (failedReads.get() == plan.getRequestCount()) {
+                // Nothing came back; anything less is a partial result listing its failed cells
+                error = firstError.get();
+            }
+            sink.onDone(stats, error);
+        }
+
+        // One scheduled read: a single leaf, or a whole parent group when cellId is -1
+        private final class Read implements CellDataSource.ReadCallback {
+            private final int group;
+            private final long cellId;
+
+            Read(int group, long cellId) {
+                this.group = group;
+                this.cellId = cellId;
+            }
+
+            @Override
+            public void onCell(long cellId, List<Component> components) {
+                if (token != null && token.isStale()) {
+                    return; // Superseded: never reaches the caller
+                }
+                // A parent read returns every occupied leaf; keep the requested ones
+                if (!components.isEmpty() && plan.contains(group, cellId)) {
+                    firstCellNanos.compareAndSet(-1, System.nanoTime() - startNanos);
+                    occupiedCells.incrementAndGet();
+                    componentCount.addAndGet(components.size());
+                    sink.onCell(cellId, components);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                finishRequest();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (e instanceof CancellationException) {
+                    cancelledReads.incrementAndGet();
+                } else {
+                    failedReads.incrementAndGet();
+                    firstError.compareAndSet(null, e);
+                    if (cellId == -1) {
+                        plan.forEachCell(group, FetchState.this::addFailedCell);
+                    } else {
+                        addFailedCell(cellId);
+                    }
+                }
+                finishRequest();
+            }
+        }
+    }
+
+    private static CancellationException superseded(FetchGeneration.Token token) {
+        return new CancellationException("Superseded: " + token);
+    }
+
+    // A set of cell IDs that can be enumerated without materializing it
+    private interface CellSet {
+        void forEach(LongConsumer action);
+    }
+
+    // Receives the occupied cells of one fetch, then exactly one onDone
+    interface CellSink {
+        void onCell(long cellId, List<Component> components);
+        void onDone(FetchStats stats, Exception firstError);
+    }
+
+    public interface OnFetchComplete {
+        void onResult(FetchResult result);
+        void onError(Exception e);
+    }
+}
+
+
+//public class NearbyComponentFetcher {
+//
+//    private final DatabaseReference dbRef;
+//
+//    public NearbyComponentFetcher(DatabaseReference dbRef) {
+//        this.dbRef = dbRef;
+//    }
+//
+//    /**
+//     * Fetches nearby cells and their components (dummy mode for now).
+//     */
+//    public List<CellData> fetchNearbyComponentsDummy(long centerCellId, int range) {
+//        List<Long> nearbyIds = NearbyCellUtils.getNearbyCellIds(centerCellId, range);
+//        List<CellData> cells = new ArrayList<>();
+//        Random random = new Random();
+//
+//        for (Long id : nearbyIds) {
+//            String path = MinMaxPathGenerator.constructDbPath(String.valueOf(id));
+//
+//            CellData cellData = new CellData();
+//            cellData.cellId = id;
+//            cellData.path = path;
+//            cellData.hasComponent = random.nextFloat() < 0.3f; // 30% chance to have a component
+//            cellData.components = new ArrayList<>();
+//
+//            // Dummy component if exists
+//            if (cellData.hasComponent) {
+//                cellData.components.add(new Component("dummyId", "Dummy Store", "0"));
+//            }
+//
+//            cells.add(cellData);
+//        }
+//
+//        return cells;
+//    }
+//
+//    /**
+//     * Fetches nearby cells and their components from Firebase (real mode).
+//     */
+//    public void fetchNearbyComponentsFirebase(long centerCellId, int range, OnFetchComplete callback) {
+//        List<Long> nearbyIds = NearbyCellUtils.getNearbyCellIds(centerCellId, range);
+//        List<CellData> cells = new ArrayList<>();
+//
+//        AtomicInteger pending = new AtomicInteger(nearbyIds.size());
+//
+//        for (Long id : nearbyIds) {
+//            String path = MinMaxPathGenerator.constructDbPath(String.valueOf(id));
+//            DatabaseReference cellRef = dbRef.child("test").child(path).child("s");
+//
+//            CellData cellData = new CellData();
+//            cellData.cellId = id;
+//            cellData.path = path;
+//            cellData.components = new ArrayList<>();
+//
+//            cellRef.get().addOnCompleteListener(task -> {
+//                if (task.isSuccessful() && task.getResult().exists()) {
+//                    cellData.hasComponent = true;
+//                    for (DataSnapshot compSnap : task.getResult().getChildren()) {
+//                        String compId = compSnap.getKey();
+//                        String cn = compSnap.child("cn").getValue(String.class);
+//                        String o = compSnap.child("o").getValue(String.class);
+//                        cellData.components.add(new Component(compId, cn, o));
+//                    }
+//                } else {
+//                    cellData.hasComponent = false;
+//                }
+//
+//                synchronized (cells) {
+//                    cells.add(cellData);
+//                }
+//
+//                if (pending.decrementAndGet() == 0) {
+//                    callback.onResult(cells);
+//                }
+//            }).addOnFailureListener(e -> {
+//                if (pending.decrementAndGet() == 0) {
+//                    callback.onError(e);
+//                }
+//            });
+//        }
+//    }
+//
+//    public interface OnFetchComplete {
+//        void onResult(List<CellData> components);
+//        void onError(Exception e);
+//    }
+//}
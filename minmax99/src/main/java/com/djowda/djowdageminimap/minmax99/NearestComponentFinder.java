@@ -0,0 +1,158 @@
+/*
+ *
+ *  * Created by the Djowda Project Team
+ *  * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *  *
+ *  * This file is part of the Djowda Project.
+ *  *
+ *  * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *  *
+ *  * Permissions:
+ *  * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ *  * - Commercial use of this file, in any form, requires prior written permission
+ *  *   from the Djowda Project maintainers.
+ *  *
+ *  * Notes:
+ *  * - This project is community-driven and continuously evolving.
+ *  * - The Djowda Project reserves the right to relicense future versions.
+ *  *
+ *  * Last Modified: 2025-08-16 18:01
+ *
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Nearest-k component search ("navigate me to the nearest farmer"). Reads cells ring by ring
+ * outward from the center and stops as soon as k matches are known and no unread ring can hold
+ * a closer one, so sparse areas cost a handful of reads instead of a full square.
+ */
+public class NearestComponentFinder {
+
+    /**
+     * Fetches the cells of one ring, e.g. {@code fetcher::fetchRingComponents}. The result's
+     * {@code cellCount} is what the search reports as visited.
+     */
+    public interface RingFetcher {
+        void fetchRing(long centerCellId, int ring, NearbyComponentFetcher.OnFetchComplete callback);
+    }
+
+    public interface OnNearestFound {
+        /**
+         * @param matches Up to k matches, closest first.
+         * @param cellsVisited Number of cells read to answer the query.
+         */
+        void onResult(List<Match> matches, int cellsVisited);
+        void onError(Exception e);
+    }
+
+    public static class Match {
+        public final Component component;
+        public final long cellId;
+        public final double distanceMeters;
+
+        Match(Component component, long cellId, double distanceMeters) {
+            this.component = component;
+            this.cellId = cellId;
+            this.distanceMeters = distanceMeters;
+        }
+    }
+
+    private final RingFetcher ringFetcher;
+
+    public NearestComponentFinder(RingFetcher ringFetcher) {
+        this.ringFetcher = ringFetcher;
+    }
+
+    /**
+     * Finds the {@code k} components closest to {@code centerCellId} that match {@code filter},
+     * looking at most {@code maxRange} rings out.
+     */
+    public void findNearest(long centerCellId, int k, int maxRange, Predicate<Component> filter,
+                            OnNearestFound callback) {
+        if (k <= 0) {
+            callback.onResult(Collections.emptyList(), 0);
+            return;
+        }
+        new Search(centerCellId, k, maxRange, filter, callback).fetchRing(0);
+    }
+
+    private class Search {
+        private final long centerCellId;
+        private final int k;
+        private final int maxRange;
+        private final Predicate<Component> filter;
+        private final OnNearestFound callback;
+
+        // Candidates sorted by squared cell distance, trimmed to k
+        private final List<Match> best = new ArrayList<>();
+        private final List<Long> bestDistances = new ArrayList<>();
+        private int cellsVisited;
+
+        Search(long centerCellId, int k, int maxRange, Predicate<Component> filter, OnNearestFound callback) {
+            this.centerCellId = centerCellId;
+            this.k = k;
+            this.maxRange = maxRange;
+            this.filter = filter;
+            this.callback = callback;
+        }
+
+        void fetchRing(int ring) {
+            ringFetcher.fetchRing(centerCellId, ring, new NearbyComponentFetcher.OnFetchComplete() {
+                @Override
+                public void onResult(NearbyComponentFetcher.FetchResult result) {
+                    cellsVisited += result.cellCount;
+                    for (Map.Entry<Long, List<Component>> entry : result.cellComponents.entrySet()) {
+                        long cellId = entry.getKey();
+                        long distanceSquared = SpiralCellIterator.distanceSquared(centerCellId, cellId);
+                        for (Component component : entry.getValue()) {
+                            if (filter == null || filter.test(component)) {
+                                offer(component, cellId, distanceSquared);
+                            }
+                        }
+                    }
+
+                    // Every cell of the next ring is at least (ring + 1) cells away
+                    long nextRingMin = (long) (ring + 1) * (ring + 1);
+                    boolean settled = best.size() >= k && bestDistances.get(k - 1) <= nextRingMin;
+                    if (settled || ring >= maxRange) {
+                        callback.onResult(new ArrayList<>(best), cellsVisited);
+                    } else {
+                        fetchRing(ring + 1);
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    callback.onError(e);
+                }
+            });
+        }
+
+        private void offer(Component component, long cellId, long distanceSquared) {
+            int index = 0;
+            while (index < bestDistances.size() && bestDistances.get(index) <= distanceSquared) {
+                index++;
+            }
+            if (index >= k) {
+                return;
+            }
+            double meters = Math.sqrt(distanceSquared) * GeoToCellNumber.CELL_SIZE_METERS;
+            best.add(index, new Match(component, cellId, meters));
+            bestDistances.add(index, distanceSquared);
+            if (best.size() > k) {
+                best.remove(k);
+                bestDistances.remove(k);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.function.LongConsumer;
+
+/**
+ * Which leaves of one lvl1/lvl2 block hold any components: one bit per leaf, 1000 bits in
+ * 16 longs. Stored in the database as a 172-character Base64 string under the block, beside
+ * its lvl3 children. Not thread-safe; share copies.
+ */
+public final class OccupancyBitmap {
+
+    private static final int WORDS = (FetchPlanner.LEAVES_PER_PARENT + 63) / 64;
+
+    private final long[] words;
+
+    public OccupancyBitmap() {
+        this(new long[WORDS]);
+    }
+
+    private OccupancyBitmap(long[] words) {
+        this.words = words;
+    }
+
+    public boolean isOccupied(int leaf) {
+        checkLeaf(leaf);
+        return (words[leaf >>> 6] & (1L << leaf)) != 0;
+    }
+
+    public void setOccupied(int leaf, boolean occupied) {
+        checkLeaf(leaf);
+        if (occupied) {
+            words[leaf >>> 6] |= 1L << leaf;
+        } else {
+            words[leaf >>> 6] &= ~(1L << leaf);
+        }
+    }
+
+    /** Whether the leaf cell {@code cellId}, which must belong to this block, is occupied. */
+    public boolean isCellOccupied(long cellId) {
+        return isOccupied((int) (cellId % FetchPlanner.LEAVES_PER_PARENT));
+    }
+
+    public int getOccupiedCount() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /** Visits the occupied cell IDs of block {@code parentId} in ascending order. */
+    public void forEachOccupiedCell(long parentId, LongConsumer action) {
+        long first = parentId * FetchPlanner.LEAVES_PER_PARENT;
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept(first + (w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    public OccupancyBitmap copy() {
+        return new OccupancyBitmap(words.clone());
+    }
+
+    public String toBase64() {
+        ByteBuffer buffer = ByteBuffer.allocate(WORDS * Long.BYTES);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    /**
+     * @throws IllegalArgumentException If {@code encoded} is not a bitmap written by {@link #toBase64()}.
+     */
+    public static OccupancyBitmap fromBase64(String encoded) {
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        if (bytes.length != WORDS * Long.BYTES) {
+            throw new IllegalArgumentException("Occupancy bitmap of " + bytes.length + " bytes, expected " + WORDS * Long.BYTES);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] words = new long[WORDS];
+        for (int w = 0; w < WORDS; w++) {
+            words[w] = buffer.getLong();
+        }
+        return new OccupancyBitmap(words);
+    }
+
+    private static void checkLeaf(int leaf) {
+        if (leaf < 0 || leaf >= FetchPlanner.LEAVES_PER_PARENT) {
+            throw new IndexOutOfBoundsException("Leaf " + leaf + " outside 0.." + (FetchPlanner.LEAVES_PER_PARENT - 1));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Drops cells an {@link OccupancyIndex} knows to be empty before a fetch plans its reads. Each
+ * block's bitmap is read once, shared by concurrent fetches, and reused until it is
+ * {@code ttlMillis} old. Cells of blocks without an index, or whose bitmap read failed, are
+ * kept.
+ */
+public class OccupancyFilter {
+
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    // Cached for blocks that have no index, so they are not asked again until the TTL runs out
+    private static final OccupancyBitmap NO_INDEX = new OccupancyBitmap();
+
+    private final OccupancyIndex index;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<Long, Entry> bitmaps = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CompletableFuture<OccupancyBitmap>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong indexReads = new AtomicLong();
+    private final AtomicLong cellsSkipped = new AtomicLong();
+
+    public OccupancyFilter(OccupancyIndex index) {
+        this(index, DEFAULT_TTL_MILLIS, System::currentTimeMillis);
+    }
+
+    public OccupancyFilter(OccupancyIndex index, long ttlMillis, LongSupplier clock) {
+        this.index = index;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Receives the cells left to read, compacted to the front of the array passed in.
+     */
+    public interface Result {
+        void onFiltered(long[] cellIds, int count, int skipped);
+    }
+
+    /**
+     * Filters {@code cellIds[0, count)} in place, once every block involved has its bitmap.
+     */
+    public void filter(long[] cellIds, int count, Result result) {
+        Set<Long> parents = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            parents.add(MinMaxPathGenerator.parentOf(cellIds[i]));
+        }
+        CompletableFuture<?>[] reads = new CompletableFuture<?>[parents.size()];
+        int r = 0;
+        for (long parentId : parents) {
+            reads[r++] = bitmapOf(parentId);
+        }
+        CompletableFuture.allOf(reads).whenComplete((ignored, error) -> {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                Entry entry = bitmaps.get(MinMaxPathGenerator.parentOf(cellIds[i]));
+                if (entry == null || entry.bitmap == NO_INDEX || entry.bitmap.isCellOccupied(cellIds[i])) {
+                    cellIds[kept++] = cellIds[i];
+                }
+            }
+            cellsSkipped.addAndGet(count - kept);
+            result.onFiltered(cellIds, kept, count - kept);
+        });
+    }
+
+    /**
+     * Records that a cell now holds components, e.g. from a live listener, so it is no longer
+     * skipped before its block's bitmap is read again.
+     */
+    public void markOccupied(long cellId) {
+        // Copy on write: filters running now keep reading the bitmap they found
+        bitmaps.computeIfPresent(MinMaxPathGenerator.parentOf(cellId), (parentId, entry) -> {
+            if (entry.bitmap == NO_INDEX || entry.bitmap.isCellOccupied(cellId)) {
+                return entry;
+            }
+            OccupancyBitmap updated = entry.bitmap.copy();
+            updated.setOccupied((int) (cellId % FetchPlanner.LEAVES_PER_PARENT), true);
+            return new Entry(updated, entry.fetchedAtMillis);
+        });
+    }
+
+    /** Bitmaps read from the index. */
+    public long getIndexReadCount() {
+        return indexReads.get();
+    }
+
+    /** Cells never read because their bitmap said they were empty. */
+    public long getCellsSkippedCount() {
+        return cellsSkipped.get();
+    }
+
+    // Completes with the block's bitmap once it is cached (or known to be unavailable)
+    private CompletableFuture<OccupancyBitmap> bitmapOf(long parentId) {
+        Entry entry = bitmaps.get(parentId);
+        if (entry != null && clock.getAsLong() - entry.fetchedAtMillis < ttlMillis) {
+            return CompletableFuture.completedFuture(entry.bitmap);
+        }
+        CompletableFuture<OccupancyBitmap> created = new CompletableFuture<>();
+        CompletableFuture<OccupancyBitmap> existing = inFlight.putIfAbsent(parentId, created);
+        if (existing != null) {
+            return existing;
+        }
+        indexReads.incrementAndGet();
+        index.readOccupancy(parentId, new OccupancyIndex.Callback() {
+            @Override
+            public void onOccupancy(long id, OccupancyBitmap bitmap) {
+                OccupancyBitmap known = bitmap != null ? bitmap.copy() : NO_INDEX;
+                bitmaps.put(parentId, new Entry(known, clock.getAsLong()));
+                inFlight.remove(parentId);
+                created.complete(known);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                // Keep whatever older bitmap there is; without one, every cell of the block is read
+                inFlight.remove(parentId);
+                created.complete(null);
+            }
+        });
+        return created;
+    }
+
+    private static final class Entry {
+        final OccupancyBitmap bitmap;
+        final long fetchedAtMillis;
+
+        Entry(OccupancyBitmap bitmap, long fetchedAtMillis) {
+            this.bitmap = bitmap;
+            this.fetchedAtMillis = fetchedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+/**
+ * Backend holding an {@link OccupancyBitmap} per {@code lvl1/lvl2} block, kept up to date by
+ * whoever writes components. Reads are asynchronous; callbacks may arrive on any thread.
+ */
+public interface OccupancyIndex {
+
+    /**
+     * Reads the bitmap of one block. A block without an index yet answers null, and all its
+     * cells must then be read.
+     */
+    void readOccupancy(long parentId, Callback callback);
+
+    interface Callback {
+        void onOccupancy(long parentId, OccupancyBitmap bitmap);
+        void onError(Exception e);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded background executor for turning backend snapshots into components, so parsing
+ * stays off the thread the SDK delivers callbacks on. When its queue is full, tasks wait
+ * for a single overflow thread instead; they are never dropped and never run on the
+ * submitting thread, which may be the main thread.
+ */
+public final class ParseStage implements Executor {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor overflow;
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public ParseStage(int threads, int queueCapacity) {
+        overflow = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("cell-parse-overflow-"));
+        overflow.allowCoreThreadTimeOut(true);
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("cell-parse-"),
+                (task, saturated) -> {
+                    overflowed.incrementAndGet();
+                    overflow.execute(task);
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** The shared stage: two threads, since parsing is short and the device small. */
+    public static ParseStage shared() {
+        return Shared.INSTANCE;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /** Tasks waiting for a parse thread. */
+    public int getQueuedCount() {
+        return executor.getQueue().size() + overflow.getQueue().size();
+    }
+
+    /** Tasks handed to the overflow thread because the queue was full. */
+    public long getOverflowCount() {
+        return overflowed.get();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Shared {
+        static final ParseStage INSTANCE = new ParseStage(2, DEFAULT_QUEUE_CAPACITY);
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CellDataSource} decorator for transient failures and tail latency.
+ *
+ * <ul>
+ *   <li>A failed read is retried with exponential backoff and full jitter, up to
+ *   {@link Policy#maxAttempts} attempts.</li>
+ *   <li>Retries and hedges draw on a retry budget: every first attempt deposits
+ *   {@link Policy#budgetRatio} of a token, every extra attempt withdraws one, so during an
+ *   outage extra load stays a fixed share of normal load instead of multiplying it.</li>
+ *   <li>With hedging on, a read still running after the current p95 latency gets a duplicate;
+ *   whichever answers first wins, and only its cells are forwarded.</li>
+ * </ul>
+ */
+public class RetryingCellDataSource implements CellDataSource {
+
+    private final CellDataSource delegate;
+    private final Policy policy;
+    private final ScheduledExecutorService scheduler;
+    private final RetryBudget budget;
+    private final LatencyWindow latencies = new LatencyWindow(256);
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong budgetDenials = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public RetryingCellDataSource(CellDataSource delegate) {
+        this(delegate, Policy.DEFAULT);
+    }
+
+    public RetryingCellDataSource(CellDataSource delegate, Policy policy) {
+        this(delegate, policy, SharedScheduler.INSTANCE);
+    }
+
+    public RetryingCellDataSource(CellDataSource delegate, Policy policy, ScheduledExecutorService scheduler) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.scheduler = scheduler;
+        this.budget = new RetryBudget(policy.budgetRatio, policy.budgetReserve);
+    }
+
+    @Override
+    public void readCell(long cellId, ReadCallback callback) {
+        new Call(false, cellId, callback).start();
+    }
+
+    @Override
+    public void readParent(long parentId, ReadCallback callback) {
+        new Call(true, parentId, callback).start();
+    }
+
+    /** Logical reads requested by callers. */
+    public long getReadCount() { return reads.get(); }
+    /** Extra attempts after a failure. */
+    public long getRetryCount() { return retries.get(); }
+    /** Duplicate attempts started because a read outlived the p95. */
+    public long getHedgeCount() { return hedges.get(); }
+    /** Reads answered first by their hedge. */
+    public long getHedgeWinCount() { return hedgeWins.get(); }
+    /** Retries or hedges skipped because the budget was empty. */
+    public long getBudgetDenialCount() { return budgetDenials.get(); }
+    /** Reads that failed for good. */
+    public long getFailureCount() { return failures.get(); }
+
+    /**
+     * Current hedging threshold, or -1 while too few reads have completed to know it.
+     */
+    public long getHedgeDelay(TimeUnit unit) {
+        long p95 = latencies.p95Nanos(policy.hedgeMinSamples);
+        return p95 < 0 ? -1 : unit.convert(p95, TimeUnit.NANOSECONDS);
+    }
+
+    // One logical read: its attempts, hedges and the single outcome reported to the caller
+    private final class Call {
+        private final boolean parent;
+        private final long id;
+        private final ReadCallback callback;
+
+        // Guarded by this
+        private int attempt;
+        private int running;
+        private boolean hedged;
+        private boolean settled;
+        private ScheduledFuture<?> hedgeTimer;
+
+        Call(boolean parent, long id, ReadCallback callback) {
+            this.parent = parent;
+            this.id = id;
+            this.callback = callback;
+        }
+
+        void start() {
+            reads.incrementAndGet();
+            budget.deposit();
+            synchronized (this) {
+                attempt = 1;
+            }
+            launch(false);
+        }
+
+        private void launch(boolean isHedge) {
+            long startNanos = System.nanoTime();
+            synchronized (this) {
+                if (settled) {
+                    return;
+                }
+                running++;
+                if (!isHedge && policy.hedging) {
+                    long delay = latencies.p95Nanos(policy.hedgeMinSamples);
+                    if (delay >= 0) {
+                        hedgeTimer = scheduler.schedule(this::hedge, delay, TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+            Attempt attemptCallback = new Attempt(isHedge, startNanos);
+            try {
+                if (parent) {
+                    delegate.readParent(id, attemptCallback);
+                } else {
+                    delegate.readCell(id, attemptCallback);
+                }
+            } catch (RuntimeException e) {
+                attemptCallback.onError(e);
+            }
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (settled || hedged || running == 0) {
+                    return;
+                }
+                hedged = true;
+            }
+            if (!budget.tryWithdraw()) {
+                budgetDenials.incrementAndGet();
+                return;
+            }
+            hedges.incrementAndGet();
+            launch(true);
+        }
+
+        void succeeded(Attempt winner) {
+            synchronized (this) {
+                if (settled) {
+                    return;
+                }
+                settled = true;
+                cancelHedgeTimer();
+            }
+            latencies.record(System.nanoTime() - winner.startNanos);
+            if (winner.isHedge) {
+                hedgeWins.incrementAndGet();
+            }
+            for (int i = 0; i < winner.cellIds.size(); i++) {
+                callback.onCell(winner.cellIds.get(i), winner.components.get(i));
+            }
+            callback.onComplete();
+        }
+
+        void failed(Exception e) {
+            int failedAttempt;
+            synchronized (this) {
+                if (settled) {
+                    return;
+                }
+                if (--running > 0) {
+                    return; // The other attempt may still answer
+                }
+                cancelHedgeTimer();
+                failedAttempt = attempt;
+                boolean retryable = !(e instanceof CancellationException) && attempt < policy.maxAttempts;
+                if (retryable && budget.tryWithdraw()) {
+                    attempt++;
+                    hedged = false;
+                } else {
+                    if (retryable) {
+                        budgetDenials.incrementAndGet();
+                    }
+                    settled = true;
+                    failedAttempt = -1;
+                }
+            }
+            if (failedAttempt < 0) {
+                failures.incrementAndGet();
+                callback.onError(e);
+                return;
+            }
+            retries.incrementAndGet();
+            scheduler.schedule(() -> launch(false), policy.backoffNanos(failedAttempt), TimeUnit.NANOSECONDS);
+        }
+
+        private void cancelHedgeTimer() {
+            if (hedgeTimer != null) {
+                hedgeTimer.cancel(false);
+                hedgeTimer = null;
+            }
+        }
+
+        // Buffers its cells so that only the winning attempt's cells reach the caller
+        private final class Attempt implements ReadCallback {
+            final boolean isHedge;
+            final long startNanos;
+            final List<Long> cellIds = new ArrayList<>();
+            final List<List<Component>> components = new ArrayList<>();
+
+            Attempt(boolean isHedge, long startNanos) {
+                this.isHedge = isHedge;
+                this.startNanos = startNanos;
+            }
+
+            @Override
+            public void onCell(long cellId, List<Component> cellComponents) {
+                cellIds.add(cellId);
+                components.add(cellComponents);
+            }
+
+            @Override
+            public void onComplete() {
+                succeeded(this);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                failed(e);
+            }
+        }
+    }
+
+    /**
+     * Retry, budget and hedging settings.
+     */
+    public static final class Policy {
+
+        // 3 attempts, 100 ms doubling to 2 s, retries capped at 20% of reads beyond a reserve of 10
+        public static final Policy DEFAULT = new Policy(3, 100, 2_000, 0.2, 10, true, 20);
+
+        final int maxAttempts;
+        final long initialBackoffMillis;
+        final long maxBackoffMillis;
+        final double budgetRatio;
+        final int budgetReserve;
+        final boolean hedging;
+        final int hedgeMinSamples;
+
+        /**
+         * @param maxAttempts Attempts per read, including the first.
+         * @param initialBackoffMillis Upper bound of the first retry delay; doubles per retry.
+         * @param maxBackoffMillis Cap of the retry delay bound.
+         * @param budgetRatio Extra attempts allowed per first attempt, e.g. 0.2.
+         * @param budgetReserve Extra attempts available before any deposit, also the budget cap.
+         * @param hedging Whether to duplicate reads that outlive the p95.
+         * @param hedgeMinSamples Completed reads needed before the p95 is trusted.
+         */
+        public Policy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, double budgetRatio,
+                      int budgetReserve, boolean hedging, int hedgeMinSamples) {
+            if (maxAttempts < 1 || initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis
+                    || budgetRatio < 0 || budgetReserve < 0 || hedgeMinSamples < 1) {
+                throw new IllegalArgumentException("Invalid retry policy");
+            }
+            this.maxAttempts = maxAttempts;
+            this.initialBackoffMillis = initialBackoffMillis;
+            this.maxBackoffMillis = maxBackoffMillis;
+            this.budgetRatio = budgetRatio;
+            this.budgetReserve = budgetReserve;
+            this.hedging = hedging;
+            this.hedgeMinSamples = hedgeMinSamples;
+        }
+
+        // Full jitter: uniform in [0, min(max, initial * 2^(attempt - 1))]
+        long backoffNanos(int failedAttempt) {
+            long bound = initialBackoffMillis << Math.min(failedAttempt - 1, 30);
+            bound = Math.min(bound, maxBackoffMillis);
+            if (bound <= 0) {
+                return 0;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(bound + 1));
+        }
+    }
+
+    // Token bucket in thousandths of a token
+    private static final class RetryBudget {
+        private final long deposit;
+        private final long cap;
+        private final AtomicLong balance;
+
+        RetryBudget(double ratio, int reserve) {
+            this.deposit = Math.round(ratio * 1000);
+            this.cap = Math.max(reserve, 1) * 1000L;
+            this.balance = new AtomicLong(reserve * 1000L);
+        }
+
+        void deposit() {
+            long current;
+            do {
+                current = balance.get();
+                if (current >= cap) {
+                    return;
+                }
+            } while (!balance.compareAndSet(current, Math.min(cap, current + deposit)));
+        }
+
+        boolean tryWithdraw() {
+            long current;
+            do {
+                current = balance.get();
+                if (current < 1000) {
+                    return false;
+                }
+            } while (!balance.compareAndSet(current, current - 1000));
+            return true;
+        }
+    }
+
+    // Latencies of the last completed reads; the p95 is refreshed every few samples
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private long count;
+        private volatile long p95 = -1;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void record(long nanos) {
+            samples[(int) (count++ % samples.length)] = nanos;
+            if (count % 16 == 0 || count < samples.length) {
+                int n = (int) Math.min(count, samples.length);
+                long[] sorted = Arrays.copyOf(samples, n);
+                Arrays.sort(sorted);
+                p95 = sorted[(int) Math.min(n - 1, Math.ceil(n * 0.95) - 1)];
+            }
+        }
+
+        long p95Nanos(int minSamples) {
+            synchronized (this) {
+                if (count < minSamples) {
+                    return -1;
+                }
+            }
+            return p95;
+        }
+    }
+
+    // Daemon threads so pending backoffs never keep the process alive
+    private static final class SharedScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newScheduledThreadPool(1, runnable -> {
+            Thread thread = new Thread(runnable, "cell-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
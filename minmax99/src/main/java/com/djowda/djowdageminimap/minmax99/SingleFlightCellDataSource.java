@@ -0,0 +1,155 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CellDataSource} decorator that coalesces concurrent reads of the same node: while a
+ * read of a cell (or parent) is in flight, further reads of it join that read instead of
+ * issuing their own, and every caller receives the same outcome. Once the read finishes, the
+ * next caller starts a fresh one, so nothing is cached.
+ */
+public class SingleFlightCellDataSource implements CellDataSource {
+
+    private final CellDataSource delegate;
+    private final ConcurrentHashMap<Long, Flight> cellFlights = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Flight> parentFlights = new ConcurrentHashMap<>();
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong issued = new AtomicLong();
+
+    public SingleFlightCellDataSource(CellDataSource delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void readCell(long cellId, ReadCallback callback) {
+        read(cellFlights, cellId, callback, false);
+    }
+
+    @Override
+    public void readParent(long parentId, ReadCallback callback) {
+        read(parentFlights, parentId, callback, true);
+    }
+
+    /** Reads asked for by callers. */
+    public long getRequestedCount() { return requested.get(); }
+    /** Reads actually sent to the delegate. */
+    public long getIssuedCount() { return issued.get(); }
+    /** Reads answered by joining one already in flight. */
+    public long getSavedCount() { return requested.get() - issued.get(); }
+
+    /** Reads currently in flight, cells and parents together. */
+    public int getInFlightCount() {
+        return cellFlights.size() + parentFlights.size();
+    }
+
+    private void read(ConcurrentHashMap<Long, Flight> flights, long id, ReadCallback callback, boolean parent) {
+        requested.incrementAndGet();
+        Flight[] created = {null};
+        // Joining happens under the map's bin lock, so it cannot race the leader's removal
+        flights.compute(id, (key, flight) -> {
+            if (flight == null) {
+                flight = new Flight(flights, id);
+                created[0] = flight;
+            }
+            flight.waiters.add(callback);
+            return flight;
+        });
+        if (created[0] == null) {
+            return;
+        }
+        issued.incrementAndGet();
+        try {
+            if (parent) {
+                delegate.readParent(id, created[0]);
+            } else {
+                delegate.readCell(id, created[0]);
+            }
+        } catch (RuntimeException e) {
+            created[0].onError(e);
+        }
+    }
+
+    // One read shared by every caller that joined it before it finished
+    private static final class Flight implements ReadCallback {
+        private final ConcurrentHashMap<Long, Flight> flights;
+        private final long id;
+        final List<ReadCallback> waiters = new ArrayList<>(2); // Mutated under the map's bin lock
+        private final List<Long> cellIds = new ArrayList<>();
+        private final List<List<Component>> components = new ArrayList<>();
+
+        Flight(ConcurrentHashMap<Long, Flight> flights, long id) {
+            this.flights = flights;
+            this.id = id;
+        }
+
+        @Override
+        public synchronized void onCell(long cellId, List<Component> cellComponents) {
+            // Buffered: callers that join later must see the same cells
+            cellIds.add(cellId);
+            components.add(cellComponents);
+        }
+
+        @Override
+        public void onComplete() {
+            List<ReadCallback> joined = finish();
+            List<Long> ids;
+            List<List<Component>> values;
+            synchronized (this) {
+                ids = cellIds;
+                values = components;
+            }
+            for (ReadCallback waiter : joined) {
+                for (int i = 0; i < ids.size(); i++) {
+                    waiter.onCell(ids.get(i), values.get(i));
+                }
+                waiter.onComplete();
+            }
+        }
+
+        @Override
+        public void onError(Exception e) {
+            for (ReadCallback waiter : finish()) {
+                waiter.onError(e);
+            }
+        }
+
+        // Closes the flight to new joiners and returns everyone who joined; empty if already closed
+        private List<ReadCallback> finish() {
+            List<ReadCallback> joined = new ArrayList<>();
+            flights.computeIfPresent(id, (key, flight) -> {
+                if (flight != this) {
+                    return flight;
+                }
+                joined.addAll(waiters);
+                return null;
+            });
+            return joined;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Walks cells outward from a center, one square ring at a time: the center, then the 8 cells at
+ * ring 1, the 16 cells at ring 2, and so on. Every cell of ring k is at least k cells away from the
+ * center, so a search can stop as soon as its k-th best match is closer than the next ring.
+ * Cells outside the map are skipped.
+ */
+public final class SpiralCellIterator implements PrimitiveIterator.OfLong {
+
+    private static final int TOTAL_COLUMNS = 82000;
+    private static final int TOTAL_ROWS = 42000;
+
+    private final int centerCol;
+    private final int centerRow;
+    private final int maxRange;
+
+    private int ring;
+    private int index;      // next index within the current ring
+    private long next;      // next cell to return, valid when hasNext
+    private boolean hasNext;
+    private int lastRing = -1;
+
+    /**
+     * @param centerCellId Center cell ID.
+     * @param maxRange Last ring to visit (0 = only the center).
+     */
+    public SpiralCellIterator(long centerCellId, int maxRange) {
+        this.centerCol = NearbyCellUtils.columnOf(centerCellId);
+        this.centerRow = NearbyCellUtils.rowOf(centerCellId);
+        this.maxRange = maxRange;
+        advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public long nextLong() {
+        if (!hasNext) {
+            throw new NoSuchElementException();
+        }
+        long cellId = next;
+        lastRing = ring;
+        index++;
+        advance();
+        return cellId;
+    }
+
+    /**
+     * Ring of the cell last returned by {@link #nextLong()}, or -1 before the first call.
+     */
+    public int lastRing() {
+        return lastRing;
+    }
+
+    /**
+     * Visits the cells of one ring in spiral order.
+     * @return Number of cells visited.
+     */
+    public static int forEachCellInRing(long centerCellId, int ring, LongConsumer action) {
+        int col = NearbyCellUtils.columnOf(centerCellId);
+        int row = NearbyCellUtils.rowOf(centerCellId);
+        int visited = 0;
+        for (int i = 0, size = ringSize(ring); i < size; i++) {
+            long cellId = cellAt(col, row, ring, i);
+            if (cellId != -1) {
+                action.accept(cellId);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Number of cells of a ring that lie on the map, without visiting them.
+     */
+    public static int countCellsInRing(long centerCellId, int ring) {
+        int inside = ring == 0 ? 0 : NearbyCellUtils.countNearbyCells(centerCellId, ring - 1);
+        return NearbyCellUtils.countNearbyCells(centerCellId, ring) - inside;
+    }
+
+    /**
+     * Number of positions in a ring, including any that fall outside the map.
+     */
+    public static int ringSize(int ring) {
+        return ring == 0 ? 1 : 8 * ring;
+    }
+
+    /**
+     * Ring (Chebyshev distance in cells) of {@code cellId} around {@code centerCellId}.
+     */
+    public static int ringOf(long centerCellId, long cellId) {
+        return Math.max(Math.abs(NearbyCellUtils.columnOf(cellId) - NearbyCellUtils.columnOf(centerCellId)),
+                Math.abs(NearbyCellUtils.rowOf(cellId) - NearbyCellUtils.rowOf(centerCellId)));
+    }
+
+    /**
+     * Squared Euclidean distance in cells between two cell centers.
+     */
+    public static long distanceSquared(long centerCellId, long cellId) {
+        long dc = NearbyCellUtils.columnOf(cellId) - NearbyCellUtils.columnOf(centerCellId);
+        long dr = NearbyCellUtils.rowOf(cellId) - NearbyCellUtils.rowOf(centerCellId);
+        return dc * dc + dr * dr;
+    }
+
+    private void advance() {
+        while (ring <= maxRange) {
+            int size = ringSize(ring);
+            while (index < size) {
+                long cellId = cellAt(centerCol, centerRow, ring, index);
+                if (cellId != -1) {
+                    next = cellId;
+                    hasNext = true;
+                    return;
+                }
+                index++;
+            }
+            ring++;
+            index = 0;
+        }
+        hasNext = false;
+    }
+
+    // Position i of ring k, clockwise from the top-left corner: top edge, right edge,
+    // bottom edge, left edge. Returns -1 outside the map.
+    private static long cellAt(int col, int row, int k, int i) {
+        int c;
+        int r;
+        if (k == 0) {
+            c = col;
+            r = row;
+        } else {
+            int side = 2 * k;
+            int edge = i / side;
+            int offset = i % side;
+            switch (edge) {
+                case 0: c = col - k + offset; r = row - k; break;
+                case 1: c = col + k; r = row - k + offset; break;
+                case 2: c = col + k - offset; r = row + k; break;
+                default: c = col - k; r = row + k - offset; break;
+            }
+        }
+        if (c < 0 || c >= TOTAL_COLUMNS || r < 0 || r >= TOTAL_ROWS) {
+            return -1;
+        }
+        return (long) c * TOTAL_ROWS + r + 1;
+    }
+}
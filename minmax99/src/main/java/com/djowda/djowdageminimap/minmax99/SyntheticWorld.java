@@ -0,0 +1,255 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Seeded synthetic map for load tests and benchmarks: the components of a cell are a pure
+ * function of the seed and the cell ID, so every visit, process and device sees the same world
+ * and nothing has to be stored. Plugs into {@link InMemoryCellDataSource#withSyntheticWorld}.
+ *
+ * <p>Density follows a smooth noise field over the map, sampled on a lattice
+ * {@code clusterSpan} cells apart: where the field peaks, cells are urban, occupied with
+ * {@code urbanOccupancy} and holding up to {@code maxComponentsPerCell} components; elsewhere
+ * they are rural, occupied with {@code ruralOccupancy} and holding one. A component's type is
+ * drawn from a {@link TypeMix} and written as the start of its name, e.g. {@code "Farmer 417"},
+ * since the database schema has no type field; see {@link ComponentType#fromName}.
+ */
+public final class SyntheticWorld implements LongFunction<List<Component>> {
+
+    public static final long DEFAULT_SEED = 99;
+
+    // Raising the field to this power keeps urban peaks rare and sharp
+    private static final int URBAN_SHARPNESS = 3;
+    private static final double OPEN_SHARE = 0.7;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Relative weights of the component types; weights need not sum to one.
+     */
+    public static final class TypeMix {
+
+        // Proportions of the map's statistics panel
+        public static final TypeMix DEFAULT = new TypeMix(5000, 1000, 2000, 500, 1500, 300, 700, 2500, 400);
+
+        private final double[] cumulative = new double[ComponentType.values().length];
+
+        /**
+         * @param weights One non-negative weight per {@link ComponentType}, in declaration order.
+         */
+        public TypeMix(double... weights) {
+            if (weights.length != cumulative.length) {
+                throw new IllegalArgumentException("Expected " + cumulative.length + " weights: " + weights.length);
+            }
+            double total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                if (!(weights[i] >= 0)) {
+                    throw new IllegalArgumentException("Negative weight for " + ComponentType.values()[i]);
+                }
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            if (!(total > 0)) {
+                throw new IllegalArgumentException("All weights are zero");
+            }
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= total;
+            }
+        }
+
+        public static TypeMix only(ComponentType type) {
+            double[] weights = new double[ComponentType.values().length];
+            weights[type.ordinal()] = 1;
+            return new TypeMix(weights);
+        }
+
+        /** Share of components of {@code type}. */
+        public double share(ComponentType type) {
+            int i = type.ordinal();
+            return cumulative[i] - (i == 0 ? 0 : cumulative[i - 1]);
+        }
+
+        // unit is uniform in [0, 1)
+        ComponentType pick(double unit) {
+            for (int i = 0; i < cumulative.length - 1; i++) {
+                if (unit < cumulative[i]) {
+                    return ComponentType.values()[i];
+                }
+            }
+            return ComponentType.values()[cumulative.length - 1];
+        }
+    }
+
+    private final long seed;
+    private final float ruralOccupancy;
+    private final float urbanOccupancy;
+    private final int clusterSpan;
+    private final int maxComponentsPerCell;
+    private final TypeMix typeMix;
+
+    /**
+     * @param clusterSpan Cells between noise lattice points, roughly the size of a town.
+     */
+    public SyntheticWorld(long seed, float ruralOccupancy, float urbanOccupancy, int clusterSpan,
+                          int maxComponentsPerCell, TypeMix typeMix) {
+        if (!(ruralOccupancy >= 0 && ruralOccupancy <= 1 && urbanOccupancy >= 0 && urbanOccupancy <= 1)
+                || clusterSpan <= 0 || maxComponentsPerCell <= 0) {
+            throw new IllegalArgumentException("Invalid world: occupancy=" + ruralOccupancy + ".." + urbanOccupancy
+                    + ", clusterSpan=" + clusterSpan + ", maxComponentsPerCell=" + maxComponentsPerCell);
+        }
+        this.seed = seed;
+        this.ruralOccupancy = ruralOccupancy;
+        this.urbanOccupancy = urbanOccupancy;
+        this.clusterSpan = clusterSpan;
+        this.maxComponentsPerCell = maxComponentsPerCell;
+        this.typeMix = typeMix;
+    }
+
+    /**
+     * Like the old dummy mode, but stable: each cell holds one store with probability {@code occupancy}.
+     */
+    public static SyntheticWorld uniform(long seed, float occupancy) {
+        return new SyntheticWorld(seed, occupancy, occupancy, 1, 1, TypeMix.only(ComponentType.STORE));
+    }
+
+    /**
+     * Towns about 64 cells apart, up to 12 components per urban cell, over a countryside where
+     * one cell in fifty holds anything.
+     */
+    public static SyntheticWorld clustered(long seed) {
+        return new SyntheticWorld(seed, 0.02f, 0.9f, 64, 12, TypeMix.DEFAULT);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * How urban the cell is, in [0, 1]: 0 is countryside, 1 the heart of a town.
+     */
+    public double urbanity(long cellId) {
+        if (ruralOccupancy == urbanOccupancy && maxComponentsPerCell == 1) {
+            return 0; // Flat world, no need for the field
+        }
+        double field = noise(NearbyCellUtils.columnOf(cellId), NearbyCellUtils.rowOf(cellId));
+        double urbanity = field;
+        for (int i = 1; i < URBAN_SHARPNESS; i++) {
+            urbanity *= field;
+        }
+        return urbanity;
+    }
+
+    /** Probability that the cell holds anything. */
+    public double occupancy(long cellId) {
+        return ruralOccupancy + (urbanOccupancy - ruralOccupancy) * urbanity(cellId);
+    }
+
+    public boolean isOccupied(long cellId) {
+        return unit(cellHash(cellId)) < occupancy(cellId);
+    }
+
+    /**
+     * The cell's components; an empty, immutable list if it holds none.
+     */
+    public List<Component> generate(long cellId) {
+        long hash = cellHash(cellId);
+        double urbanity = urbanity(cellId);
+        double occupancy = ruralOccupancy + (urbanOccupancy - ruralOccupancy) * urbanity;
+        if (unit(hash) >= occupancy) {
+            return Collections.emptyList();
+        }
+        int count = componentCount(urbanity, unit(draw(hash, 1)));
+        List<Component> components = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long h = draw(hash, 2 + i);
+            ComponentType type = typeMix.pick(unit(h));
+            boolean isOpen = unit(mix(h)) < OPEN_SHARE;
+            String name = type.getLabel() + " " + (cellId % 1000) + (i == 0 ? "" : "-" + (i + 1));
+            components.add(new Component("syn" + cellId + "_" + i, name, isOpen, cellId));
+        }
+        return components;
+    }
+
+    @Override
+    public List<Component> apply(long cellId) {
+        return generate(cellId);
+    }
+
+    // Geometric count with mean 1 + (max - 1) * urbanity, capped at the maximum
+    private int componentCount(double urbanity, double unit) {
+        double extraMean = (maxComponentsPerCell - 1) * urbanity;
+        if (extraMean < 1e-9) {
+            return 1;
+        }
+        double p = 1 / (1 + extraMean); // Success probability of the geometric draw
+        int extra = (int) Math.floor(Math.log1p(-unit) / Math.log1p(-p));
+        return 1 + Math.min(maxComponentsPerCell - 1, extra);
+    }
+
+    // Bilinear value noise on a lattice clusterSpan cells apart, smoothed to hide the lattice
+    private double noise(int column, int row) {
+        int lx = Math.floorDiv(column, clusterSpan);
+        int ly = Math.floorDiv(row, clusterSpan);
+        double fx = smooth((column - (double) lx * clusterSpan) / clusterSpan);
+        double fy = smooth((row - (double) ly * clusterSpan) / clusterSpan);
+        double top = lerp(lattice(lx, ly), lattice(lx + 1, ly), fx);
+        double bottom = lerp(lattice(lx, ly + 1), lattice(lx + 1, ly + 1), fx);
+        return lerp(top, bottom, fy);
+    }
+
+    private double lattice(int x, int y) {
+        return unit(mix(seed ^ mix(((long) x << 32) ^ (y & 0xffffffffL))));
+    }
+
+    private long cellHash(long cellId) {
+        return mix(seed + mix(cellId ^ GOLDEN_GAMMA));
+    }
+
+    private static long draw(long cellHash, int index) {
+        return mix(cellHash + index * GOLDEN_GAMMA);
+    }
+
+    private static double smooth(double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
+    }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // Uniform in [0, 1) from the top 53 bits
+    private static double unit(long hash) {
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import java.util.List;
+
+/**
+ * One cell ready to paint: its grid position is resolved, so the UI thread only has to
+ * store it. The components are the parsed instances themselves, shared rather than copied,
+ * and must not be modified.
+ */
+public final class TileUpdate {
+
+    public final int gridPosition;
+    public final long cellId;
+    public final List<Component> components;
+
+    public TileUpdate(int gridPosition, long cellId, List<Component> components) {
+        this.gridPosition = gridPosition;
+        this.cellId = cellId;
+        this.components = components;
+    }
+}
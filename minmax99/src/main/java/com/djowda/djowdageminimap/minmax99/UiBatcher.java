@@ -0,0 +1,95 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hands items produced on background threads to the UI thread in batches: however many arrive
+ * while one batch is waiting to run, they are applied by that single task. Also measures the
+ * time the UI thread spends applying them.
+ *
+ * @param <T> Item type; keep items ready to apply so the UI thread does no other work.
+ */
+public class UiBatcher<T> {
+
+    private final Executor uiExecutor;
+    private final Consumer<List<T>> apply;
+    private final ConcurrentLinkedQueue<T> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong applyNanos = new AtomicLong();
+
+    /**
+     * @param uiExecutor Runs tasks on the UI thread, e.g. a main-looper handler's {@code post}.
+     */
+    public UiBatcher(Executor uiExecutor, Consumer<List<T>> apply) {
+        this.uiExecutor = uiExecutor;
+        this.apply = apply;
+    }
+
+    /** Callable from any thread. */
+    public void submit(T item) {
+        pending.add(item);
+        if (scheduled.compareAndSet(false, true)) {
+            uiExecutor.execute(this::drain);
+        }
+    }
+
+    /** UI-thread tasks that applied at least one item. */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getItemCount() {
+        return items.get();
+    }
+
+    /** UI-thread time spent applying items, in nanoseconds. */
+    public long getApplyNanos() {
+        return applyNanos.get();
+    }
+
+    private void drain() {
+        // Cleared before polling: an item added after the poll schedules the next drain
+        scheduled.set(false);
+        List<T> batch = new ArrayList<>();
+        for (T item; (item = pending.poll()) != null; ) {
+            batch.add(item);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        apply.accept(batch);
+        applyNanos.addAndGet(System.nanoTime() - start);
+        batches.incrementAndGet();
+        items.addAndGet(batch.size());
+    }
+}
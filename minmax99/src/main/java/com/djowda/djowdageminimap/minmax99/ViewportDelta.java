@@ -0,0 +1,190 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Difference between two square viewports: which cells enter, leave or stay when the map moves
+ * from one center to another. Keeps only the two rectangles, so computing a delta allocates
+ * nothing per cell; the cell sets are enumerated on demand.
+ */
+public final class ViewportDelta {
+
+    private static final int TOTAL_COLUMNS = 82000;
+    private static final int TOTAL_ROWS = 42000;
+
+    private final CellIdMapper from;
+    private final CellIdMapper to;
+
+    // Inclusive column/row bounds of both viewports, clipped to the map
+    private final int fromMinCol, fromMaxCol, fromMinRow, fromMaxRow;
+    private final int toMinCol, toMaxCol, toMinRow, toMaxRow;
+    private final boolean fullRefresh;
+
+    private ViewportDelta(CellIdMapper from, int fromMinCol, int fromMaxCol, int fromMinRow, int fromMaxRow,
+                          CellIdMapper to) {
+        this.from = from;
+        this.to = to;
+        this.fromMinCol = fromMinCol;
+        this.fromMaxCol = fromMaxCol;
+        this.fromMinRow = fromMinRow;
+        this.fromMaxRow = fromMaxRow;
+
+        int toCol = NearbyCellUtils.columnOf(to.getCenterCellId());
+        int toRow = NearbyCellUtils.rowOf(to.getCenterCellId());
+        toMinCol = Math.max(0, toCol - to.getRange());
+        toMaxCol = Math.min(TOTAL_COLUMNS - 1, toCol + to.getRange());
+        toMinRow = Math.max(0, toRow - to.getRange());
+        toMaxRow = Math.min(TOTAL_ROWS - 1, toRow + to.getRange());
+
+        fullRefresh = getStayingCount() == 0;
+    }
+
+    /**
+     * Delta for moving from {@code from} to {@code to}.
+     * @param from Current viewport, or null when nothing is loaded yet.
+     */
+    public static ViewportDelta between(CellIdMapper from, CellIdMapper to) {
+        if (from == null) {
+            // Empty previous viewport: everything enters
+            return new ViewportDelta(null, 0, -1, 0, -1, to);
+        }
+        int fromCol = NearbyCellUtils.columnOf(from.getCenterCellId());
+        int fromRow = NearbyCellUtils.rowOf(from.getCenterCellId());
+        return new ViewportDelta(from,
+                Math.max(0, fromCol - from.getRange()), Math.min(TOTAL_COLUMNS - 1, fromCol + from.getRange()),
+                Math.max(0, fromRow - from.getRange()), Math.min(TOTAL_ROWS - 1, fromRow + from.getRange()),
+                to);
+    }
+
+    /**
+     * Delta for moving from a rectangle of cells, inclusive bounds, to {@code to}; an empty
+     * rectangle ({@code maxCol < minCol}) makes everything enter.
+     */
+    static ViewportDelta between(int minCol, int maxCol, int minRow, int maxRow, CellIdMapper to) {
+        return new ViewportDelta(null, minCol, maxCol, minRow, maxRow, to);
+    }
+
+    /**
+     * Viewport the delta starts from, or null if it starts from nothing or from a {@link LoadedArea}.
+     */
+    public CellIdMapper getFrom() {
+        return from;
+    }
+
+    public CellIdMapper getTo() {
+        return to;
+    }
+
+    /**
+     * True when no cell stays, so the old data can be dropped wholesale.
+     */
+    public boolean isFullRefresh() {
+        return fullRefresh;
+    }
+
+    public int getEnteringCount() {
+        return area(toMinCol, toMaxCol, toMinRow, toMaxRow) - getStayingCount();
+    }
+
+    public int getLeavingCount() {
+        return area(fromMinCol, fromMaxCol, fromMinRow, fromMaxRow) - getStayingCount();
+    }
+
+    public int getStayingCount() {
+        return area(Math.max(fromMinCol, toMinCol), Math.min(fromMaxCol, toMaxCol),
+                Math.max(fromMinRow, toMinRow), Math.min(fromMaxRow, toMaxRow));
+    }
+
+    /**
+     * Cells in the new viewport that were not in the old one, in the new viewport's column-major order.
+     */
+    public void forEachEntering(LongConsumer action) {
+        forEachOutside(toMinCol, toMaxCol, toMinRow, toMaxRow,
+                fromMinCol, fromMaxCol, fromMinRow, fromMaxRow, action);
+    }
+
+    /**
+     * Cells in the old viewport that are not in the new one.
+     */
+    public void forEachLeaving(LongConsumer action) {
+        forEachOutside(fromMinCol, fromMaxCol, fromMinRow, fromMaxRow,
+                toMinCol, toMaxCol, toMinRow, toMaxRow, action);
+    }
+
+    /**
+     * Cells present in both viewports.
+     */
+    public void forEachStaying(LongConsumer action) {
+        int maxRow = Math.min(fromMaxRow, toMaxRow);
+        for (int c = Math.max(fromMinCol, toMinCol); c <= Math.min(fromMaxCol, toMaxCol); c++) {
+            long columnBase = (long) c * TOTAL_ROWS + 1;
+            for (int r = Math.max(fromMinRow, toMinRow); r <= maxRow; r++) {
+                action.accept(columnBase + r);
+            }
+        }
+    }
+
+    /**
+     * Copies the entering cell IDs into a caller-owned buffer.
+     * @return Number of IDs written.
+     */
+    public int fillEntering(long[] out) {
+        if (out.length < getEnteringCount()) {
+            throw new IllegalArgumentException("Buffer too small for " + getEnteringCount() + " cells: " + out.length);
+        }
+        int[] count = {0};
+        forEachEntering(cellId -> out[count[0]++] = cellId);
+        return count[0];
+    }
+
+    // Visits the cells of rectangle a that fall outside rectangle b. Whole columns outside b are
+    // emitted in one run; columns crossing b only emit the rows above and below it.
+    private static void forEachOutside(int aMinCol, int aMaxCol, int aMinRow, int aMaxRow,
+                                       int bMinCol, int bMaxCol, int bMinRow, int bMaxRow,
+                                       LongConsumer action) {
+        for (int c = aMinCol; c <= aMaxCol; c++) {
+            long columnBase = (long) c * TOTAL_ROWS + 1;
+            if (c < bMinCol || c > bMaxCol) {
+                for (int r = aMinRow; r <= aMaxRow; r++) {
+                    action.accept(columnBase + r);
+                }
+            } else {
+                for (int r = aMinRow; r <= Math.min(aMaxRow, bMinRow - 1); r++) {
+                    action.accept(columnBase + r);
+                }
+                for (int r = Math.max(aMinRow, bMaxRow + 1); r <= aMaxRow; r++) {
+                    action.accept(columnBase + r);
+                }
+            }
+        }
+    }
+
+    private static int area(int minCol, int maxCol, int minRow, int maxRow) {
+        if (maxCol < minCol || maxRow < minRow) {
+            return 0;
+        }
+        return (maxCol - minCol + 1) * (maxRow - minRow + 1);
+    }
+}
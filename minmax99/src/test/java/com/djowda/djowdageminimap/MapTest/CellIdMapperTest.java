@@ -0,0 +1,135 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.MapTest;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CellIdMapperTest {
+
+    private static final long CENTER = 644966003L;
+    private static final int ROWS = 42000;
+
+    private static long cellId(int column, int row) {
+        return (long) column * ROWS + row + 1;
+    }
+
+    // The mapping as it was before it moved to column/row arithmetic, fixed at a 41-cell grid
+    private static int legacyGridPosition(long centerCellId, long cellId) {
+        long centerX = centerCellId / ROWS;
+        long centerY = centerCellId % ROWS;
+        int gridX = 20 + (int) (cellId / ROWS - centerX);
+        int gridY = 20 + (int) (cellId % ROWS - centerY);
+        if (gridX >= 0 && gridX < 41 && gridY >= 0 && gridY < 41) {
+            return gridY * 41 + gridX;
+        }
+        return -1;
+    }
+
+    @Test
+    public void matchesTheLegacyMapperAtTheAppRange() {
+        long[] centers = {CENTER, cellId(0, 100), cellId(81999, 20000), cellId(300, 41950)};
+        for (long center : centers) {
+            CellIdMapper mapper = new CellIdMapper(center, 20);
+            int column = (int) ((center - 1) / ROWS);
+            int row = (int) ((center - 1) % ROWS);
+            for (int c = Math.max(0, column - 25); c <= Math.min(81999, column + 25); c++) {
+                // The legacy mapper read the last row of a column as row 0 of the next one
+                for (int r = row - 25; r <= Math.min(ROWS - 2, row + 25); r++) {
+                    long cellId = cellId(c, r);
+                    assertEquals("cell " + cellId + " around " + center,
+                            legacyGridPosition(center, cellId), mapper.getGridPositionFromCellId(cellId));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mapsTheLastRowOfAColumnInItsOwnColumn() {
+        long center = cellId(300, 41990);
+        CellIdMapper mapper = new CellIdMapper(center, 20);
+        long lastRow = cellId(300, ROWS - 1);
+
+        assertEquals(29 * 41 + 20, mapper.getGridPositionFromCellId(lastRow));
+        assertEquals(lastRow, mapper.getCellIdAt(20, 29));
+        assertEquals(-1, mapper.getCellIdAt(20, 30)); // Past the bottom of the map
+    }
+
+    @Test
+    public void cellIdsAndPositionsRoundTrip() {
+        long[] centers = {CENTER, 1L, cellId(81999, ROWS - 1), cellId(5, 41990)};
+        for (int range : new int[] {0, 1, 5, 20, 50}) {
+            for (long center : centers) {
+                CellIdMapper mapper = new CellIdMapper(center, range);
+                int size = mapper.getGridSize();
+                assertEquals(2 * range + 1, size);
+                assertEquals(center, mapper.getCellIdAt(mapper.getCenterPosition()));
+
+                int onMap = 0;
+                for (int position = 0; position < size * size; position++) {
+                    long cellId = mapper.getCellIdAt(position);
+                    assertEquals(cellId, mapper.getCellIdAt(position % size, position / size));
+                    if (cellId != -1) {
+                        assertEquals(position, mapper.getGridPositionFromCellId(cellId));
+                        onMap++;
+                    }
+                }
+                assertEquals(mapper.getCellIdCount(), onMap);
+            }
+        }
+    }
+
+    @Test
+    public void neighborhoodCellsFillDistinctPositions() {
+        CellIdMapper mapper = new CellIdMapper(cellId(0, 3), 20);
+        Set<Integer> positions = new HashSet<>();
+        mapper.forEachCellId(cellId -> {
+            int position = mapper.getPosition(cellId);
+            assertTrue(position >= 0);
+            assertTrue(positions.add(position));
+            assertEquals(cellId, mapper.getCellIdAt(position));
+        });
+        assertEquals(mapper.getCellIdCount(), positions.size());
+    }
+
+    @Test
+    public void rejectsPositionsOutsideTheGrid() {
+        CellIdMapper mapper = new CellIdMapper(CENTER, 20);
+
+        assertEquals(-1, mapper.getCellIdAt(-1));
+        assertEquals(-1, mapper.getCellIdAt(41 * 41));
+        assertEquals(-1, mapper.getCellIdAt(41, 0)); // Would wrap into the next grid row
+        assertEquals(-1, mapper.getGridPositionFromCellId(0));
+        assertEquals(-1, mapper.getGridPositionFromCellId(CENTER + 21));
+        assertEquals(-1, mapper.getGridPositionFromCellId(CENTER - 21L * ROWS));
+        assertEquals((41 * 41) / 2, mapper.getCenterPosition());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeRange() {
+        new CellIdMapper(CENTER, -1);
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CachingCellDataSourceTest {
+
+    private static final long CELL = 644966003L;
+    private static final long PARENT = MinMaxPathGenerator.parentOf(CELL);
+    private static final long FRESH = 1_000;
+    private static final long MAX_STALE = 10_000;
+
+    // Synchronous backend that answers from a map, or fails while offline
+    private static final class Backend implements CellDataSource {
+        final Map<Long, List<Component>> cells = new HashMap<>();
+        boolean offline;
+        int reads;
+
+        @Override
+        public void readCell(long cellId, ReadCallback callback) {
+            reads++;
+            if (offline) {
+                callback.onError(new IOException("offline"));
+                return;
+            }
+            List<Component> components = cells.get(cellId);
+            if (components != null) {
+                callback.onCell(cellId, components);
+            }
+            callback.onComplete();
+        }
+
+        @Override
+        public void readParent(long parentId, ReadCallback callback) {
+            reads++;
+            if (offline) {
+                callback.onError(new IOException("offline"));
+                return;
+            }
+            for (Map.Entry<Long, List<Component>> entry : cells.entrySet()) {
+                if (MinMaxPathGenerator.parentOf(entry.getKey()) == parentId) {
+                    callback.onCell(entry.getKey(), entry.getValue());
+                }
+            }
+            callback.onComplete();
+        }
+    }
+
+    private static final class Recorder implements CellDataSource.ReadCallback {
+        final Map<Long, List<Component>> cells = new HashMap<>();
+        boolean completed;
+        Exception error;
+
+        @Override
+        public void onCell(long cellId, List<Component> components) {
+            cells.put(cellId, components);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        @Override
+        public void onError(Exception e) {
+            error = e;
+        }
+    }
+
+    private Backend backend;
+    private InMemoryCellStore store;
+    private long now;
+    private CachingCellDataSource cache;
+    private final List<Long> changed = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        backend = new Backend();
+        store = new InMemoryCellStore();
+        now = 1_000_000;
+        cache = new CachingCellDataSource(backend, store, new CachingCellDataSource.TtlPolicy(FRESH, MAX_STALE),
+                Runnable::run, new FetchScheduler(), () -> now);
+        cache.setRevalidationListener((cellId, components) -> changed.add(cellId));
+        backend.cells.put(CELL, components(CELL, "Store"));
+    }
+
+    private static List<Component> components(long cellId, String name) {
+        return Collections.singletonList(new Component("c" + cellId, name, true, cellId));
+    }
+
+    private Recorder read(long cellId) {
+        Recorder recorder = new Recorder();
+        cache.readCell(cellId, recorder);
+        return recorder;
+    }
+
+    @Test
+    public void missReadsThroughAndStores() {
+        Recorder recorder = read(CELL);
+
+        assertTrue(recorder.completed);
+        assertEquals(components(CELL, "Store"), recorder.cells.get(CELL));
+        assertEquals(now, store.getCell(CELL).getFetchedAtMillis());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void freshEntryIsServedWithoutReading() {
+        read(CELL);
+        now += FRESH - 1;
+        Recorder recorder = read(CELL);
+
+        assertEquals(components(CELL, "Store"), recorder.cells.get(CELL));
+        assertEquals(1, backend.reads);
+        assertEquals(1, cache.getFreshHitCount());
+    }
+
+    @Test
+    public void emptyCellsAreCached() {
+        read(CELL + 1);
+        Recorder recorder = read(CELL + 1);
+
+        assertTrue(recorder.completed);
+        assertTrue(recorder.cells.isEmpty());
+        assertEquals(1, backend.reads);
+    }
+
+    @Test
+    public void staleEntryIsServedThenRevalidated() {
+        read(CELL);
+        backend.cells.put(CELL, components(CELL, "Renamed"));
+        now += FRESH;
+        Recorder recorder = read(CELL);
+
+        // The caller gets the old contents at once; the store and listener see the new ones
+        assertEquals(components(CELL, "Store"), recorder.cells.get(CELL));
+        assertEquals(2, backend.reads);
+        assertEquals(1, cache.getStaleHitCount());
+        assertEquals(1, cache.getRevalidationCount());
+        assertEquals(components(CELL, "Renamed"), store.getCell(CELL).getComponents());
+        assertEquals(Collections.singletonList(CELL), changed);
+    }
+
+    @Test
+    public void revalidationsShareTheSchedulersCap() {
+        List<Runnable> held = new ArrayList<>();
+        CellDataSource slow = new CellDataSource() {
+            @Override
+            public void readCell(long cellId, ReadCallback callback) {
+                held.add(() -> backend.readCell(cellId, callback));
+            }
+
+            @Override
+            public void readParent(long parentId, ReadCallback callback) {
+                held.add(() -> backend.readParent(parentId, callback));
+            }
+        };
+        FetchScheduler scheduler = new FetchScheduler(2);
+        cache = new CachingCellDataSource(slow, store, new CachingCellDataSource.TtlPolicy(FRESH, MAX_STALE),
+                Runnable::run, scheduler, () -> now);
+        for (int i = 0; i < 5; i++) {
+            store.putCell(CELL + i, components(CELL + i, "Store"), now);
+        }
+        now += FRESH;
+        for (int i = 0; i < 5; i++) {
+            assertTrue(read(CELL + i).completed); // Served stale at once
+        }
+
+        // A stale area fires its revalidations through the scheduler, not all at once
+        assertEquals(5, cache.getRevalidationCount());
+        assertEquals(2, held.size());
+        assertEquals(3, scheduler.getQueuedCount());
+        held.remove(0).run();
+        assertEquals(2, held.size());
+        assertEquals(2, scheduler.getQueuedCount());
+    }
+
+    @Test
+    public void unchangedRevalidationIsNotReported() {
+        read(CELL);
+        now += FRESH;
+        read(CELL);
+
+        assertEquals(1, cache.getRevalidationCount());
+        assertEquals(0, cache.getChangeCount());
+        assertEquals(now, store.getCell(CELL).getFetchedAtMillis());
+    }
+
+    @Test
+    public void expiredEntryIsReadThrough() {
+        read(CELL);
+        backend.cells.put(CELL, components(CELL, "Renamed"));
+        now += MAX_STALE;
+        Recorder recorder = read(CELL);
+
+        assertEquals(components(CELL, "Renamed"), recorder.cells.get(CELL));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void offlineServesExpiredEntries() {
+        read(CELL);
+        backend.offline = true;
+        now += MAX_STALE * 100;
+        Recorder recorder = read(CELL);
+
+        assertTrue(recorder.completed);
+        assertNull(recorder.error);
+        assertEquals(components(CELL, "Store"), recorder.cells.get(CELL));
+        assertEquals(1, cache.getOfflineHitCount());
+    }
+
+    @Test
+    public void offlineWithNothingCachedFails() {
+        backend.offline = true;
+        Recorder recorder = read(CELL);
+
+        assertTrue(recorder.error instanceof IOException);
+    }
+
+    @Test
+    public void leafKnownEmptyFromItsParentRevalidatesWithoutAChange() {
+        cache.readParent(PARENT, new Recorder());
+        now += FRESH;
+        read(CELL + 1);
+
+        assertEquals(1, cache.getRevalidationCount());
+        assertEquals(0, cache.getChangeCount());
+        assertTrue(changed.isEmpty());
+
+        // A real difference is still reported
+        backend.cells.put(CELL + 1, components(CELL + 1, "Store"));
+        now += FRESH;
+        read(CELL + 1);
+        assertEquals(1, cache.getChangeCount());
+        assertEquals(Collections.singletonList(CELL + 1), changed);
+    }
+
+    @Test
+    public void parentReadAnswersLeafReads() {
+        cache.readParent(PARENT, new Recorder());
+        Recorder occupied = read(CELL);
+        Recorder empty = read(CELL + 1);
+
+        assertEquals(components(CELL, "Store"), occupied.cells.get(CELL));
+        assertTrue(empty.completed);
+        assertTrue(empty.cells.isEmpty());
+        assertEquals(1, backend.reads);
+    }
+
+    @Test
+    public void staleParentReportsEmptiedCells() {
+        cache.readParent(PARENT, new Recorder());
+        backend.cells.clear();
+        now += FRESH;
+        Recorder recorder = new Recorder();
+        cache.readParent(PARENT, recorder);
+
+        assertEquals(components(CELL, "Store"), recorder.cells.get(CELL));
+        assertEquals(Collections.singletonList(CELL), changed);
+        assertTrue(store.getOccupiedCellsInParent(PARENT).isEmpty());
+    }
+}
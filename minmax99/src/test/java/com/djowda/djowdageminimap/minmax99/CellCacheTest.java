@@ -0,0 +1,146 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CellCacheTest {
+
+    // Values weigh what they say
+    private static CellCache<Long> cache(long maxWeight) {
+        return new CellCache<>(maxWeight, 1, Long::longValue);
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        CellCache<Long> cache = cache(100);
+        cache.put(1, 1L);
+
+        assertEquals(Long.valueOf(1), cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRatio(), 0);
+    }
+
+    @Test
+    public void staysWithinItsWeight() {
+        CellCache<Long> cache = cache(1_000);
+        for (long key = 0; key < 10_000; key++) {
+            cache.put(key, 1 + key % 7);
+            assertTrue(cache.getWeight() <= 1_000);
+        }
+        assertTrue(cache.getEvictionCount() > 0);
+        assertEquals(cache.getWeight(), weightOfEntries(cache, 10_000));
+    }
+
+    @Test
+    public void reweighsUpdatedValues() {
+        CellCache<Long> cache = cache(100);
+        cache.put(1, 10L);
+        cache.put(1, 30L);
+
+        assertEquals(30, cache.getWeight());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void rejectsValuesHeavierThanTheCache() {
+        CellCache<Long> cache = cache(100);
+        cache.put(1, 10L);
+        cache.put(1, 101L);
+
+        assertNull(cache.peek(1));
+        assertEquals(1, cache.getRejectionCount());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void invalidateAndClearDropEntries() {
+        CellCache<Long> cache = cache(100);
+        cache.put(1, 1L);
+        cache.put(2, 1L);
+        cache.invalidate(1);
+
+        assertNull(cache.peek(1));
+        assertEquals(1, cache.getWeight());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void hotEntriesSurviveALongScan() {
+        CellCache<Long> cache = cache(1_000);
+        // A hot neighborhood, requested again and again
+        for (int round = 0; round < 5; round++) {
+            for (long key = 0; key < 500; key++) {
+                if (cache.get(key) == null) {
+                    cache.put(key, 1L);
+                }
+            }
+        }
+        // One long scan through cells seen once; plain LRU would keep only the scan's tail
+        for (long key = 1_000_000; key < 1_050_000; key++) {
+            if (cache.get(key) == null) {
+                cache.put(key, 1L);
+            }
+        }
+        int kept = 0;
+        for (long key = 0; key < 500; key++) {
+            if (cache.peek(key) != null) {
+                kept++;
+            }
+        }
+        assertTrue("kept " + kept, kept >= 450);
+    }
+
+    @Test
+    public void newHotEntriesAreAdmittedOverColdOnes() {
+        CellCache<Long> cache = cache(100);
+        for (long key = 0; key < 100; key++) {
+            cache.put(key, 1L);
+        }
+        // Key 500 becomes popular while not cached; once put, it displaces a cold resident
+        for (int i = 0; i < 5; i++) {
+            cache.get(500);
+        }
+        cache.put(500, 1L);
+        cache.put(501, 1L); // Pushes 500 out of the window into the admission contest
+
+        assertEquals(Long.valueOf(1), cache.peek(500));
+    }
+
+    private static long weightOfEntries(CellCache<Long> cache, long keys) {
+        long weight = 0;
+        for (long key = 0; key < keys; key++) {
+            Long value = cache.peek(key);
+            if (value != null) {
+                weight += value;
+            }
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CellPayloadCodecTest {
+
+    private static final long CELL = 644966003L;
+
+    private static final List<Component> COMPONENTS = Arrays.asList(
+            new Component("THh4RfNRP3Rpqn1wZR55lDen6wq1", "Store 003", true, CELL),
+            new Component("b", null, false, CELL),
+            new Component("c", "Épicerie ☕ 𝄞", true, CELL));
+
+    @Test
+    public void roundTrips() {
+        byte[] payload = CellPayloadCodec.encode(COMPONENTS);
+
+        assertEquals(CellPayloadCodec.encodedSize(COMPONENTS), payload.length);
+        assertEquals(COMPONENTS, CellPayloadCodec.decode(ByteBuffer.wrap(payload), CELL));
+    }
+
+    @Test
+    public void roundTripsAnEmptyCell() {
+        byte[] payload = CellPayloadCodec.encode(Collections.emptyList());
+
+        assertEquals(2, payload.length);
+        assertTrue(CellPayloadCodec.decode(ByteBuffer.wrap(payload), CELL).isEmpty());
+    }
+
+    @Test
+    public void roundTripsThroughBase64() {
+        String payload = CellPayloadCodec.encodeToBase64(COMPONENTS);
+
+        assertEquals(COMPONENTS, CellPayloadCodec.decodeBase64(payload, CELL));
+    }
+
+    @Test
+    public void decodesDirectBuffers() {
+        byte[] payload = CellPayloadCodec.encode(COMPONENTS);
+        ByteBuffer direct = ByteBuffer.allocateDirect(payload.length);
+        direct.put(payload).flip();
+
+        assertEquals(COMPONENTS, CellPayloadCodec.decode(direct, CELL));
+    }
+
+    @Test
+    public void readsConsecutivePayloadsFromOneBuffer() {
+        List<Component> other = Collections.singletonList(new Component("d", "Farm", false, CELL + 1));
+        ByteBuffer buffer = ByteBuffer.allocate(CellPayloadCodec.encodedSize(COMPONENTS) + CellPayloadCodec.encodedSize(other));
+        CellPayloadCodec.encode(COMPONENTS, buffer);
+        CellPayloadCodec.encode(other, buffer);
+        buffer.flip();
+
+        assertEquals(COMPONENTS, CellPayloadCodec.decode(buffer, CELL));
+        assertEquals(other, CellPayloadCodec.decode(buffer, CELL + 1));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void readerReadsFieldsInPlace() {
+        CellPayloadCodec.Reader reader = new CellPayloadCodec.Reader(ByteBuffer.wrap(CellPayloadCodec.encode(COMPONENTS)));
+        int open = 0;
+        while (reader.next()) {
+            if (reader.isOpen()) {
+                open++;
+            }
+        }
+        assertEquals(2, open);
+
+        reader = new CellPayloadCodec.Reader(ByteBuffer.wrap(CellPayloadCodec.encode(COMPONENTS)));
+        reader.next();
+        reader.next();
+        assertEquals("b", reader.getId());
+        assertNull(reader.getName());
+    }
+
+    @Test
+    public void skipsFieldsAddedByNewerWriters() {
+        // One component with two extra bytes after the flags
+        ByteBuffer payload = ByteBuffer.wrap(new byte[]{1, 1, 7, 1, 'a', 2, 'N', 1, 42, 43});
+        List<Component> decoded = CellPayloadCodec.decode(payload, CELL);
+
+        assertEquals(Collections.singletonList(new Component("a", "N", true, CELL)), decoded);
+        assertFalse(payload.hasRemaining());
+    }
+
+    @Test
+    public void rejectsUnknownVersions() {
+        assertMalformed(new byte[]{2, 0});
+    }
+
+    @Test
+    public void rejectsTruncatedPayloads() {
+        byte[] payload = CellPayloadCodec.encode(COMPONENTS);
+        for (int length = 0; length < payload.length; length++) {
+            assertMalformed(Arrays.copyOf(payload, length));
+        }
+    }
+
+    @Test
+    public void rejectsBodiesShorterThanTheirFields() {
+        assertMalformed(new byte[]{1, 1, 2, 1, 'a', 2, 'N', 1});
+    }
+
+    private static void assertMalformed(byte[] payload) {
+        try {
+            CellPayloadCodec.decode(ByteBuffer.wrap(payload), CELL);
+            fail("Accepted " + Arrays.toString(payload));
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+}
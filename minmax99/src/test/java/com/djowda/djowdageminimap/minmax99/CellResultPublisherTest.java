@@ -0,0 +1,163 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CellResultPublisherTest {
+
+    private static final long CENTER = 644966003L;
+
+    private static final class RecordingSubscriber implements Subscriber<NearbyComponentFetcher.CellResult> {
+        final List<Long> cells = new CopyOnWriteArrayList<>();
+        final CountDownLatch terminated = new CountDownLatch(1);
+        volatile Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+        }
+
+        @Override
+        public void onNext(NearbyComponentFetcher.CellResult result) {
+            cells.add(result.cellId);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+    }
+
+    private static InMemoryCellDataSource sourceWithOccupiedCells(int range) {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        NearbyCellUtils.forEachNearbyCellId(CENTER, range, cellId ->
+                source.put(cellId, Collections.singletonList(new Component("id" + cellId, "Store", true, cellId))));
+        return source;
+    }
+
+    @Test
+    public void deliversNoMoreThanRequested() throws Exception {
+        InMemoryCellDataSource source = sourceWithOccupiedCells(3); // 49 cells
+        CellResultPublisher publisher = new NearbyComponentFetcher(source)
+                .streamNearbyComponents(CENTER, 3, FetchScheduler.Priority.USER);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        assertEquals(0, source.getRequestCount()); // Cold until requested
+
+        subscriber.subscription.request(5);
+        Thread.sleep(200);
+        assertEquals(5, subscriber.cells.size());
+        assertTrue(!subscriber.completed);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.completed);
+        assertEquals(49, subscriber.cells.size());
+
+        FetchStats stats = publisher.getStats();
+        assertEquals(49, stats.getCellsRequested());
+        assertEquals(49, stats.getCellsWithComponents());
+        assertEquals(0, stats.getReadsFailed());
+        assertTrue(stats.getTimeToFirstCell(TimeUnit.NANOSECONDS) >= 0);
+    }
+
+    @Test
+    public void partialFailureCompletesWithTheFailedCellsListed() throws Exception {
+        InMemoryCellDataSource source = sourceWithOccupiedCells(3);
+        source.setFailureRate(0.5);
+        source.setSeed(1);
+        // Leaf-only plan so some reads succeed and some fail
+        CellResultPublisher publisher = new NearbyComponentFetcher(source, new FetchPlanner(new FetchPlanner.CostModel(0, 1, 1)))
+                .streamNearbyComponents(CENTER, 3, FetchScheduler.Priority.USER);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.completed);
+        FetchStats stats = publisher.getStats();
+        assertEquals(source.getFailureCount(), stats.getReadsFailed());
+        assertTrue(stats.getReadsFailed() > 0);
+        assertEquals(stats.getReadsFailed(), stats.getFailedCellIds().length);
+        assertEquals(49 - stats.getReadsFailed(), subscriber.cells.size());
+        for (long failed : stats.getFailedCellIds()) {
+            assertFalse(subscriber.cells.contains(failed));
+        }
+    }
+
+    @Test
+    public void totalFailureEndsWithError() throws Exception {
+        InMemoryCellDataSource source = sourceWithOccupiedCells(1);
+        source.setFailureRate(1);
+        CellResultPublisher publisher = new NearbyComponentFetcher(source)
+                .streamNearbyComponents(CENTER, 1, FetchScheduler.Priority.USER);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.error instanceof IOException);
+        assertEquals(9, publisher.getStats().getFailedCellIds().length);
+    }
+
+    @Test
+    public void rejectsSecondSubscriberAndNonPositiveRequests() throws Exception {
+        CellResultPublisher publisher = new NearbyComponentFetcher(sourceWithOccupiedCells(1))
+                .streamNearbyComponents(CENTER, 1, FetchScheduler.Priority.USER);
+        RecordingSubscriber first = new RecordingSubscriber();
+        RecordingSubscriber second = new RecordingSubscriber();
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+        assertTrue(second.error instanceof IllegalStateException);
+
+        first.subscription.request(0);
+        assertTrue(first.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(first.error instanceof IllegalArgumentException);
+        assertNull(publisher.getStats());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FetchGenerationTest {
+
+    private static final long CENTER = 644966003L;
+
+    // Fake backend: every cell holds one component, reads finish only when the test says so
+    private static final class HeldDataSource implements CellDataSource {
+        final List<Long> started = new ArrayList<>();
+        final List<Runnable> pending = new ArrayList<>();
+
+        @Override
+        public void readCell(long cellId, ReadCallback callback) {
+            started.add(cellId);
+            pending.add(() -> {
+                callback.onCell(cellId, Collections.singletonList(new Component("c" + cellId, "Store", true, cellId)));
+                callback.onComplete();
+            });
+        }
+
+        @Override
+        public void readParent(long parentId, ReadCallback callback) {
+            throw new UnsupportedOperationException("Leaf-only plan expected");
+        }
+
+        void finishAll() {
+            while (!pending.isEmpty()) {
+                pending.remove(0).run();
+            }
+        }
+    }
+
+    private static final class Outcome implements NearbyComponentFetcher.OnFetchComplete {
+        NearbyComponentFetcher.FetchResult result;
+        Exception error;
+
+        @Override
+        public void onResult(NearbyComponentFetcher.FetchResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public void onError(Exception e) {
+            this.error = e;
+        }
+    }
+
+    private static NearbyComponentFetcher leafFetcher(CellDataSource source, int maxInFlight) {
+        return new NearbyComponentFetcher(source, new FetchPlanner(new FetchPlanner.CostModel(0, 1, 1)),
+                new FetchScheduler(maxInFlight));
+    }
+
+    private static ViewportDelta fullViewport(long center, int range) {
+        return ViewportDelta.between(null, new CellIdMapper(center, range));
+    }
+
+    @Test
+    public void tokensGoStaleWhenANewerOneIsTaken() {
+        FetchGeneration generation = new FetchGeneration();
+        FetchGeneration.Token first = generation.next();
+        assertTrue(first.isCurrent());
+        FetchGeneration.Token second = generation.next();
+        assertTrue(first.isStale());
+        assertTrue(second.isCurrent());
+        assertEquals(2, generation.getCurrent());
+    }
+
+    @Test
+    public void latestWins_staleFetchDeliversNothing() {
+        HeldDataSource source = new HeldDataSource();
+        NearbyComponentFetcher fetcher = leafFetcher(source, 1000);
+        FetchGeneration generation = new FetchGeneration();
+
+        Outcome old = new Outcome();
+        fetcher.fetchEnteringComponents(fullViewport(CENTER, 2), FetchScheduler.Priority.USER, generation.next(), old);
+        Outcome latest = new Outcome();
+        long otherCenter = CENTER + 42000L * 100;
+        fetcher.fetchEnteringComponents(fullViewport(otherCenter, 2), FetchScheduler.Priority.USER, generation.next(), latest);
+
+        // Both sets of reads were in flight; the old ones complete last
+        source.finishAll();
+
+        assertNull(old.result);
+        assertTrue(old.error instanceof CancellationException);
+        assertNull(latest.error);
+        assertNotNull(latest.result);
+        assertEquals(25, latest.result.cellComponents.size());
+        latest.result.cellComponents.keySet().forEach(cellId ->
+                assertTrue(NearbyCellUtils.isNearby(otherCenter, 2, cellId)));
+    }
+
+    @Test
+    public void queuedReadsOfSupersededGenerationNeverStart() {
+        HeldDataSource source = new HeldDataSource();
+        NearbyComponentFetcher fetcher = leafFetcher(source, 2);
+        FetchGeneration generation = new FetchGeneration();
+
+        Outcome old = new Outcome();
+        fetcher.fetchEnteringComponents(fullViewport(CENTER, 2), FetchScheduler.Priority.USER, generation.next(), old);
+        assertEquals(2, source.started.size());
+
+        Outcome latest = new Outcome();
+        long otherCenter = CENTER + 42000L * 100;
+        fetcher.fetchEnteringComponents(fullViewport(otherCenter, 2), FetchScheduler.Priority.USER, generation.next(), latest);
+        source.finishAll();
+
+        // 2 stale reads were already running; the other 23 were dropped from the queue
+        long oldReads = source.started.stream().filter(cellId -> NearbyCellUtils.isNearby(CENTER, 2, cellId)).count();
+        assertEquals(2, oldReads);
+        assertEquals(2 + 25, source.started.size());
+        assertTrue(old.error instanceof CancellationException);
+        assertEquals(25, latest.result.cellComponents.size());
+        assertFalse(latest.result.cellComponents.isEmpty());
+    }
+
+    @Test
+    public void streamOfStaleGenerationEndsCancelled() {
+        HeldDataSource source = new HeldDataSource();
+        NearbyComponentFetcher fetcher = leafFetcher(source, 1000);
+        FetchGeneration generation = new FetchGeneration();
+
+        CellResultPublisher publisher = fetcher.streamEnteringComponents(fullViewport(CENTER, 1),
+                FetchScheduler.Priority.USER, generation.next());
+        List<Long> received = new ArrayList<>();
+        Throwable[] terminal = {null};
+        publisher.subscribe(new Subscriber<NearbyComponentFetcher.CellResult>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(NearbyComponentFetcher.CellResult cell) {
+                received.add(cell.cellId);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                terminal[0] = t;
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        generation.next();
+        source.finishAll();
+
+        assertTrue(received.isEmpty());
+        assertTrue(terminal[0] instanceof CancellationException);
+        assertEquals(9, publisher.getStats().getCellsRequested());
+    }
+}
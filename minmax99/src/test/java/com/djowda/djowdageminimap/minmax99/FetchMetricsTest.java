@@ -0,0 +1,171 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FetchMetricsTest {
+
+    private static final long CENTER = 644966003L;
+
+    // Holds its reads until told to answer
+    private static final class HeldSource implements CellDataSource {
+        CellDataSource.ReadCallback held;
+
+        @Override
+        public void readCell(long cellId, ReadCallback callback) {
+            held = callback;
+        }
+
+        @Override
+        public void readParent(long parentId, ReadCallback callback) {
+            held = callback;
+        }
+    }
+
+    private static final CellDataSource.ReadCallback IGNORE = new CellDataSource.ReadCallback() {
+        @Override
+        public void onCell(long cellId, List<Component> components) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void onError(Exception e) {
+        }
+    };
+
+    @Test
+    public void meteredReadsCountWhileInFlight() {
+        FetchMetrics metrics = new FetchMetrics();
+        HeldSource backend = new HeldSource();
+        MeteredCellDataSource source = new MeteredCellDataSource(backend, metrics);
+
+        source.readCell(CENTER, IGNORE);
+        CellDataSource.ReadCallback first = backend.held;
+        source.readParent(CENTER / 1000, IGNORE);
+        CellDataSource.ReadCallback second = backend.held;
+        assertEquals(2, metrics.getInFlightCount());
+
+        first.onComplete();
+        second.onError(new IOException("down"));
+        second.onComplete(); // A second signal is not a second read
+
+        FetchMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.getInFlightCount());
+        assertEquals(2, snapshot.getMaxInFlightCount());
+        assertEquals(2, snapshot.getReadLatency().getCount());
+        assertEquals(1, snapshot.getReadsFailed());
+    }
+
+    @Test
+    public void throwingBackendDoesNotLeakTheGauge() {
+        FetchMetrics metrics = new FetchMetrics();
+        MeteredCellDataSource source = new MeteredCellDataSource(new CellDataSource() {
+            @Override
+            public void readCell(long cellId, ReadCallback callback) {
+                throw new IllegalStateException("closed");
+            }
+
+            @Override
+            public void readParent(long parentId, ReadCallback callback) {
+                throw new IllegalStateException("closed");
+            }
+        }, metrics);
+
+        try {
+            source.readCell(CENTER, IGNORE);
+        } catch (IllegalStateException expected) {
+            // Reported by the caller
+        }
+        assertEquals(0, metrics.getInFlightCount());
+        assertEquals(1, metrics.snapshot().getReadsFailed());
+    }
+
+    @Test
+    public void fetchThroughTheMeteredSourceRecordsEveryRead() throws Exception {
+        FetchMetrics metrics = new FetchMetrics();
+        InMemoryCellDataSource backend = new InMemoryCellDataSource();
+        backend.setLatency(2, 1, TimeUnit.MILLISECONDS);
+        backend.put(CENTER, Collections.singletonList(new Component("a", "Store 1", true, CENTER)));
+        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(new MeteredCellDataSource(backend, metrics),
+                new FetchPlanner(new FetchPlanner.CostModel(0, 1, 1)));
+
+        CompletableFuture<NearbyComponentFetcher.FetchResult> result = new CompletableFuture<>();
+        fetcher.fetchNearbyComponents(CENTER, 2, new NearbyComponentFetcher.OnFetchComplete() {
+            @Override
+            public void onResult(NearbyComponentFetcher.FetchResult r) {
+                result.complete(r);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.get(5, TimeUnit.SECONDS);
+
+        FetchMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(25, snapshot.getReadLatency().getCount());
+        assertTrue(snapshot.getReadLatency().getP50(TimeUnit.MICROSECONDS) >= 2000);
+        assertEquals(0, snapshot.getInFlightCount());
+    }
+
+    @Test
+    public void snapshotReadsBoundCachesAndDumps() {
+        FetchMetrics metrics = new FetchMetrics();
+        CellCache<String> cache = new CellCache<>(100, 10, value -> 10);
+        metrics.bindCache("memory", cache::getHitCount, cache::getMissCount);
+        cache.put(1, "a");
+        cache.get(1);
+        cache.get(1);
+        cache.get(2);
+        metrics.bytesDecoded(120);
+        metrics.navigationCompleted(TimeUnit.MILLISECONDS.toNanos(80));
+
+        FetchMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(Collections.singletonList("memory"), snapshot.getCacheNames());
+        assertEquals(2, snapshot.getCacheHits("memory"));
+        assertEquals(1, snapshot.getCacheMisses("memory"));
+        assertEquals(2 / 3.0, snapshot.getCacheHitRatio("memory"), 1e-9);
+        assertEquals(0, snapshot.getCacheHits("disk"));
+        assertEquals(120, snapshot.getBytesDecoded());
+        assertEquals(80, snapshot.getNavigationLatency().getP99(TimeUnit.MILLISECONDS));
+        assertTrue(snapshot.toString(), snapshot.toString().contains("memory={hits=2, misses=1}"));
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getBytesDecoded());
+        assertEquals(2, metrics.snapshot().getCacheHits("memory")); // Caches keep their own counts
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FetchPlannerTest {
+
+    private static final long CENTER = 644966003L;
+
+    @Test
+    public void plan_coversEveryCellOnceInItsParentGroup() {
+        long[] cells = {CENTER + 1500, CENTER, CENTER + 1, CENTER, CENTER - 2000, CENTER + 1};
+        FetchPlan plan = new FetchPlanner().plan(cells, cells.length);
+
+        Set<Long> seen = new HashSet<>();
+        for (int g = 0; g < plan.getGroupCount(); g++) {
+            long parent = plan.getParentId(g);
+            plan.forEachCell(g, cell -> {
+                assertEquals(parent, MinMaxPathGenerator.parentOf(cell));
+                assertTrue(seen.add(cell));
+            });
+        }
+        assertEquals(4, plan.getCellCount());
+        assertEquals(4, seen.size());
+        assertEquals(3, plan.getGroupCount());
+    }
+
+    @Test
+    public void parentPath_isPrefixOfLeafPath() {
+        FetchPlan plan = new FetchPlanner().plan(new long[]{CENTER}, 1);
+        String leaf = MinMaxPathGenerator.constructDbPath(CENTER);
+        assertEquals(leaf, plan.getParentDbPath(0) + "/" + MinMaxPathGenerator.leafKey(CENTER));
+    }
+
+    @Test
+    public void sparseNeighborhood_collapsesToParentReads() {
+        FetchPlan plan = new FetchPlanner().planNeighborhood(CENTER, 20);
+        assertEquals(41 * 41, plan.getCellCount());
+        // A 41-row column spans at most two parents
+        assertTrue(plan.getGroupCount() <= 82);
+        assertEquals(plan.getGroupCount(), plan.getRequestCount());
+    }
+
+    @Test
+    public void densePayloads_stayLeafByLeaf() {
+        FetchPlanner.CostModel heavy = new FetchPlanner.CostModel(50_000, 1.0, 100_000);
+        FetchPlan plan = new FetchPlanner(heavy).planNeighborhood(CENTER, 20);
+        for (int g = 0; g < plan.getGroupCount(); g++) {
+            assertFalse(plan.isParentFetch(g));
+        }
+        assertEquals(41 * 41, plan.getRequestCount());
+    }
+
+    @Test
+    public void singleLeaf_neverUsesParent() {
+        assertFalse(new FetchPlanner.CostModel(1e9, 0, 0).prefersParent(1));
+    }
+}
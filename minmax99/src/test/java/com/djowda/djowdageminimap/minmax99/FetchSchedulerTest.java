@@ -0,0 +1,154 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FetchSchedulerTest {
+
+    // Records started reads and lets the test finish them by hand
+    private static final class ManualReads {
+        final List<String> started = new ArrayList<>();
+        final List<CellDataSource.ReadCallback> open = new ArrayList<>();
+
+        FetchScheduler.ReadOperation read(String name) {
+            return cb -> {
+                started.add(name);
+                open.add(cb);
+            };
+        }
+
+        void finishOldest() {
+            open.remove(0).onComplete();
+        }
+    }
+
+    private static final CellDataSource.ReadCallback IGNORE = new CellDataSource.ReadCallback() {
+        @Override
+        public void onCell(long cellId, List<Component> components) { }
+
+        @Override
+        public void onComplete() { }
+
+        @Override
+        public void onError(Exception e) { }
+    };
+
+    @Test
+    public void neverExceedsMaxInFlight() {
+        FetchScheduler scheduler = new FetchScheduler(3);
+        ManualReads reads = new ManualReads();
+        for (int i = 0; i < 10; i++) {
+            scheduler.submit(FetchScheduler.Priority.USER, i, reads.read("r" + i), IGNORE);
+        }
+        assertEquals(3, reads.started.size());
+        assertEquals(7, scheduler.getQueuedCount());
+
+        reads.finishOldest();
+        assertEquals(4, reads.started.size());
+        assertEquals(3, scheduler.getInFlightCount());
+        while (!reads.open.isEmpty()) {
+            reads.finishOldest();
+        }
+        assertEquals(10, reads.started.size());
+        assertEquals(0, scheduler.getInFlightCount());
+    }
+
+    @Test
+    public void startsUserWorkFirstThenClosestToCenter() {
+        FetchScheduler scheduler = new FetchScheduler(1);
+        ManualReads reads = new ManualReads();
+        scheduler.submit(FetchScheduler.Priority.BACKGROUND, 0, reads.read("blocker"), IGNORE);
+        scheduler.submit(FetchScheduler.Priority.BACKGROUND, 1, reads.read("bg1"), IGNORE);
+        scheduler.submit(FetchScheduler.Priority.USER, 25, reads.read("user25"), IGNORE);
+        scheduler.submit(FetchScheduler.Priority.USER, 4, reads.read("user4a"), IGNORE);
+        scheduler.submit(FetchScheduler.Priority.USER, 4, reads.read("user4b"), IGNORE);
+        while (!reads.open.isEmpty()) {
+            reads.finishOldest();
+        }
+        assertEquals(List.of("blocker", "user4a", "user4b", "user25", "bg1"), reads.started);
+    }
+
+    @Test
+    public void synchronousCompletionsDoNotRecurse() {
+        FetchScheduler scheduler = new FetchScheduler(1);
+        int[] started = {0};
+        for (int i = 0; i < 100_000; i++) {
+            scheduler.submit(FetchScheduler.Priority.USER, i, cb -> {
+                started[0]++;
+                cb.onComplete();
+            }, IGNORE);
+        }
+        assertEquals(100_000, started[0]);
+        assertEquals(0, scheduler.getInFlightCount());
+    }
+
+    @Test
+    public void fetcherRespectsTheLimitEndToEnd() throws Exception {
+        InMemoryCellDataSource source = InMemoryCellDataSource.withRandomComponents(0.3f);
+        source.setLatency(1, 1, TimeUnit.MILLISECONDS);
+        FetchScheduler scheduler = new FetchScheduler(4);
+        int[] maxSeen = {0};
+        CellDataSource probe = new CellDataSource() {
+            @Override
+            public void readCell(long cellId, ReadCallback callback) {
+                synchronized (maxSeen) {
+                    maxSeen[0] = Math.max(maxSeen[0], scheduler.getInFlightCount());
+                }
+                source.readCell(cellId, callback);
+            }
+
+            @Override
+            public void readParent(long parentId, ReadCallback callback) {
+                source.readParent(parentId, callback);
+            }
+        };
+        // Leaf-only plan so the limit is actually hit
+        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(probe,
+                new FetchPlanner(new FetchPlanner.CostModel(0, 1, 1)), scheduler);
+        CountDownLatch done = new CountDownLatch(1);
+        fetcher.fetchNearbyComponents(644966003L, 5, new NearbyComponentFetcher.OnFetchComplete() {
+            @Override
+            public void onResult(NearbyComponentFetcher.FetchResult result) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(121, source.getRequestCount());
+        assertEquals(4, maxSeen[0]);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlingPrefetcherTest {
+
+    private static final long CENTER = 644966003L;
+
+    // Records the cells read and holds every read until released
+    private static final class HeldSource implements CellDataSource {
+        final List<Long> started = new ArrayList<>();
+        final Queue<ReadCallback> held = new ArrayDeque<>();
+
+        @Override
+        public void readCell(long cellId, ReadCallback callback) {
+            started.add(cellId);
+            held.add(callback);
+        }
+
+        @Override
+        public void readParent(long parentId, ReadCallback callback) {
+            throw new AssertionError("Leaf reads only");
+        }
+
+        void releaseAll() {
+            for (ReadCallback callback; (callback = held.poll()) != null; ) {
+                callback.onComplete();
+            }
+        }
+    }
+
+    private static NearbyComponentFetcher fetcher(CellDataSource source, int maxInFlight) {
+        // Zero request overhead: every cell is its own read
+        return new NearbyComponentFetcher(source, new FetchPlanner(new FetchPlanner.CostModel(0, 1, 1)),
+                new FetchScheduler(maxInFlight));
+    }
+
+    private static long cell(int columns, int rows) {
+        return NearbyCellUtils.offsetCell(CENTER, columns, rows);
+    }
+
+    @Test
+    public void flingPrefetchesTheLandingWindowOutsideTheViewport() {
+        HeldSource source = new HeldSource();
+        FlingPrefetcher prefetcher = new FlingPrefetcher(fetcher(source, 10_000), 2, 1, 1, 0.5f);
+        CellIdMapper viewport = new CellIdMapper(CENTER, 5);
+        prefetcher.setViewport(viewport);
+
+        // Heading right: landing 6 columns over, window 2+1 columns each side plus 1 ahead
+        prefetcher.onFling(CENTER, cell(6, 0), 40, 0);
+
+        Set<Long> expected = new HashSet<>();
+        for (int c = 6 - 3; c <= 6 + 4; c++) {
+            for (int r = -2; r <= 2; r++) {
+                if (viewport.getPosition(cell(c, r)) == -1) {
+                    expected.add(cell(c, r));
+                }
+            }
+        }
+        assertEquals(expected, new HashSet<>(source.started));
+        assertEquals(expected.size(), prefetcher.getCellsRequested());
+        assertEquals(1, prefetcher.getPrefetchCount());
+    }
+
+    @Test
+    public void dragRequestsEachCellOnce() {
+        HeldSource source = new HeldSource();
+        FlingPrefetcher prefetcher = new FlingPrefetcher(fetcher(source, 10_000), 2, 2, 2, 0.5f);
+
+        prefetcher.onDrag(CENTER, 0, 10); // Target 5 rows down
+        int first = source.started.size();
+        prefetcher.onDrag(CENTER + 1, 0, 10); // Target 6 rows down: only the new leading row
+        int second = source.started.size() - first;
+        prefetcher.onDrag(CENTER, 0, 10); // Back to the first window, all asked for already
+        int third = source.started.size() - first - second;
+
+        assertEquals(9 * 11, first); // 2+2 columns each side, 2+2 rows up and 2+2+2 down
+        assertEquals(9, second);
+        assertEquals(0, third);
+        assertEquals(new HashSet<>(source.started).size(), source.started.size()); // No cell twice
+    }
+
+    @Test
+    public void slowDragPredictsNothing() {
+        HeldSource source = new HeldSource();
+        FlingPrefetcher prefetcher = new FlingPrefetcher(fetcher(source, 10_000), 2, 2);
+
+        prefetcher.onDrag(CENTER, 1, 1);
+
+        assertTrue(source.started.isEmpty());
+    }
+
+    @Test
+    public void turningBackDropsTheQueuedReads() {
+        HeldSource source = new HeldSource();
+        FlingPrefetcher prefetcher = new FlingPrefetcher(fetcher(source, 1), 2, 2, 1, 0.5f);
+
+        prefetcher.onFling(CENTER, cell(20, 0), 50, 0);
+        assertEquals(1, source.started.size()); // The rest wait for the single slot
+        prefetcher.onDrag(cell(3, 0), -30, 0);
+        assertEquals(1, prefetcher.getCancelCount());
+
+        // Each released read lets the next queued one start, until the queue is drained
+        while (!source.held.isEmpty()) {
+            source.releaseAll();
+        }
+        for (long cellId : source.started.subList(1, source.started.size())) {
+            int column = NearbyCellUtils.columnOf(cellId) - NearbyCellUtils.columnOf(CENTER);
+            assertTrue("Read from the dropped window: " + column, column < 5);
+        }
+        assertFalse(source.started.size() == 1);
+    }
+}
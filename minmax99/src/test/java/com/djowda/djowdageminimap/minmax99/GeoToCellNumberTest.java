@@ -0,0 +1,99 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.junit.Test;
+
+import java.nio.DoubleBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class GeoToCellNumberTest {
+
+    private static final int POINTS = 100_000;
+
+    private static double[][] randomPoints(long seed, int count) {
+        Random random = new Random(seed);
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        for (int i = 0; i < count; i++) {
+            lats[i] = random.nextDouble() * 170 - 85;
+            lons[i] = random.nextDouble() * 360 - 180;
+        }
+        return new double[][]{lats, lons};
+    }
+
+    private static long[] scalar(double[] lats, double[] lons) {
+        long[] expected = new long[lats.length];
+        for (int i = 0; i < lats.length; i++) {
+            expected[i] = GeoToCellNumber.geoToCellNumber(lats[i], lons[i]);
+        }
+        return expected;
+    }
+
+    @Test
+    public void batch_matchesScalar() {
+        double[][] points = randomPoints(42, POINTS);
+        long[] out = new long[POINTS];
+
+        GeoToCellNumber.geoToCellNumbers(points[0], points[1], out, POINTS);
+
+        assertArrayEquals(scalar(points[0], points[1]), out);
+    }
+
+    @Test
+    public void parallel_matchesScalar() {
+        double[][] points = randomPoints(7, POINTS);
+        long[] out = new long[POINTS];
+
+        GeoToCellNumber.geoToCellNumbersParallel(points[0], points[1], out, POINTS);
+
+        assertArrayEquals(scalar(points[0], points[1]), out);
+    }
+
+    @Test
+    public void buffers_matchScalar() {
+        double[][] points = randomPoints(3, 1_000);
+        long[] expected = scalar(points[0], points[1]);
+
+        long[] heapOut = new long[1_000];
+        DoubleBuffer lats = DoubleBuffer.wrap(points[0]);
+        DoubleBuffer lons = DoubleBuffer.wrap(points[1]);
+        assertEquals(1_000, GeoToCellNumber.geoToCellNumbers(lats, lons, heapOut, 0));
+        assertEquals(0, lats.remaining());
+        assertArrayEquals(expected, heapOut);
+
+        long[] directOut = new long[1_000];
+        DoubleBuffer directLats = java.nio.ByteBuffer.allocateDirect(8 * 1_000).asDoubleBuffer().put(points[0]);
+        DoubleBuffer directLons = java.nio.ByteBuffer.allocateDirect(8 * 1_000).asDoubleBuffer().put(points[1]);
+        directLats.flip();
+        directLons.flip();
+        GeoToCellNumber.geoToCellNumbers(directLats, directLons, directOut, 0);
+        assertArrayEquals(expected, directOut);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void batch_rejectsShortOutput() {
+        GeoToCellNumber.geoToCellNumbers(new double[4], new double[4], new long[3], 4);
+    }
+}
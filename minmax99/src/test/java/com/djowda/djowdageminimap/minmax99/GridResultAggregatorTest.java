@@ -0,0 +1,153 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GridResultAggregatorTest {
+
+    private static final long CENTER = 644966003L;
+
+    private static List<Component> store(long cellId) {
+        return Collections.singletonList(new Component("c" + cellId, "Store", true, cellId));
+    }
+
+    @Test
+    public void slotsRoundTripEveryViewportCell() {
+        for (int range : new int[]{0, 1, 20, 50}) {
+            GridResultAggregator aggregator = new GridResultAggregator(new CellIdMapper(CENTER, range));
+            boolean[] used = new boolean[(2 * range + 1) * (2 * range + 1)];
+            NearbyCellUtils.forEachNearbyCellId(CENTER, range, cellId -> {
+                int slot = aggregator.slotOf(cellId);
+                assertTrue(slot >= 0 && !used[slot]);
+                used[slot] = true;
+                assertEquals(cellId, aggregator.cellIdOf(slot));
+            });
+        }
+        GridResultAggregator aggregator = new GridResultAggregator(new CellIdMapper(CENTER, 2));
+        assertEquals(-1, aggregator.slotOf(CENTER + 3));
+        assertEquals(-1, aggregator.slotOf(CENTER + 42000L * 3));
+    }
+
+    @Test
+    public void mapViewMatchesWhatWasPut() {
+        GridResultAggregator aggregator = new GridResultAggregator(new CellIdMapper(CENTER, 3));
+        Map<Long, List<Component>> expected = new HashMap<>();
+        NearbyCellUtils.forEachNearbyCellId(CENTER, 3, cellId -> {
+            if (cellId % 4 == 1) {
+                expected.put(cellId, store(cellId));
+                aggregator.put(cellId, expected.get(cellId));
+            }
+        });
+        Map<Long, List<Component>> view = aggregator.toMap();
+        assertEquals(expected, view);
+        assertEquals(expected.size(), view.size());
+        assertNull(view.get(CENTER + 42000L * 10));
+        assertNull(view.get("not a cell"));
+    }
+
+    @Test
+    public void noResultLostUnderParallelPublication() throws Exception {
+        int range = 50;
+        int threads = 8;
+        long[] cells = new long[NearbyCellUtils.maxNearbyCellCount(range)];
+        int count = NearbyCellUtils.fillNearbyCellIds(CENTER, range, cells);
+
+        for (int round = 0; round < 50; round++) {
+            GridResultAggregator aggregator = new GridResultAggregator(new CellIdMapper(CENTER, range));
+            CyclicBarrier start = new CyclicBarrier(threads);
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        // Interleaved stripes so neighbouring slots are written by different threads
+                        for (int i = offset; i < count; i += threads) {
+                            aggregator.put(cells[i], store(cells[i]));
+                        }
+                    } catch (Exception e) {
+                        throw new AssertionError(e);
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            Map<Long, List<Component>> view = aggregator.toMap();
+            assertEquals(count, view.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(cells[i], view.get(cells[i]).get(0).getCellId());
+            }
+        }
+    }
+
+    @Test
+    public void fetcherLosesNothingUnderConcurrentCallbacks() throws Exception {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        Map<Long, List<Component>> expected = new HashMap<>();
+        Random random = new Random(13);
+        NearbyCellUtils.forEachNearbyCellId(CENTER, 30, cellId -> {
+            if (random.nextBoolean()) {
+                expected.put(cellId, store(cellId));
+                source.put(cellId, expected.get(cellId));
+            }
+        });
+        source.setLatency(0, 200, TimeUnit.MICROSECONDS);
+        // Leaf reads, many in flight, completing on the stand-in's thread pool
+        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(source,
+                new FetchPlanner(new FetchPlanner.CostModel(0, 1, 1)), new FetchScheduler(256));
+
+        for (int round = 0; round < 5; round++) {
+            CompletableFuture<NearbyComponentFetcher.FetchResult> future = new CompletableFuture<>();
+            fetcher.fetchNearbyComponents(CENTER, 30, new NearbyComponentFetcher.OnFetchComplete() {
+                @Override
+                public void onResult(NearbyComponentFetcher.FetchResult result) {
+                    future.complete(result);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            assertEquals(expected, future.get(10, TimeUnit.SECONDS).cellComponents);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LiveCellSubscriptionsTest {
+
+    private static final long CENTER = 644966003L;
+    private static final long COLUMN = 42000L;
+
+    // Records events as "added/changed/removed cellId componentId"
+    private static final class Recorder implements CellChangeSource.ChangeListener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onComponentAdded(long cellId, Component component) {
+            events.add("added " + cellId + " " + component.getId());
+        }
+
+        @Override
+        public void onComponentChanged(long cellId, Component component) {
+            events.add("changed " + cellId + " " + component.getId() + (component.isOpen() ? " open" : " closed"));
+        }
+
+        @Override
+        public void onComponentRemoved(long cellId, String componentId) {
+            events.add("removed " + cellId + " " + componentId);
+        }
+
+        @Override
+        public void onError(long cellId, Exception e) {
+            events.add("error " + cellId);
+        }
+    }
+
+    private static Component store(long cellId, String id, boolean open) {
+        return new Component(id, "Store", open, cellId);
+    }
+
+    @Test
+    public void listensToTheViewportAndItsMargin() {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        LiveCellSubscriptions live = new LiveCellSubscriptions(source, new Recorder(), 1, 1000);
+        live.setViewport(CENTER, 2);
+
+        assertEquals(49, live.getListenerCount());
+        assertEquals(49, source.getListenedCellCount());
+        assertTrue(live.isLive(CENTER + 3 * COLUMN + 3));
+        assertFalse(live.isLive(CENTER + 4 * COLUMN));
+    }
+
+    @Test
+    public void deliversOnlyChangesMadeAfterAttaching() {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        source.put(CENTER, Collections.singletonList(store(CENTER, "a", true)));
+        Recorder recorder = new Recorder();
+        LiveCellSubscriptions live = new LiveCellSubscriptions(source, recorder, 0, 1000);
+        live.setViewport(CENTER, 1);
+
+        source.put(CENTER, Arrays.asList(store(CENTER, "a", false), store(CENTER, "b", true)));
+        source.put(CENTER, Collections.singletonList(store(CENTER, "b", true)));
+
+        // The existing component is not replayed: the grid has it from the fetch
+        assertEquals(Arrays.asList(
+                "changed " + CENTER + " a closed",
+                "added " + CENTER + " b",
+                "removed " + CENTER + " a"), recorder.events);
+    }
+
+    @Test
+    public void directSubscriptionsReplayExistingComponents() {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        source.put(CENTER, Collections.singletonList(store(CENTER, "a", true)));
+        Recorder recorder = new Recorder();
+        source.subscribe(CENTER, recorder);
+
+        assertEquals(Collections.singletonList("added " + CENTER + " a"), recorder.events);
+    }
+
+    @Test
+    public void panningDetachesCellsThatLeave() {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        Recorder recorder = new Recorder();
+        LiveCellSubscriptions live = new LiveCellSubscriptions(source, recorder, 0, 1000);
+        live.setViewport(CENTER, 1);
+        live.setViewport(CENTER + 2 * COLUMN, 1);
+
+        // One column stays, two leave and two enter
+        assertEquals(9, live.getListenerCount());
+        assertEquals(15, live.getAttachCount());
+        assertEquals(6, live.getDetachCount());
+        assertEquals(9, source.getListenedCellCount());
+
+        long left = CENTER - COLUMN;
+        source.put(left, Collections.singletonList(store(left, "gone", true)));
+        assertTrue(recorder.events.isEmpty());
+    }
+
+    @Test
+    public void listenerCountStaysWithinTheBound() {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        LiveCellSubscriptions live = new LiveCellSubscriptions(source, new Recorder(), 2, 100);
+        live.setViewport(CENTER, 20);
+
+        // The largest square around the center that fits: 9 x 9
+        assertEquals(81, live.getListenerCount());
+        assertTrue(live.isLive(CENTER + 4 * COLUMN + 4));
+        for (int step = 1; step <= 50; step++) {
+            live.setViewport(CENTER + step * COLUMN, 20);
+            assertTrue(source.getListenedCellCount() <= 100);
+        }
+    }
+
+    @Test
+    public void clearDetachesEverything() {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        LiveCellSubscriptions live = new LiveCellSubscriptions(source, new Recorder(), 1, 1000);
+        live.setViewport(CENTER, 3);
+        live.clear();
+
+        assertEquals(0, live.getListenerCount());
+        assertEquals(0, source.getListenedCellCount());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LiveChangeTest {
+
+    private static final long CELL = 644966003L;
+    private static final long OTHER = CELL + 1;
+    private static final long HIDDEN = CELL + 2;
+
+    private final Map<Integer, List<Component>> grid = new HashMap<>();
+
+    private static Component store(long cellId, String id, boolean open) {
+        return new Component(id, "Store", open, cellId);
+    }
+
+    private static int positionOf(long cellId) {
+        return cellId == CELL ? 0 : cellId == OTHER ? 1 : -1;
+    }
+
+    private List<TileUpdate> toTiles(LiveChange... batch) {
+        return LiveChange.toTiles(Arrays.asList(batch), LiveChangeTest::positionOf,
+                position -> grid.getOrDefault(position, Collections.emptyList()));
+    }
+
+    @Test
+    public void aBurstOnOneCellBecomesOneTile() {
+        List<Component> shown = Collections.singletonList(store(CELL, "a", true));
+        grid.put(0, shown);
+
+        List<TileUpdate> tiles = toTiles(
+                LiveChange.upsert(CELL, store(CELL, "a", false)),
+                LiveChange.upsert(CELL, store(CELL, "b", true)),
+                LiveChange.upsert(OTHER, store(OTHER, "c", true)),
+                LiveChange.removal(CELL, "a"));
+
+        assertEquals(2, tiles.size());
+        assertEquals(0, tiles.get(0).gridPosition);
+        assertEquals(CELL, tiles.get(0).cellId);
+        assertEquals(Collections.singletonList(store(CELL, "b", true)), tiles.get(0).components);
+        assertEquals(Collections.singletonList(store(OTHER, "c", true)), tiles.get(1).components);
+        assertEquals(Collections.singletonList(store(CELL, "a", true)), shown);
+    }
+
+    @Test
+    public void removingTheLastComponentEmptiesTheTile() {
+        grid.put(0, Collections.singletonList(store(CELL, "a", true)));
+
+        List<TileUpdate> tiles = toTiles(LiveChange.removal(CELL, "a"), LiveChange.removal(CELL, "gone"));
+
+        assertEquals(1, tiles.size());
+        assertTrue(tiles.get(0).components.isEmpty());
+    }
+
+    @Test
+    public void changesToHiddenCellsAreDropped() {
+        assertTrue(toTiles(LiveChange.upsert(HIDDEN, store(HIDDEN, "a", true))).isEmpty());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoadedAreaTest {
+
+    private static final long CENTER = 644966003L;
+    private static final int ROWS = 42000;
+    private static final int RANGE = 3;
+
+    // Fake backend: every cell holds one component, reads finish only when the test says so
+    private static final class HeldDataSource implements CellDataSource {
+        final List<Runnable> pending = new ArrayList<>();
+
+        @Override
+        public void readCell(long cellId, ReadCallback callback) {
+            pending.add(() -> {
+                callback.onCell(cellId, Collections.singletonList(new Component("c" + cellId, "Store", true, cellId)));
+                callback.onComplete();
+            });
+        }
+
+        @Override
+        public void readParent(long parentId, ReadCallback callback) {
+            throw new UnsupportedOperationException("Leaf-only plan expected");
+        }
+
+        void finishAll() {
+            while (!pending.isEmpty()) {
+                pending.remove(0).run();
+            }
+        }
+    }
+
+    // The map's navigation loop with the grid reduced to the set of cells it holds
+    private static final class Map {
+        final HeldDataSource source = new HeldDataSource();
+        final NearbyComponentFetcher fetcher = new NearbyComponentFetcher(source,
+                new FetchPlanner(new FetchPlanner.CostModel(0, 1, 1)), new FetchScheduler(1000));
+        final FetchGeneration generation = new FetchGeneration();
+        final LoadedArea loaded = new LoadedArea();
+        final Set<Long> grid = new HashSet<>();
+
+        void navigate(long center) {
+            CellIdMapper target = new CellIdMapper(center, RANGE);
+            ViewportDelta delta = loaded.deltaTo(target);
+            FetchGeneration.Token token = generation.next();
+            if (delta.isFullRefresh()) {
+                grid.clear();
+                loaded.clear();
+            } else {
+                grid.removeIf(cellId -> target.getPosition(cellId) == -1);
+                loaded.retain(target);
+            }
+            fetcher.fetchEnteringComponents(delta, FetchScheduler.Priority.USER, token,
+                    new NearbyComponentFetcher.OnFetchComplete() {
+                        @Override
+                        public void onResult(NearbyComponentFetcher.FetchResult result) {
+                            grid.addAll(result.cellComponents.keySet());
+                            if (token.isCurrent() && result.failedCellIds.length == 0) {
+                                loaded.markLoaded(target);
+                            }
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                        }
+                    });
+        }
+
+        Set<Long> expected(long center) {
+            Set<Long> cells = new HashSet<>();
+            new CellIdMapper(center, RANGE).forEachCellId(cells::add);
+            return cells;
+        }
+    }
+
+    @Test
+    public void interruptedDisjointMoveReloadsTheWholeViewportOnReturn() {
+        Map map = new Map();
+        map.navigate(CENTER);
+        map.source.finishAll();
+        assertEquals(map.expected(CENTER), map.grid);
+
+        map.navigate(CENTER + 100L * ROWS); // Reads held: interrupted before any cell lands
+        map.navigate(CENTER);
+        map.source.finishAll();
+
+        assertEquals(map.expected(CENTER), map.grid);
+    }
+
+    @Test
+    public void interruptedOverlappingMoveReloadsTheDroppedCellsOnReturn() {
+        Map map = new Map();
+        map.navigate(CENTER);
+        map.source.finishAll();
+
+        map.navigate(CENTER + 2L * ROWS + 1); // Drops the cells outside the overlap
+        map.navigate(CENTER);
+        map.source.finishAll();
+
+        assertEquals(map.expected(CENTER), map.grid);
+    }
+
+    @Test
+    public void completedMoveLeavesOnlyTheNewEdgeToRead() {
+        LoadedArea area = new LoadedArea();
+        CellIdMapper first = new CellIdMapper(CENTER, RANGE);
+        area.markLoaded(first);
+        assertEquals(49, area.getCellCount());
+
+        CellIdMapper next = new CellIdMapper(CENTER + ROWS, RANGE);
+        ViewportDelta delta = area.deltaTo(next);
+        assertEquals(7, delta.getEnteringCount());
+        assertEquals(42, delta.getStayingCount());
+    }
+
+    @Test
+    public void retainShrinksToTheOverlap() {
+        LoadedArea area = new LoadedArea();
+        area.markLoaded(new CellIdMapper(CENTER, RANGE));
+        area.retain(new CellIdMapper(CENTER + 2L * ROWS + 1, RANGE));
+
+        assertEquals(5 * 6, area.getCellCount());
+        assertTrue(area.contains(CENTER));
+        assertFalse(area.contains(CENTER - 3)); // Row above the overlap
+        assertFalse(area.contains(CENTER - 2L * ROWS)); // Column left of the overlap
+        assertEquals(49 - 30, area.deltaTo(new CellIdMapper(CENTER, RANGE)).getEnteringCount());
+
+        area.retain(new CellIdMapper(CENTER + 100L * ROWS, RANGE));
+        assertTrue(area.isEmpty());
+        assertEquals(49, area.deltaTo(new CellIdMapper(CENTER, RANGE)).getEnteringCount());
+    }
+
+    @Test
+    public void emptyAreaMakesEveryCellEnter() {
+        LoadedArea area = new LoadedArea();
+        ViewportDelta delta = area.deltaTo(new CellIdMapper(1L, RANGE));
+        assertTrue(delta.isFullRefresh());
+        assertEquals(16, delta.getEnteringCount());
+    }
+}
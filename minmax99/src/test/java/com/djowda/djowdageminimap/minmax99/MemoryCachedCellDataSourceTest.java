@@ -0,0 +1,245 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryCachedCellDataSourceTest {
+
+    private static final long CELL = 644966003L;
+    private static final long PARENT = MinMaxPathGenerator.parentOf(CELL);
+
+    // Synchronous backend: CELL holds one store, everything else is empty
+    private static final class Backend implements CellDataSource {
+        int cellReads;
+        int parentReads;
+        boolean failing;
+
+        @Override
+        public void readCell(long cellId, ReadCallback callback) {
+            cellReads++;
+            if (failing) {
+                callback.onError(new IOException("down"));
+                return;
+            }
+            if (cellId == CELL) {
+                callback.onCell(CELL, store("Store"));
+            }
+            callback.onComplete();
+        }
+
+        @Override
+        public void readParent(long parentId, ReadCallback callback) {
+            parentReads++;
+            if (parentId == PARENT) {
+                callback.onCell(CELL, store("Store"));
+            }
+            callback.onComplete();
+        }
+    }
+
+    private static final class Recorder implements CellDataSource.ReadCallback {
+        final Map<Long, List<Component>> cells = new HashMap<>();
+        boolean completed;
+        Exception error;
+
+        @Override
+        public void onCell(long cellId, List<Component> components) {
+            cells.put(cellId, components);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        @Override
+        public void onError(Exception e) {
+            error = e;
+        }
+    }
+
+    private static List<Component> store(String name) {
+        return Collections.singletonList(new Component("c" + CELL, name, true, CELL));
+    }
+
+    private static Recorder read(CellDataSource source, long cellId) {
+        Recorder recorder = new Recorder();
+        source.readCell(cellId, recorder);
+        return recorder;
+    }
+
+    @Test
+    public void secondReadIsServedFromMemory() {
+        Backend backend = new Backend();
+        MemoryCachedCellDataSource source = new MemoryCachedCellDataSource(backend);
+        read(source, CELL);
+        Recorder recorder = read(source, CELL);
+
+        assertTrue(recorder.completed);
+        assertEquals(store("Store"), recorder.cells.get(CELL));
+        assertEquals(1, backend.cellReads);
+        assertEquals(1, source.getCache().getHitCount());
+        assertEquals(1, source.getCache().getMissCount());
+    }
+
+    @Test
+    public void emptyCellsAreCached() {
+        Backend backend = new Backend();
+        MemoryCachedCellDataSource source = new MemoryCachedCellDataSource(backend);
+        read(source, CELL + 1);
+        Recorder recorder = read(source, CELL + 1);
+
+        assertTrue(recorder.completed);
+        assertTrue(recorder.cells.isEmpty());
+        assertEquals(1, backend.cellReads);
+    }
+
+    @Test
+    public void entriesPastTheMaxAgeAreReadAgain() {
+        Backend backend = new Backend();
+        long[] now = {0};
+        MemoryCachedCellDataSource source = new MemoryCachedCellDataSource(backend,
+                MemoryCachedCellDataSource.DEFAULT_MAX_BYTES, 1_000, () -> now[0]);
+        read(source, CELL);
+        source.readParent(PARENT, new Recorder());
+        now[0] = 999;
+        read(source, CELL);
+        source.readParent(PARENT, new Recorder());
+        assertEquals(1, backend.cellReads);
+        assertEquals(1, backend.parentReads);
+
+        now[0] = 1_000;
+        assertEquals(store("Store"), read(source, CELL).cells.get(CELL));
+        source.readParent(PARENT, new Recorder());
+        assertEquals(2, backend.cellReads);
+        assertEquals(2, backend.parentReads);
+    }
+
+    @Test
+    public void hotCellsStillReachTheDeviceCachesRevalidation() {
+        Backend backend = new Backend();
+        long[] now = {0};
+        CachingCellDataSource.TtlPolicy ttl = new CachingCellDataSource.TtlPolicy(1_000, 10_000);
+        CachingCellDataSource device = new CachingCellDataSource(backend, new InMemoryCellStore(), ttl,
+                Runnable::run, new FetchScheduler(), () -> now[0]);
+        MemoryCachedCellDataSource source = new MemoryCachedCellDataSource(device,
+                MemoryCachedCellDataSource.DEFAULT_MAX_BYTES, ttl.freshMillis, () -> now[0]);
+        read(source, CELL);
+
+        // Read every tick: each memory hit would have hidden the entry's age from the device cache
+        for (now[0] = 100; now[0] <= 1_500; now[0] += 100) {
+            read(source, CELL);
+        }
+
+        assertEquals(1, device.getRevalidationCount());
+        assertEquals(2, backend.cellReads);
+    }
+
+    @Test
+    public void failedReadsAreNotCached() {
+        Backend backend = new Backend();
+        MemoryCachedCellDataSource source = new MemoryCachedCellDataSource(backend);
+        backend.failing = true;
+        assertTrue(read(source, CELL).error instanceof IOException);
+        backend.failing = false;
+
+        assertEquals(store("Store"), read(source, CELL).cells.get(CELL));
+        assertEquals(2, backend.cellReads);
+    }
+
+    @Test
+    public void cachedParentAnswersItsLeaves() {
+        Backend backend = new Backend();
+        MemoryCachedCellDataSource source = new MemoryCachedCellDataSource(backend);
+        source.readParent(PARENT, new Recorder());
+
+        assertEquals(store("Store"), read(source, CELL).cells.get(CELL));
+        assertTrue(read(source, CELL + 1).completed);
+        assertEquals(0, backend.cellReads);
+        assertEquals(1, backend.parentReads);
+    }
+
+    @Test
+    public void updateReplacesCellAndDropsParent() {
+        Backend backend = new Backend();
+        MemoryCachedCellDataSource source = new MemoryCachedCellDataSource(backend);
+        source.readParent(PARENT, new Recorder());
+        source.update(CELL, store("Renamed"));
+
+        assertEquals(store("Renamed"), read(source, CELL).cells.get(CELL));
+        source.readParent(PARENT, new Recorder());
+        assertEquals(2, backend.parentReads);
+    }
+
+    @Test
+    public void unchangedUpdateKeepsTheParent() {
+        Backend backend = new Backend();
+        MemoryCachedCellDataSource source = new MemoryCachedCellDataSource(backend);
+        source.readParent(PARENT, new Recorder());
+        source.update(CELL, store("Store"));
+        source.update(CELL + 1, Collections.emptyList());
+        source.readParent(PARENT, new Recorder());
+
+        assertEquals(1, backend.parentReads);
+    }
+
+    @Test
+    public void revisitedNeighborhoodIsFetchedFromMemory() throws Exception {
+        Backend backend = new Backend();
+        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(new MemoryCachedCellDataSource(backend));
+        fetch(fetcher);
+        int reads = backend.cellReads + backend.parentReads;
+        NearbyComponentFetcher.FetchResult again = fetch(fetcher);
+
+        assertEquals(store("Store"), again.cellComponents.get(CELL));
+        assertEquals(reads, backend.cellReads + backend.parentReads);
+    }
+
+    private static NearbyComponentFetcher.FetchResult fetch(NearbyComponentFetcher fetcher) throws Exception {
+        CompletableFuture<NearbyComponentFetcher.FetchResult> result = new CompletableFuture<>();
+        fetcher.fetchNearbyComponents(CELL, 3, new NearbyComponentFetcher.OnFetchComplete() {
+            @Override
+            public void onResult(NearbyComponentFetcher.FetchResult fetched) {
+                result.complete(fetched);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.get(5, TimeUnit.SECONDS);
+    }
+}
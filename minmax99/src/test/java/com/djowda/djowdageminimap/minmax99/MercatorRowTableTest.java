@@ -0,0 +1,67 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MercatorRowTableTest {
+
+    @Test
+    public void latitudeToRow_agreesWithFormulaAtEveryBoundary() {
+        for (int row = 0; row <= GeoToCellNumber.NUM_ROWS; row++) {
+            double threshold = MercatorRowTable.thresholdLatitude(row);
+            double[] probes = {
+                    Math.nextDown(threshold), threshold, Math.nextUp(threshold),
+                    MercatorRowTable.rowToLatitudeByFormula(row)
+            };
+            for (double lat : probes) {
+                assertEquals("latitude " + lat, MercatorRowTable.latitudeToRowByFormula(lat),
+                        MercatorRowTable.latitudeToRow(lat));
+            }
+        }
+    }
+
+    @Test
+    public void latitudeToRow_agreesWithFormulaOnRandomAndEdgeInputs() {
+        Random random = new Random(11);
+        for (int i = 0; i < 200_000; i++) {
+            double lat = random.nextDouble() * 180 - 90;
+            assertEquals(MercatorRowTable.latitudeToRowByFormula(lat), MercatorRowTable.latitudeToRow(lat));
+        }
+        double[] edges = {90, -90, 89.999, -89.999, 85.0511287798, 0, -0.0, Double.NaN};
+        for (double lat : edges) {
+            assertEquals("latitude " + lat, MercatorRowTable.latitudeToRowByFormula(lat),
+                    MercatorRowTable.latitudeToRow(lat));
+        }
+    }
+
+    @Test
+    public void rowToLatitude_agreesWithFormulaForEveryRow() {
+        for (int row = 0; row <= GeoToCellNumber.NUM_ROWS; row++) {
+            assertEquals(Double.doubleToLongBits(MercatorRowTable.rowToLatitudeByFormula(row)),
+                    Double.doubleToLongBits(MercatorRowTable.rowToLatitude(row)));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MinMaxPathGeneratorTest {
+
+    @Test
+    public void longOverload_matchesFormatter() {
+        Random random = new Random(5);
+        long[] edges = {0, 1, 999, 1000, 999_999, 1_000_000, 644966003L, 3_443_999_999L,
+                -1, -1_000_001, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long cell : edges) {
+            assertEquals(MinMaxPathGenerator.constructDbPathFormatted(cell), MinMaxPathGenerator.constructDbPath(cell));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            long cell = random.nextLong() % 10_000_000_000L;
+            assertEquals(MinMaxPathGenerator.constructDbPathFormatted(cell), MinMaxPathGenerator.constructDbPath(cell));
+            assertEquals(MinMaxPathGenerator.constructDbPath(cell),
+                    MinMaxPathGenerator.constructDbPath(String.valueOf(cell)));
+        }
+    }
+
+    @Test
+    public void neighborhoodBatch_matchesPerCellPaths() {
+        long center = 644966003L;
+        String[] paths = new String[NearbyCellUtils.maxNearbyCellCount(20)];
+        int count = MinMaxPathGenerator.constructNeighborhoodDbPaths(center, 20, paths);
+
+        long[] cells = new long[paths.length];
+        assertEquals(count, NearbyCellUtils.fillNearbyCellIds(center, 20, cells));
+        String[] batch = new String[count];
+        MinMaxPathGenerator.constructDbPaths(cells, count, batch);
+        for (int i = 0; i < count; i++) {
+            assertEquals(MinMaxPathGenerator.constructDbPathFormatted(cells[i]), paths[i]);
+            assertEquals(paths[i], batch[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stringOverload_rejectsGarbage() {
+        MinMaxPathGenerator.constructDbPath("12a");
+    }
+}
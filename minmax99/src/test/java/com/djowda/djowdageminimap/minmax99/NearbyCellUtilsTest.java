@@ -0,0 +1,107 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NearbyCellUtilsTest {
+
+    // Map center, first column, last row of a column and the last cell of the map
+    private static final long[] CENTERS = {644966003L, 1L, 42_000L, 82_000L * 42_000L};
+
+    // The original nested-loop enumeration, kept as the reference order
+    private static long[] reference(long currentCellId, int range) {
+        List<Long> ids = new ArrayList<>();
+        int col = (int) ((currentCellId - 1) / 42000);
+        int row = (int) ((currentCellId - 1) % 42000);
+        for (int c = col - range; c <= col + range; c++) {
+            for (int r = row - range; r <= row + range; r++) {
+                if (c >= 0 && c < 82000 && r >= 0 && r < 42000) {
+                    ids.add((long) c * 42000 + r + 1);
+                }
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Test
+    public void primitiveVariants_matchReferenceOrder() {
+        for (long center : CENTERS) {
+            for (int range : new int[]{0, 1, 20, 50}) {
+                long[] expected = reference(center, range);
+
+                long[] buffer = new long[NearbyCellUtils.maxNearbyCellCount(range)];
+                int count = NearbyCellUtils.fillNearbyCellIds(center, range, buffer);
+                assertArrayEquals(expected, java.util.Arrays.copyOf(buffer, count));
+
+                List<Long> visited = new ArrayList<>();
+                NearbyCellUtils.forEachNearbyCellId(center, range, visited::add);
+                assertArrayEquals(expected, visited.stream().mapToLong(Long::longValue).toArray());
+
+                assertArrayEquals(expected, NearbyCellUtils.nearbyCellIds(center, range).toArray());
+                assertEquals(expected.length, NearbyCellUtils.countNearbyCells(center, range));
+                assertEquals(expected.length, NearbyCellUtils.getNearbyCellIds(center, range).size());
+            }
+        }
+    }
+
+    @Test
+    public void getNearbyCellIds_rangeThreeIsSevenBySevenAroundCenter() {
+        long center = 644966003L;
+        List<Long> ids = NearbyCellUtils.getNearbyCellIds(center, 3);
+        assertEquals(49, ids.size());
+        assertEquals(center - 3L * 42000 - 3, (long) ids.get(0));
+        assertEquals(center, (long) ids.get(24));
+        assertEquals(center + 3L * 42000 + 3, (long) ids.get(48));
+    }
+
+    @Test
+    public void isNearby_matchesEnumeration() {
+        long center = 644966003L;
+        for (long id : reference(center, 3)) {
+            assertTrue(NearbyCellUtils.isNearby(center, 3, id));
+        }
+        assertFalse(NearbyCellUtils.isNearby(center, 3, center + 4));
+        assertFalse(NearbyCellUtils.isNearby(center, 3, center + 4L * 42000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fill_rejectsSmallBuffer() {
+        NearbyCellUtils.fillNearbyCellIds(644966003L, 2, new long[24]);
+    }
+
+    @Test
+    public void offsetCell_stopsAtMapEdges() {
+        long center = 644966003L;
+        assertEquals(center + 3L * 42000 - 2, NearbyCellUtils.offsetCell(center, 3, -2));
+        assertEquals(-1, NearbyCellUtils.offsetCell(1, -1, 0));
+        assertEquals(-1, NearbyCellUtils.offsetCell(1, 0, -1));
+        assertEquals(2, NearbyCellUtils.offsetCell(1, 0, 1));
+    }
+}
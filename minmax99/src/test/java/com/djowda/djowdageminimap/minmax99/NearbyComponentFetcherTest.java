@@ -0,0 +1,117 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NearbyComponentFetcherTest {
+
+    private static final long CENTER = 644966003L;
+
+    private static CompletableFuture<NearbyComponentFetcher.FetchResult> fetch(NearbyComponentFetcher fetcher,
+                                                                              long center, int range) {
+        CompletableFuture<NearbyComponentFetcher.FetchResult> future = new CompletableFuture<>();
+        fetcher.fetchNearbyComponents(center, range, new NearbyComponentFetcher.OnFetchComplete() {
+            @Override
+            public void onResult(NearbyComponentFetcher.FetchResult result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private static List<Component> store(long cellId) {
+        return Collections.singletonList(new Component("id" + cellId, "Store", true, cellId));
+    }
+
+    @Test
+    public void returnsExactlyTheOccupiedViewportCells() throws Exception {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        Map<Long, List<Component>> expected = new HashMap<>();
+        NearbyCellUtils.forEachNearbyCellId(CENTER, 5, cellId -> {
+            if (cellId % 3 == 0) {
+                expected.put(cellId, store(cellId));
+            }
+        });
+        expected.forEach(source::put);
+        // Same parent, outside the viewport: must not leak into the result
+        source.put(CENTER + 100, store(CENTER + 100));
+
+        for (FetchPlanner.CostModel model : new FetchPlanner.CostModel[]{
+                FetchPlanner.CostModel.DEFAULT, new FetchPlanner.CostModel(0, 1, 1)}) {
+            NearbyComponentFetcher fetcher = new NearbyComponentFetcher(source, new FetchPlanner(model));
+            NearbyComponentFetcher.FetchResult result = fetch(fetcher, CENTER, 5).get(5, TimeUnit.SECONDS);
+            assertEquals(expected, result.cellComponents);
+        }
+    }
+
+    @Test
+    public void latencyDelaysTheResult() throws Exception {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        source.setLatency(50, 10, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        fetch(new NearbyComponentFetcher(source), CENTER, 3).get(5, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void injectedFailureSurfacesAsError() throws Exception {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        source.setFailureRate(1);
+        try {
+            fetch(new NearbyComponentFetcher(source), CENTER, 3).get(5, TimeUnit.SECONDS);
+            throw new AssertionError("Expected a failure");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertEquals(source.getRequestCount(), source.getFailureCount());
+    }
+
+    @Test
+    public void generatedCellsAreStableAcrossReads() throws Exception {
+        InMemoryCellDataSource source = InMemoryCellDataSource.withRandomComponents(0.3f);
+        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(source);
+        Map<Long, List<Component>> first = fetch(fetcher, CENTER, 10).get(5, TimeUnit.SECONDS).cellComponents;
+        Map<Long, List<Component>> second = fetch(fetcher, CENTER, 10).get(5, TimeUnit.SECONDS).cellComponents;
+        assertEquals(first, second);
+        assertTrue(!first.isEmpty());
+    }
+}
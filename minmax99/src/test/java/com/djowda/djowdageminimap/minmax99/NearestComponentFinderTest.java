@@ -0,0 +1,142 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class NearestComponentFinderTest {
+
+    private static final long CENTER = 644966003L;
+    private static final int ROWS = 42000;
+
+    private InMemoryCellDataSource source;
+    private NearestComponentFinder finder;
+
+    private static final class Result {
+        final List<NearestComponentFinder.Match> matches;
+        final int cellsVisited;
+
+        Result(List<NearestComponentFinder.Match> matches, int cellsVisited) {
+            this.matches = matches;
+            this.cellsVisited = cellsVisited;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        source = new InMemoryCellDataSource();
+        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(source);
+        finder = new NearestComponentFinder(fetcher::fetchRingComponents);
+    }
+
+    private void place(long cellId, String name) {
+        source.put(cellId, Collections.singletonList(new Component(name + cellId, name, true, cellId)));
+    }
+
+    private Result find(int k, int maxRange) throws Exception {
+        return find(CENTER, k, maxRange);
+    }
+
+    private Result find(long center, int k, int maxRange) throws Exception {
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        finder.findNearest(center, k, maxRange, component -> "Farmer".equals(component.getName()),
+                new NearestComponentFinder.OnNearestFound() {
+                    @Override
+                    public void onResult(List<NearestComponentFinder.Match> matches, int cellsVisited) {
+                        result.complete(new Result(matches, cellsVisited));
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        result.completeExceptionally(e);
+                    }
+                });
+        return result.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void resultsAreClosestFirstAndCappedAtK() throws Exception {
+        place(CENTER + 3L * ROWS, "Farmer");  // 3 cells east
+        place(CENTER + 1, "Farmer");          // 1 cell south
+        place(CENTER - 2L * ROWS - 2, "Farmer"); // sqrt(8) cells north-west
+        place(CENTER + 2, "Store");           // Filtered out
+
+        Result result = find(2, 5);
+
+        assertEquals(2, result.matches.size());
+        assertEquals(CENTER + 1, result.matches.get(0).cellId);
+        assertEquals(CENTER - 2L * ROWS - 2, result.matches.get(1).cellId);
+        assertEquals(GeoToCellNumber.CELL_SIZE_METERS, result.matches.get(0).distanceMeters, 1e-9);
+    }
+
+    @Test
+    public void stopsOnceTheKthMatchIsWithinTheNextRing() throws Exception {
+        place(CENTER + 1, "Farmer");
+        place(CENTER + 10L * ROWS, "Farmer"); // Never reached
+
+        // Ring 1 holds a match at distance 1 <= (1 + 1)^2, so ring 2 is not read
+        Result result = find(1, 20);
+
+        assertEquals(1, result.matches.size());
+        assertEquals(CENTER + 1, result.matches.get(0).cellId);
+        assertEquals(1 + 8, result.cellsVisited);
+    }
+
+    @Test
+    public void cornerMatchWaitsForTheRingsThatCouldBeatIt() throws Exception {
+        // Ring 3 corner: distance^2 18 > 4^2, so ring 4 is read too; 18 <= 5^2 then settles
+        place(CENTER + 3L * ROWS + 3, "Farmer");
+
+        Result result = find(1, 20);
+
+        assertEquals(1, result.matches.size());
+        assertEquals(81, result.cellsVisited); // Rings 0 to 4: a full 9x9 square
+    }
+
+    @Test
+    public void stopsAtMaxRangeWithFewerThanKMatches() throws Exception {
+        place(CENTER + 1, "Farmer");
+        place(CENTER + 4L * ROWS, "Farmer"); // Beyond maxRange
+
+        Result result = find(3, 3);
+
+        assertEquals(1, result.matches.size());
+        assertEquals(49, result.cellsVisited); // Rings 0 to 3: a full 7x7 square
+    }
+
+    @Test
+    public void cellsOffTheMapAreNotCounted() throws Exception {
+        Result result = find(1L, 1, 2);
+
+        assertEquals(0, result.matches.size());
+        assertEquals(9, result.cellsVisited); // The corner cell's 3x3 quadrant
+    }
+}
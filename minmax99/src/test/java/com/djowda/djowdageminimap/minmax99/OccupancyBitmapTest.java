@@ -0,0 +1,98 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OccupancyBitmapTest {
+
+    private static final long PARENT = 644966L;
+
+    @Test
+    public void setsAndClearsLeaves() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bitmap.setOccupied(0, true);
+        bitmap.setOccupied(63, true);
+        bitmap.setOccupied(64, true);
+        bitmap.setOccupied(999, true);
+        bitmap.setOccupied(63, false);
+
+        assertTrue(bitmap.isOccupied(0));
+        assertFalse(bitmap.isOccupied(63));
+        assertTrue(bitmap.isOccupied(64));
+        assertTrue(bitmap.isCellOccupied(PARENT * 1000 + 999));
+        assertEquals(3, bitmap.getOccupiedCount());
+    }
+
+    @Test
+    public void visitsOccupiedCellsInOrder() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        for (int leaf : new int[]{500, 3, 128, 999}) {
+            bitmap.setOccupied(leaf, true);
+        }
+        List<Long> cells = new ArrayList<>();
+        bitmap.forEachOccupiedCell(PARENT, cells::add);
+
+        assertEquals(Arrays.asList(PARENT * 1000 + 3, PARENT * 1000 + 128, PARENT * 1000 + 500, PARENT * 1000 + 999), cells);
+    }
+
+    @Test
+    public void survivesBase64RoundTrip() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        for (int leaf = 0; leaf < 1000; leaf += 7) {
+            bitmap.setOccupied(leaf, true);
+        }
+        String encoded = bitmap.toBase64();
+        OccupancyBitmap decoded = OccupancyBitmap.fromBase64(encoded);
+
+        assertEquals(172, encoded.length());
+        for (int leaf = 0; leaf < 1000; leaf++) {
+            assertEquals(bitmap.isOccupied(leaf), decoded.isOccupied(leaf));
+        }
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        OccupancyBitmap copy = bitmap.copy();
+        copy.setOccupied(1, true);
+
+        assertFalse(bitmap.isOccupied(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsLeavesOutsideTheBlock() {
+        new OccupancyBitmap().setOccupied(1000, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsForeignEncodings() {
+        OccupancyBitmap.fromBase64("AAAA");
+    }
+}
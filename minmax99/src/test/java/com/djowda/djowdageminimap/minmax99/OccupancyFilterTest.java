@@ -0,0 +1,184 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OccupancyFilterTest {
+
+    private static final long PARENT = 644966L;
+    private static final long FIRST = PARENT * FetchPlanner.LEAVES_PER_PARENT;
+
+    // Answers synchronously from a fixed bitmap; null models a block without an index
+    private static final class FixedIndex implements OccupancyIndex {
+        OccupancyBitmap bitmap;
+        boolean failing;
+        int reads;
+        final List<Callback> held = new ArrayList<>();
+        boolean hold;
+
+        @Override
+        public void readOccupancy(long parentId, Callback callback) {
+            reads++;
+            if (hold) {
+                held.add(callback);
+            } else if (failing) {
+                callback.onError(new IOException("down"));
+            } else {
+                callback.onOccupancy(parentId, bitmap);
+            }
+        }
+    }
+
+    private static long[] filter(OccupancyFilter filter, long... cellIds) {
+        long[][] kept = new long[1][];
+        filter.filter(cellIds, cellIds.length, (ids, count, skipped) -> kept[0] = Arrays.copyOf(ids, count));
+        return kept[0];
+    }
+
+    private static OccupancyBitmap occupied(int... leaves) {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        for (int leaf : leaves) {
+            bitmap.setOccupied(leaf, true);
+        }
+        return bitmap;
+    }
+
+    @Test
+    public void keepsOnlyOccupiedCells() {
+        FixedIndex index = new FixedIndex();
+        index.bitmap = occupied(1, 3);
+        OccupancyFilter filter = new OccupancyFilter(index);
+
+        assertArrayEquals(new long[]{FIRST + 1, FIRST + 3}, filter(filter, FIRST, FIRST + 1, FIRST + 2, FIRST + 3));
+        assertEquals(2, filter.getCellsSkippedCount());
+    }
+
+    @Test
+    public void readsEachBlockOnceUntilItExpires() {
+        FixedIndex index = new FixedIndex();
+        index.bitmap = occupied(1);
+        long[] now = {0};
+        OccupancyFilter filter = new OccupancyFilter(index, 1_000, () -> now[0]);
+        filter(filter, FIRST, FIRST + 1);
+        filter(filter, FIRST + 2);
+        assertEquals(1, index.reads);
+
+        now[0] = 1_000;
+        filter(filter, FIRST);
+        assertEquals(2, index.reads);
+    }
+
+    @Test
+    public void concurrentFiltersShareOneRead() {
+        FixedIndex index = new FixedIndex();
+        index.hold = true;
+        OccupancyFilter filter = new OccupancyFilter(index);
+        List<Integer> counts = new ArrayList<>();
+        filter.filter(new long[]{FIRST, FIRST + 1}, 2, (ids, count, skipped) -> counts.add(count));
+        filter.filter(new long[]{FIRST + 1}, 1, (ids, count, skipped) -> counts.add(count));
+        assertTrue(counts.isEmpty());
+
+        index.held.get(0).onOccupancy(PARENT, occupied(1));
+        assertEquals(1, index.reads);
+        assertEquals(Arrays.asList(1, 1), counts);
+    }
+
+    @Test
+    public void keepsEveryCellOfBlocksWithoutIndex() {
+        FixedIndex index = new FixedIndex();
+        OccupancyFilter filter = new OccupancyFilter(index);
+
+        assertArrayEquals(new long[]{FIRST, FIRST + 1}, filter(filter, FIRST, FIRST + 1));
+    }
+
+    @Test
+    public void keepsEveryCellWhenTheIndexFails() {
+        FixedIndex index = new FixedIndex();
+        index.failing = true;
+        OccupancyFilter filter = new OccupancyFilter(index);
+
+        assertArrayEquals(new long[]{FIRST, FIRST + 1}, filter(filter, FIRST, FIRST + 1));
+        filter(filter, FIRST);
+        assertEquals(2, index.reads); // Failures are not cached
+    }
+
+    @Test
+    public void markedCellsAreNoLongerSkipped() {
+        FixedIndex index = new FixedIndex();
+        index.bitmap = occupied();
+        OccupancyFilter filter = new OccupancyFilter(index);
+        filter(filter, FIRST);
+        filter.markOccupied(FIRST + 5);
+
+        assertArrayEquals(new long[]{FIRST + 5}, filter(filter, FIRST, FIRST + 5));
+    }
+
+    @Test
+    public void fetcherReadsOnlyOccupiedCells() throws Exception {
+        InMemoryCellDataSource source = new InMemoryCellDataSource();
+        long center = 644966003L;
+        List<Long> stored = new ArrayList<>();
+        NearbyCellUtils.forEachNearbyCellId(center, 5, cellId -> {
+            if (cellId % 4 == 0) {
+                source.put(cellId, Collections.singletonList(new Component("c" + cellId, "Store", true, cellId)));
+                stored.add(cellId);
+            }
+        });
+        OccupancyFilter filter = new OccupancyFilter(source);
+        // Leaf reads only, so the read count equals the number of cells read
+        FetchPlanner leavesOnly = new FetchPlanner(new FetchPlanner.CostModel(0, 0.3, 200));
+        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(source, leavesOnly, new FetchScheduler(), filter);
+
+        CompletableFuture<NearbyComponentFetcher.FetchResult> result = new CompletableFuture<>();
+        fetcher.fetchNearbyComponents(center, 5, new NearbyComponentFetcher.OnFetchComplete() {
+            @Override
+            public void onResult(NearbyComponentFetcher.FetchResult fetched) {
+                result.complete(fetched);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        NearbyComponentFetcher.FetchResult fetched = result.get(5, TimeUnit.SECONDS);
+
+        assertEquals(stored.size(), fetched.cellComponents.size());
+        long blocks = source.getRequestCount() - stored.size();
+        assertEquals(filter.getIndexReadCount(), blocks);
+        assertEquals(121 - stored.size(), filter.getCellsSkippedCount());
+    }
+}
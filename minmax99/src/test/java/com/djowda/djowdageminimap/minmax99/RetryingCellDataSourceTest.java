@@ -0,0 +1,177 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RetryingCellDataSourceTest {
+
+    private static final long CENTER = 644966003L;
+
+    private enum Outcome { ANSWER, FAIL, HANG }
+
+    private interface Script {
+        Outcome outcome(long cellId, int attempt);
+    }
+
+    // Every cell holds one component; each attempt answers, fails or never returns per the script
+    private static final class ScriptedDataSource implements CellDataSource {
+        final Map<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final Script script;
+
+        ScriptedDataSource(Script script) {
+            this.script = script;
+        }
+
+        @Override
+        public void readCell(long cellId, ReadCallback callback) {
+            int attempt = attempts.computeIfAbsent(cellId, id -> new AtomicInteger()).incrementAndGet();
+            switch (script.outcome(cellId, attempt)) {
+                case ANSWER:
+                    callback.onCell(cellId, Collections.singletonList(new Component("c" + cellId, "Store", true, cellId)));
+                    callback.onComplete();
+                    break;
+                case FAIL:
+                    callback.onError(new IOException("attempt " + attempt + " of " + cellId));
+                    break;
+                case HANG:
+                    break;
+            }
+        }
+
+        @Override
+        public void readParent(long parentId, ReadCallback callback) {
+            throw new UnsupportedOperationException("Leaf-only plan expected");
+        }
+    }
+
+    private static NearbyComponentFetcher.FetchResult fetch(CellDataSource source, int range) throws Exception {
+        NearbyComponentFetcher fetcher = new NearbyComponentFetcher(source,
+                new FetchPlanner(new FetchPlanner.CostModel(0, 1, 1)), new FetchScheduler(1000));
+        CompletableFuture<NearbyComponentFetcher.FetchResult> future = new CompletableFuture<>();
+        fetcher.fetchNearbyComponents(CENTER, range, new NearbyComponentFetcher.OnFetchComplete() {
+            @Override
+            public void onResult(NearbyComponentFetcher.FetchResult result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    private static RetryingCellDataSource.Policy policy(int maxAttempts, double ratio, int reserve, boolean hedging) {
+        return new RetryingCellDataSource.Policy(maxAttempts, 1, 4, ratio, reserve, hedging, 5);
+    }
+
+    @Test
+    public void transientFailuresAreRetriedAway() throws Exception {
+        ScriptedDataSource flaky = new ScriptedDataSource((cellId, attempt) -> attempt < 3 ? Outcome.FAIL : Outcome.ANSWER);
+        RetryingCellDataSource source = new RetryingCellDataSource(flaky, policy(3, 2.0, 1000, false));
+
+        NearbyComponentFetcher.FetchResult result = fetch(source, 2);
+        assertEquals(25, result.cellComponents.size());
+        assertEquals(0, result.failedCellIds.length);
+        assertEquals(50, source.getRetryCount());
+        assertEquals(0, source.getFailureCount());
+    }
+
+    @Test
+    public void budgetCapsRetriesDuringAnOutage() throws Exception {
+        ScriptedDataSource down = new ScriptedDataSource((cellId, attempt) -> Outcome.FAIL);
+        RetryingCellDataSource source = new RetryingCellDataSource(down, policy(5, 0, 4, false));
+
+        try {
+            fetch(source, 2);
+            throw new AssertionError("Expected every read to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        // 25 first attempts, then only the 4 reserved retries
+        assertEquals(4, source.getRetryCount());
+        assertEquals(25, source.getFailureCount());
+        int total = down.attempts.values().stream().mapToInt(AtomicInteger::get).sum();
+        assertEquals(29, total);
+    }
+
+    @Test
+    public void permanentFailuresComeBackAsAPartialResult() throws Exception {
+        long[] broken = {CENTER - 1, CENTER + 42000L};
+        ScriptedDataSource partlyDown = new ScriptedDataSource((cellId, attempt) ->
+                cellId == broken[0] || cellId == broken[1] ? Outcome.FAIL : Outcome.ANSWER);
+        RetryingCellDataSource source = new RetryingCellDataSource(partlyDown, policy(3, 1.0, 100, false));
+
+        NearbyComponentFetcher.FetchResult result = fetch(source, 2);
+        assertTrue(result.isPartial());
+        Arrays.sort(broken);
+        assertArrayEquals(broken, result.failedCellIds);
+        assertEquals(23, result.cellComponents.size());
+        assertEquals(3, partlyDown.attempts.get(broken[0]).get());
+    }
+
+    @Test
+    public void slowReadIsHedgedAndTheHedgeWins() throws Exception {
+        long slowCell = CENTER;
+        ScriptedDataSource source = new ScriptedDataSource((cellId, attempt) ->
+                cellId == slowCell && attempt == 1 ? Outcome.HANG : Outcome.ANSWER);
+        RetryingCellDataSource hedging = new RetryingCellDataSource(source, policy(1, 1.0, 100, true));
+
+        // Warm the latency window so a p95 exists
+        NearbyCellUtils.forEachNearbyCellId(CENTER + 42000L * 10, 2, cellId -> hedging.readCell(cellId, new CellDataSource.ReadCallback() {
+            @Override
+            public void onCell(long id, List<Component> components) { }
+
+            @Override
+            public void onComplete() { }
+
+            @Override
+            public void onError(Exception e) { }
+        }));
+        assertTrue(hedging.getHedgeDelay(TimeUnit.NANOSECONDS) >= 0);
+
+        NearbyComponentFetcher.FetchResult result = fetch(hedging, 1);
+        assertEquals(9, result.cellComponents.size());
+        assertEquals(1, hedging.getHedgeCount());
+        assertEquals(1, hedging.getHedgeWinCount());
+        assertEquals(2, source.attempts.get(slowCell).get());
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SingleFlightCellDataSourceTest {
+
+    private static final long CELL = 644966003L;
+
+    // Holds every read open until the test finishes it
+    private static final class HeldDataSource implements CellDataSource {
+        final List<Long> reads = new ArrayList<>();
+        final List<ReadCallback> open = new ArrayList<>();
+
+        @Override
+        public synchronized void readCell(long cellId, ReadCallback callback) {
+            reads.add(cellId);
+            open.add(callback);
+        }
+
+        @Override
+        public synchronized void readParent(long parentId, ReadCallback callback) {
+            reads.add(-parentId);
+            open.add(callback);
+        }
+
+        void answer(int index, long cellId) {
+            ReadCallback callback = open.get(index);
+            callback.onCell(cellId, Collections.singletonList(new Component("c" + cellId, "Store", true, cellId)));
+            callback.onComplete();
+        }
+    }
+
+    private static final class Recorder implements CellDataSource.ReadCallback {
+        final List<Long> cells = new ArrayList<>();
+        int completions;
+        Exception error;
+
+        @Override
+        public void onCell(long cellId, List<Component> components) {
+            cells.add(cellId);
+        }
+
+        @Override
+        public void onComplete() {
+            completions++;
+        }
+
+        @Override
+        public void onError(Exception e) {
+            error = e;
+        }
+    }
+
+    @Test
+    public void concurrentReadsOfOneCellShareOneRequest() {
+        HeldDataSource held = new HeldDataSource();
+        SingleFlightCellDataSource source = new SingleFlightCellDataSource(held);
+        Recorder a = new Recorder();
+        Recorder b = new Recorder();
+        Recorder c = new Recorder();
+        source.readCell(CELL, a);
+        source.readCell(CELL, b);
+        source.readCell(CELL + 1, c);
+        assertEquals(2, held.reads.size());
+        assertEquals(1, source.getSavedCount());
+
+        held.answer(0, CELL);
+        assertEquals(List.of(CELL), a.cells);
+        assertEquals(List.of(CELL), b.cells);
+        assertEquals(1, a.completions);
+        assertEquals(1, b.completions);
+        assertEquals(0, c.completions);
+
+        // Finished flights are not cached: the next read goes out again
+        source.readCell(CELL, new Recorder());
+        assertEquals(3, held.reads.size());
+        assertEquals(4, source.getRequestedCount());
+        assertEquals(3, source.getIssuedCount());
+    }
+
+    @Test
+    public void failuresFanOutToEveryJoiner() {
+        HeldDataSource held = new HeldDataSource();
+        SingleFlightCellDataSource source = new SingleFlightCellDataSource(held);
+        Recorder a = new Recorder();
+        Recorder b = new Recorder();
+        source.readParent(CELL / 1000, a);
+        source.readParent(CELL / 1000, b);
+        assertEquals(1, held.reads.size());
+
+        IOException failure = new IOException("down");
+        held.open.get(0).onError(failure);
+        assertEquals(failure, a.error);
+        assertEquals(failure, b.error);
+        assertEquals(0, source.getInFlightCount());
+    }
+
+    @Test
+    public void parallelCallersEachGetExactlyOneOutcome() throws Exception {
+        InMemoryCellDataSource backend = InMemoryCellDataSource.withRandomComponents(1f);
+        backend.setLatency(2, 2, TimeUnit.MILLISECONDS);
+        SingleFlightCellDataSource source = new SingleFlightCellDataSource(backend);
+        int callers = 64;
+        CountDownLatch done = new CountDownLatch(callers);
+        int[] outcomes = new int[callers];
+        for (int i = 0; i < callers; i++) {
+            int caller = i;
+            new Thread(() -> source.readCell(CELL + caller % 4, new CellDataSource.ReadCallback() {
+                @Override
+                public void onCell(long cellId, List<Component> components) { }
+
+                @Override
+                public void onComplete() {
+                    synchronized (outcomes) {
+                        outcomes[caller]++;
+                    }
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    done.countDown();
+                }
+            })).start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        synchronized (outcomes) {
+            for (int outcome : outcomes) {
+                assertEquals(1, outcome);
+            }
+        }
+        assertEquals(callers, source.getRequestedCount());
+        assertEquals(backend.getRequestCount(), source.getIssuedCount());
+        assertTrue(source.getSavedCount() > 0);
+    }
+}
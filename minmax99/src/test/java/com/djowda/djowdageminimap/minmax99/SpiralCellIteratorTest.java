@@ -0,0 +1,80 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpiralCellIteratorTest {
+
+    @Test
+    public void spiral_coversSquareInRingOrder() {
+        for (long center : new long[]{644966003L, 1L, 42_000L}) {
+            SpiralCellIterator spiral = new SpiralCellIterator(center, 6);
+            Set<Long> visited = new HashSet<>();
+            int previousRing = 0;
+            while (spiral.hasNext()) {
+                long cellId = spiral.nextLong();
+                assertTrue("duplicate " + cellId, visited.add(cellId));
+                assertEquals(SpiralCellIterator.ringOf(center, cellId), spiral.lastRing());
+                assertTrue(spiral.lastRing() >= previousRing);
+                previousRing = spiral.lastRing();
+            }
+            assertEquals(new HashSet<>(NearbyCellUtils.getNearbyCellIds(center, 6)), visited);
+        }
+    }
+
+    @Test
+    public void ring_hasEightKCellsAwayFromEdges() {
+        long center = 644966003L;
+        for (int ring = 0; ring <= 10; ring++) {
+            int expectedRing = ring;
+            int count = SpiralCellIterator.forEachCellInRing(center, ring,
+                    cellId -> assertEquals(expectedRing, SpiralCellIterator.ringOf(center, cellId)));
+            assertEquals(SpiralCellIterator.ringSize(ring), count);
+        }
+    }
+
+    @Test
+    public void countCellsInRing_matchesVisitedCells() {
+        for (long center : new long[]{644966003L, 1L, 42_000L, 82_000L * 42_000L}) {
+            for (int ring = 0; ring <= 5; ring++) {
+                assertEquals(SpiralCellIterator.forEachCellInRing(center, ring, cellId -> { }),
+                        SpiralCellIterator.countCellsInRing(center, ring));
+            }
+        }
+    }
+
+    @Test
+    public void ring_skipsCellsOutsideTheMap() {
+        // First cell of the map: only a quarter of ring 1 exists
+        assertEquals(3, SpiralCellIterator.forEachCellInRing(1L, 1, cellId -> { }));
+        SpiralCellIterator spiral = new SpiralCellIterator(1L, 0);
+        assertEquals(1L, spiral.nextLong());
+        assertFalse(spiral.hasNext());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.Component;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SyntheticWorldTest {
+
+    private static final long CENTER = 644966003L;
+    private static final int ROWS = 42000;
+
+    @Test
+    public void contentIsAPureFunctionOfSeedAndCell() {
+        SyntheticWorld first = SyntheticWorld.clustered(7);
+        SyntheticWorld second = SyntheticWorld.clustered(7);
+        SyntheticWorld other = SyntheticWorld.clustered(8);
+
+        int differing = 0;
+        for (long cellId = CENTER; cellId < CENTER + 2000; cellId++) {
+            assertEquals(first.generate(cellId), second.generate(cellId));
+            assertEquals(first.generate(cellId), first.generate(cellId));
+            assertEquals(!first.generate(cellId).isEmpty(), first.isOccupied(cellId));
+            if (!first.generate(cellId).equals(other.generate(cellId))) {
+                differing++;
+            }
+        }
+        assertTrue("Seeds should give different worlds", differing > 0);
+    }
+
+    @Test
+    public void uniformWorldMatchesItsOccupancy() {
+        SyntheticWorld world = SyntheticWorld.uniform(SyntheticWorld.DEFAULT_SEED, 0.3f);
+        int occupied = 0;
+        int cells = 100_000;
+        for (long cellId = CENTER; cellId < CENTER + cells; cellId++) {
+            List<Component> components = world.generate(cellId);
+            if (!components.isEmpty()) {
+                occupied++;
+                assertEquals(1, components.size());
+                assertSame(ComponentType.STORE, ComponentType.fromName(components.get(0).getName()));
+                assertEquals(cellId, components.get(0).getCellId());
+            }
+        }
+        assertEquals(0.3, occupied / (double) cells, 0.01);
+    }
+
+    @Test
+    public void clusteredWorldHasDenseTownsAndSparseCountryside() {
+        SyntheticWorld world = SyntheticWorld.clustered(SyntheticWorld.DEFAULT_SEED);
+        long urbanCells = 0;
+        long urbanOccupied = 0;
+        long ruralCells = 0;
+        long ruralOccupied = 0;
+        int maxCount = 0;
+        // A 400 x 400 block spans dozens of towns
+        for (int column = 0; column < 400; column++) {
+            for (int row = 0; row < 400; row++) {
+                long cellId = CENTER + (long) column * ROWS + row;
+                double urbanity = world.urbanity(cellId);
+                int count = world.generate(cellId).size();
+                maxCount = Math.max(maxCount, count);
+                if (urbanity > 0.5) {
+                    urbanCells++;
+                    urbanOccupied += count > 0 ? 1 : 0;
+                } else if (urbanity < 0.05) {
+                    ruralCells++;
+                    ruralOccupied += count > 0 ? 1 : 0;
+                }
+            }
+        }
+        assertTrue(urbanCells > 1000 && ruralCells > urbanCells);
+        assertTrue(urbanOccupied / (double) urbanCells > 0.5);
+        assertTrue(ruralOccupied / (double) ruralCells < 0.1);
+        assertTrue(maxCount > 1 && maxCount <= 12);
+    }
+
+    @Test
+    public void typesFollowTheMix() {
+        SyntheticWorld.TypeMix mix = SyntheticWorld.TypeMix.DEFAULT;
+        SyntheticWorld world = new SyntheticWorld(3, 1f, 1f, 1, 1, mix);
+        Map<ComponentType, Integer> counts = new EnumMap<>(ComponentType.class);
+        int cells = 200_000;
+        for (long cellId = CENTER; cellId < CENTER + cells; cellId++) {
+            ComponentType type = ComponentType.fromName(world.generate(cellId).get(0).getName());
+            counts.merge(type, 1, Integer::sum);
+        }
+        for (ComponentType type : ComponentType.values()) {
+            assertEquals(type.name(), mix.share(type), counts.getOrDefault(type, 0) / (double) cells, 0.01);
+        }
+    }
+
+    @Test
+    public void typeIsReadBackFromTheNameOnly() {
+        assertSame(ComponentType.SEED_PROVIDER, ComponentType.fromName("Seed provider 12-3"));
+        assertSame(ComponentType.USER, ComponentType.fromName("User"));
+        assertEquals(null, ComponentType.fromName("Users 12"));
+        assertEquals(null, ComponentType.fromName(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnAllZeroMix() {
+        new SyntheticWorld.TypeMix(0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    public void sourceServesTheWorldAndHonoursWrites() throws Exception {
+        SyntheticWorld world = SyntheticWorld.clustered(5);
+        InMemoryCellDataSource source = InMemoryCellDataSource.withSyntheticWorld(world);
+        long occupied = CENTER;
+        while (!world.isOccupied(occupied)) {
+            occupied++;
+        }
+        assertEquals(world.generate(occupied), read(source, occupied));
+
+        List<Component> replaced = Collections.singletonList(new Component("x", "Farmer 1", true, occupied));
+        source.put(occupied, replaced);
+        assertEquals(replaced, read(source, occupied));
+        assertNotEquals(world.generate(occupied), read(source, occupied));
+    }
+
+    private static List<Component> read(CellDataSource source, long cellId) throws Exception {
+        CompletableFuture<List<Component>> result = new CompletableFuture<>();
+        source.readCell(cellId, new CellDataSource.ReadCallback() {
+            @Override
+            public void onCell(long id, List<Component> components) {
+                result.complete(components);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(Collections.emptyList());
+            }
+
+            @Override
+            public void onError(Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class UiBatcherTest {
+
+    @Test
+    public void itemsArrivingBeforeTheTaskRunsShareOneBatch() {
+        ArrayDeque<Runnable> ui = new ArrayDeque<>();
+        List<List<Integer>> applied = new ArrayList<>();
+        UiBatcher<Integer> batcher = new UiBatcher<>(ui::add, applied::add);
+
+        batcher.submit(1);
+        batcher.submit(2);
+        batcher.submit(3);
+        assertEquals(1, ui.size());
+        ui.poll().run();
+
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3)), applied);
+        assertEquals(1, batcher.getBatchCount());
+        assertEquals(3, batcher.getItemCount());
+    }
+
+    @Test
+    public void itemsAfterADrainScheduleTheNextOne() {
+        ArrayDeque<Runnable> ui = new ArrayDeque<>();
+        List<List<Integer>> applied = new ArrayList<>();
+        UiBatcher<Integer> batcher = new UiBatcher<>(ui::add, applied::add);
+
+        batcher.submit(1);
+        ui.poll().run();
+        batcher.submit(2);
+        assertEquals(1, ui.size());
+        ui.poll().run();
+
+        assertEquals(Arrays.asList(Arrays.asList(1), Arrays.asList(2)), applied);
+    }
+
+    @Test
+    public void concurrentProducersLoseNothing() throws Exception {
+        ExecutorService ui = Executors.newSingleThreadExecutor();
+        List<Integer> applied = new ArrayList<>(); // Touched only by the ui thread
+        UiBatcher<Integer> batcher = new UiBatcher<>(ui, applied::addAll);
+        int producers = 4;
+        int perProducer = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    batcher.submit(base + i);
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        // Everything submitted is queued or scheduled; a trailing task observes the end state
+        CountDownLatch drained = new CountDownLatch(1);
+        int[] size = new int[1];
+        ui.execute(() -> {
+            size[0] = applied.size();
+            drained.countDown();
+        });
+        assertTrue(drained.await(10, TimeUnit.SECONDS));
+        ui.shutdown();
+
+        assertEquals(producers * perProducer, size[0]);
+        assertEquals(producers * perProducer, batcher.getItemCount());
+        assertTrue(batcher.getBatchCount() <= producers * perProducer);
+    }
+}
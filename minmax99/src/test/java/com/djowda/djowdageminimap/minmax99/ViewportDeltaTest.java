@@ -0,0 +1,109 @@
+/*
+ * Created by the Djowda Project Team
+ * Copyright (c) 2017-2025 Djowda. All rights reserved.
+ *
+ * This file is part of the Djowda Project.
+ *
+ * Licensed under the Djowda Non-Commercial, Non-Profit License v1.0
+ *
+ * Permissions:
+ * - You may use, modify, and share this file for non-commercial and non-profit purposes only.
+ * - Commercial use of this file, in any form, requires prior written permission
+ *   from the Djowda Project maintainers.
+ *
+ * Notes:
+ * - This project is community-driven and continuously evolving.
+ * - The Djowda Project reserves the right to relicense future versions.
+ *
+ * Last Modified: 2025-09-10 19:31
+ */
+
+package com.djowda.djowdageminimap.minmax99;
+
+import com.djowda.djowdageminimap.MapTest.CellIdMapper;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ViewportDeltaTest {
+
+    private static final long CENTER = 644966003L;
+    private static final int ROWS = 42000;
+
+    private static Set<Long> cells(CellIdMapper mapper) {
+        Set<Long> cells = new HashSet<>();
+        mapper.forEachCellId(cells::add);
+        return cells;
+    }
+
+    private static void assertMatchesSetDifference(CellIdMapper from, CellIdMapper to) {
+        Set<Long> before = cells(from);
+        Set<Long> after = cells(to);
+        ViewportDelta delta = ViewportDelta.between(from, to);
+
+        Set<Long> entering = new HashSet<>();
+        delta.forEachEntering(entering::add);
+        Set<Long> leaving = new HashSet<>();
+        delta.forEachLeaving(leaving::add);
+        Set<Long> staying = new HashSet<>();
+        delta.forEachStaying(staying::add);
+
+        Set<Long> expectedEntering = new HashSet<>(after);
+        expectedEntering.removeAll(before);
+        Set<Long> expectedLeaving = new HashSet<>(before);
+        expectedLeaving.removeAll(after);
+        Set<Long> expectedStaying = new HashSet<>(before);
+        expectedStaying.retainAll(after);
+
+        assertEquals(expectedEntering, entering);
+        assertEquals(expectedLeaving, leaving);
+        assertEquals(expectedStaying, staying);
+        assertEquals(expectedEntering.size(), delta.getEnteringCount());
+        assertEquals(expectedLeaving.size(), delta.getLeavingCount());
+        assertEquals(expectedStaying.size(), delta.getStayingCount());
+    }
+
+    @Test
+    public void delta_matchesSetDifference() {
+        CellIdMapper from = new CellIdMapper(CENTER, 20);
+        int[][] moves = {{0, 0}, {0, 1}, {1, 0}, {-1, -1}, {3, -2}, {20, 20}, {40, 0}, {41, 0}, {100, 7}};
+        for (int[] move : moves) {
+            long center = CENTER + (long) move[0] * ROWS + move[1];
+            assertMatchesSetDifference(from, new CellIdMapper(center, 20));
+        }
+        // Range changes and map edges
+        assertMatchesSetDifference(from, new CellIdMapper(CENTER + 2, 5));
+        assertMatchesSetDifference(new CellIdMapper(1L, 3), new CellIdMapper(2L, 3));
+    }
+
+    @Test
+    public void panByOneCell_fetchesOneStrip() {
+        CellIdMapper from = new CellIdMapper(CENTER, 20);
+        ViewportDelta delta = ViewportDelta.between(from, new CellIdMapper(CENTER + ROWS, 20));
+
+        assertFalse(delta.isFullRefresh());
+        assertEquals(41, delta.getEnteringCount());
+        assertEquals(41 * 40, delta.getStayingCount());
+
+        long[] buffer = new long[41];
+        assertEquals(41, delta.fillEntering(buffer));
+    }
+
+    @Test
+    public void firstNavigation_andDistantJump_areFullRefreshes() {
+        CellIdMapper to = new CellIdMapper(CENTER, 20);
+        ViewportDelta initial = ViewportDelta.between(null, to);
+        assertTrue(initial.isFullRefresh());
+        assertEquals(41 * 41, initial.getEnteringCount());
+
+        ViewportDelta jump = ViewportDelta.between(to, new CellIdMapper(CENTER + 1000L * ROWS, 20));
+        assertTrue(jump.isFullRefresh());
+        assertEquals(41 * 41, jump.getLeavingCount());
+    }
+}
@@ -41,4 +41,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "DjowdaGeminiMap"
 include(":app")
+include(":minmax99")
  
\ No newline at end of file